@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.benchmarks;
+
+import com.tpa.twitterapi.api.generic.bean.TwitterDateParser;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures GenericTwitterBean.getCreatedDate() | getCreatedEpochMillis(), called by the comparators of TwitterStatuses
+ * 
+ * And the parsing itself (TwitterDateParser), done once per bean
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreatedDateBenchmark {
+
+    private TwitterStatus status;
+    private String createdDate;
+
+    @Setup
+    public void setUp() throws IOException {
+        status = Fixtures.generateStatuses(1).get(0);
+        createdDate = "Mon May 01 10:00:00 +0000 2017";
+    }
+
+    @Benchmark
+    public Date getCreatedDate() {
+        return status.getCreatedDate();
+    }
+
+    @Benchmark
+    public Date getAuthorCreatedDate() {
+        return status.getAuthor().getCreatedDate();
+    }
+
+    @Benchmark
+    public long getCreatedEpochMillis() {
+        return status.getCreatedEpochMillis();
+    }
+
+    @Benchmark
+    public long parseEpochMillis() {
+        return TwitterDateParser.parseEpochMillis(createdDate);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.benchmarks;
+
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.api.generic.call.streamingcall.StreamingMessageParser;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Data shared by the benchmarks
+ *
+ * - filter-stream.jsonl: generated messages in the format of https://stream.twitter.com/1.1/statuses/filter.json
+ * (statuses, delete and limit notices, keep-alive lines)
+ * - generated statuses: for the benchmarks which need a large number of statuses
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class Fixtures {
+
+    public static final String FILTER_STREAM = "filter-stream.jsonl";
+
+    private static final DateTimeFormatter TWITTER_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.ENGLISH)
+            .withZone(ZoneOffset.UTC);
+
+    // 2017-05-01T00:00:00Z
+    private static final long FIRST_STATUS_EPOCH_SECOND = 1493596800L;
+    // 2010-01-01T00:00:00Z
+    private static final long FIRST_AUTHOR_EPOCH_SECOND = 1262304000L;
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param fileName : a resource of the benchmarks module
+     * @param times : the number of times the content is repeated
+     * @return the content of the resource
+     * @throws IOException
+     */
+    public static byte[] readResource(String fileName, int times) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        try (InputStream input = Fixtures.class.getClassLoader().getResourceAsStream(fileName)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                content.write(buffer, 0, read);
+            }
+        }
+
+        byte[] once = content.toByteArray();
+        byte[] result = new byte[once.length * times];
+        for (int i = 0; i < times; i++) {
+            System.arraycopy(once, 0, result, i * once.length, once.length);
+        }
+
+        return result;
+    }
+
+    /**
+     * Generates valid statuses, in a random order
+     *
+     * There is one author for 20 statuses
+     *
+     * @param size : the number of statuses
+     * @return the statuses
+     * @throws IOException
+     */
+    public static List<TwitterStatus> generateStatuses(int size) throws IOException {
+        StreamingMessageParser<TwitterStatus> parser = new StreamingMessageParser<>(TwitterStatus.class);
+        Random random = new Random(42);
+
+        int authorCount = Math.max(1, size / 20);
+        List<TwitterStatus> statuses = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int author = random.nextInt(authorCount);
+
+            String json = "{\"id\":" + (800000000000000000L + i)
+                    + ",\"created_at\":\"" + formatDate(FIRST_STATUS_EPOCH_SECOND + random.nextInt(30 * 24 * 3600)) + "\""
+                    + ",\"text\":\"Generated status number " + i + "\""
+                    + ",\"user\":{\"id\":" + (1000L + author)
+                    + ",\"created_at\":\"" + formatDate(FIRST_AUTHOR_EPOCH_SECOND + author * 3600L) + "\""
+                    + ",\"name\":\"Author " + author + "\",\"screen_name\":\"author_" + author + "\"}}";
+
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            statuses.add(parser.parse(bytes, 0, bytes.length));
+        }
+
+        Collections.shuffle(statuses, random);
+
+        return statuses;
+    }
+
+    private static String formatDate(long epochSecond) {
+        return TWITTER_DATE_FORMAT.format(Instant.ofEpochSecond(epochSecond));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.benchmarks;
+
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.api.generic.call.streamingcall.StreamingMessageParser;
+import com.tpa.twitterapi.api.generic.call.streamingcall.StreamingMessageReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the parsing loop of the AbstractStreamingCall on the generated filter stream
+ *
+ * One operation = the whole generated stream (repeated STREAM_REPETITIONS times) is framed and parsed
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingParsingBenchmark {
+
+    private static final int STREAM_REPETITIONS = 100;
+
+    private byte[] filterStream;
+    private StreamingMessageParser<TwitterStatus> parser;
+    private StreamingMessageParser<TwitterStatus> lazyParser;
+
+    @Setup
+    public void setUp() throws IOException {
+        filterStream = Fixtures.readResource(Fixtures.FILTER_STREAM, STREAM_REPETITIONS);
+        parser = new StreamingMessageParser<>(TwitterStatus.class);
+        lazyParser = new StreamingMessageParser<>(TwitterStatus.class, true);
+    }
+
+    @Benchmark
+    public int parseFilterStream(Blackhole blackhole) throws IOException {
+        StreamingMessageReader reader = new StreamingMessageReader(new ByteArrayInputStream(filterStream));
+        int validStatuses = 0;
+
+        while (reader.nextMessage()) {
+            if (reader.isKeepAlive()) {
+                continue;
+            }
+
+            TwitterStatus status = parser.parse(reader);
+            if (status.isValid()) {
+                validStatuses++;
+            }
+            blackhole.consume(status);
+        }
+
+        return validStatuses;
+    }
+
+    /**
+     * A filtering pipeline which rejects every status after reading its ID (cf. LazyTwitterStatus)
+     */
+    @Benchmark
+    public int filterFilterStreamLazily(Blackhole blackhole) throws IOException {
+        StreamingMessageReader reader = new StreamingMessageReader(new ByteArrayInputStream(filterStream));
+        int validStatuses = 0;
+
+        while (reader.nextMessage()) {
+            if (reader.isKeepAlive()) {
+                continue;
+            }
+
+            TwitterStatus status = lazyParser.parse(reader);
+            if (status.isValid()) {
+                validStatuses++;
+            }
+            blackhole.consume(status.getId());
+        }
+
+        return validStatuses;
+    }
+
+    @Benchmark
+    public int frameFilterStream() throws IOException {
+        StreamingMessageReader reader = new StreamingMessageReader(new ByteArrayInputStream(filterStream));
+        int messages = 0;
+
+        while (reader.nextMessage()) {
+            messages++;
+        }
+
+        return messages;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.benchmarks;
+
+import com.tpa.twitterapi.api.generic.bean.ColumnarTwitterStatuses;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatuses;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures TwitterStatuses.getOrderedStatuses() and TwitterStatuses.addStatus(), and the same methods of ColumnarTwitterStatuses
+ *
+ * getFirstOrderedStatusesFromIndex() reads the sorted keys, which are created during the first warmup iteration
+ * getOrderedStatusesOnce() measures the first call on a new collection, when nothing is sorted yet
+ *
+ * One operation = the ordering of the whole collection | the filling of a new collection with all the statuses
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class TwitterStatusesBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<TwitterStatus> generatedStatuses;
+    private TwitterStatuses twitterStatuses;
+
+    @Setup
+    public void setUp() throws IOException {
+        generatedStatuses = Fixtures.generateStatuses(size);
+        twitterStatuses = new TwitterStatuses(new ArrayList<>(generatedStatuses));
+    }
+
+    @Benchmark
+    public List<TwitterStatus> getOrderedStatuses() {
+        return twitterStatuses.getOrderedStatuses(false);
+    }
+
+    @Benchmark
+    public List<TwitterStatus> getOrderedStatusesInParallel() {
+        return twitterStatuses.getOrderedStatuses(true);
+    }
+
+    @Benchmark
+    public List<TwitterStatus> getOrderedStatusesOnce() {
+        return new TwitterStatuses(generatedStatuses).getOrderedStatuses();
+    }
+
+    @Benchmark
+    public List<TwitterStatus> getFirstOrderedStatusesFromIndex() {
+        return twitterStatuses.getOrderedStatuses(100);
+    }
+
+    @Benchmark
+    public TwitterStatuses addStatus() {
+        TwitterStatuses filledStatuses = new TwitterStatuses(new ArrayList<>());
+
+        for (TwitterStatus status : generatedStatuses) {
+            filledStatuses.addStatus(status);
+        }
+
+        return filledStatuses;
+    }
+
+    @Benchmark
+    public List<TwitterStatus> addStatusesAndGetOrderedStatusesColumnar() {
+        ColumnarTwitterStatuses filledStatuses = new ColumnarTwitterStatuses(size, null);
+
+        for (TwitterStatus status : generatedStatuses) {
+            filledStatuses.addStatus(status);
+        }
+
+        return filledStatuses.getOrderedStatuses(100);
+    }
+}
@@ -21,15 +21,23 @@ import com.google.api.client.auth.oauth.OAuthGetAccessToken;
 import com.google.api.client.auth.oauth.OAuthGetTemporaryToken;
 import com.google.api.client.auth.oauth.OAuthHmacSigner;
 import com.google.api.client.auth.oauth.OAuthParameters;
+import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
 import com.google.api.client.http.HttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.tpa.twitterapi.api.authentificator.credential.InterfaceCredentialStore;
+import com.tpa.twitterapi.api.authentificator.credential.TwitterCredentials;
+import com.tpa.twitterapi.api.authentificator.ratelimit.RateLimitGovernor;
+import com.tpa.twitterapi.api.authentificator.transport.InterfaceHttpTransportFactory;
+import com.tpa.twitterapi.api.generic.call.staticcall.StaticCallCache;
 import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
 import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
 import com.tpa.twitterapi.tools.singleton.scanner.ScannerSingleton;
 import com.tpa.twitterapi.exception.TwitterAuthenticationException;
 import com.tpa.twitterapi.exception.WrongConversionException;
 import java.io.IOException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -40,6 +48,10 @@ import java.util.logging.Logger;
  * 1. Visit the random link to Twitter authentification and to authorize the Twitter application
  * 2. Copy/paste the given PIN in the console
  * 
+ * The obtained access token is kept by the credential store defined in the config.properties (twitter.credentials.store),
+ * so the next launches start directly, without asking for the PIN again (unless Twitter rejects the stored token)
+ * NB: the default store (EncryptedFileCredentialStore) stores nothing without twitter.credentials.passphrase
+ * 
  * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
  */
 public final class TwitterAuthenticator {
@@ -51,17 +63,68 @@ public final class TwitterAuthenticator {
     private static final String AUTHORIZE_URL = "https://api.twitter.com/oauth/authorize";
     private static final String ACCESS_TOKEN_URL = "https://api.twitter.com/oauth/access_token";
     private static final String REQUEST_TOKEN_URL = "https://api.twitter.com/oauth/request_token";
+    private static final String VERIFY_CREDENTIALS_URL = "https://api.twitter.com/1.1/account/verify_credentials.json?include_entities=false&skip_status=true";
     
     private String consumerKey;
     private String consumerSecret;
 
     private HttpRequestFactory httpRequestFactory;
     private HttpTransport httpTransport;
+    
+    private final InterfaceCredentialStore credentialStore;
+    private final InterfaceHttpTransportFactory httpTransportFactory;
+    
+    // Rate limits are per access token: shared by all the calls using this authenticator
+    private final RateLimitGovernor rateLimitGovernor;
+    // Results are per access token too
+    private final StaticCallCache staticCallCache;
 
+    /**
+     * Uses the credential store defined in the config.properties
+     * 
+     * @throws TwitterAuthenticationException 
+     */
     public TwitterAuthenticator() throws TwitterAuthenticationException {
+        this(getDefaultCredentialStore());
+    }
+    
+    /**
+     * 
+     * @param credentialStore : keeps the access token between 2 launches (null to ask for the PIN at every launch)
+     * @throws TwitterAuthenticationException 
+     */
+    public TwitterAuthenticator(InterfaceCredentialStore credentialStore) throws TwitterAuthenticationException {
+        this(credentialStore, PROPERTY_SINGLETON.getObject("twitter.http.transportFactory", InterfaceHttpTransportFactory.class));
+    }
+    
+    /**
+     * 
+     * @param credentialStore : keeps the access token between 2 launches (null to ask for the PIN at every launch)
+     * @param httpTransportFactory : creates the HttpTransport used by all the calls
+     * @throws TwitterAuthenticationException 
+     */
+    public TwitterAuthenticator(InterfaceCredentialStore credentialStore, InterfaceHttpTransportFactory httpTransportFactory) throws TwitterAuthenticationException {
+        this.credentialStore = credentialStore;
+        this.httpTransportFactory = httpTransportFactory;
+        this.rateLimitGovernor = new RateLimitGovernor();
+        this.staticCallCache = new StaticCallCache();
         setHttpRequestFactory();
     }
     
+    /**
+     * 
+     * @return the credential store of the config.properties, or null if the property is empty
+     */
+    private static InterfaceCredentialStore getDefaultCredentialStore() {
+        String credentialStoreType = PROPERTY_SINGLETON.getProperty("twitter.credentials.store");
+        
+        if (credentialStoreType == null || credentialStoreType.isEmpty()) {
+            return null;
+        }
+        
+        return PROPERTY_SINGLETON.getObject("twitter.credentials.store", InterfaceCredentialStore.class);
+    }
+    
     /**
      * 
      * @return the consumer key from the config.properties
@@ -82,7 +145,7 @@ public final class TwitterAuthenticator {
      */
     private synchronized String getConsumerSecret() {
         
-        if (consumerKey == null) {
+        if (consumerSecret == null) {
             consumerSecret = PROPERTY_SINGLETON.getProperty("twitter.consumerSecret");
             LOGGER.info("Consumer secret acquired");
         }
@@ -91,13 +154,17 @@ public final class TwitterAuthenticator {
     }
     
     /**
+     * The transport is created by the factory given to the constructor (by default, twitter.http.transportFactory in the config.properties)
+     * 
+     * It is shared by all the calls using this authenticator, so its connections are reused between requests
      * 
-     * @return the default NetHttpTransport
+     * @return the HttpTransport
      */
     private synchronized HttpTransport getHttpTransport() {
         
         if (httpTransport == null) {
-            httpTransport = new NetHttpTransport();
+            httpTransport = httpTransportFactory.createHttpTransport();
+            LOGGER.info("Http transport created: " + httpTransport.getClass().getSimpleName());
         }
         
         return httpTransport;
@@ -189,14 +256,119 @@ public final class TwitterAuthenticator {
     }
     
     /**
-     * This method is called by the default constructor
+     * 
+     * @return the credentials of the store, or null if there are none (or if they could not be read)
+     */
+    private TwitterCredentials loadCredentials() {
+        
+        if (credentialStore == null) {
+            return null;
+        }
+        
+        try {
+            return credentialStore.load();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Stored credentials could not be read, PIN will be asked", e);
+            return null;
+        }
+    }
+    
+    /**
+     * 
+     * @param twitterCredentials : the credentials to keep for the next launches
+     */
+    private void saveCredentials(TwitterCredentials twitterCredentials) {
+        
+        if (credentialStore == null) {
+            return;
+        }
+        
+        try {
+            credentialStore.save(twitterCredentials);
+            LOGGER.info("Credentials stored");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Credentials could not be stored, PIN will be asked at next launch", e);
+        }
+    }
+    
+    /**
+     * Checks the stored credentials with a light call (account/verify_credentials)
+     * 
+     * Only a 401 response means the token was rejected: if Twitter can not be reached, the token is kept
+     * 
+     * NB: this check is disabled if the property twitter.credentials.verify is false
+     * 
+     * @return false if Twitter rejected the current credentials
+     */
+    private boolean areCredentialsAccepted() {
+        
+        if (!PROPERTY_SINGLETON.getBoolean("twitter.credentials.verify")) {
+            return true;
+        }
+        
+        try {
+            httpRequestFactory.buildGetRequest(new GenericUrl(VERIFY_CREDENTIALS_URL)).execute().ignore();
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == HttpStatusCodes.STATUS_CODE_UNAUTHORIZED) {
+                return false;
+            }
+            LOGGER.log(Level.WARNING, "Stored credentials could not be verified (status code: {0}), they are used anyway", e.getStatusCode());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Stored credentials could not be verified, they are used anyway", e);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * 
+     * @param twitterCredentials : the access token
+     * @return a HttpRequestFactory signing every request with the access token
+     */
+    private HttpRequestFactory createHttpRequestFactory(TwitterCredentials twitterCredentials) {
+        
+        OAuthHmacSigner oAuthHmacSigner = new OAuthHmacSigner();
+        oAuthHmacSigner.clientSharedSecret = getConsumerSecret();
+        oAuthHmacSigner.tokenSharedSecret = twitterCredentials.getTokenSecret();
+
+        OAuthParameters oAuthParameters = new OAuthParameters();
+        oAuthParameters.signer = oAuthHmacSigner;
+        oAuthParameters.consumerKey = getConsumerKey();
+        oAuthParameters.token = twitterCredentials.getToken();
+        
+        return getHttpTransport().createRequestFactory(oAuthParameters);
+    }
+    
+    /**
+     * This method is called by the constructors
      * 
      * And creates the HttpRequestFactory, you will be able to use in your next calls
      * 
+     * The stored credentials are used if they exist and are accepted by Twitter, otherwise the PIN is asked
+     * 
      * @throws TwitterAuthenticationException 
      */
     private synchronized void setHttpRequestFactory() throws TwitterAuthenticationException {
         
+        TwitterCredentials twitterCredentials = loadCredentials();
+        
+        if (twitterCredentials != null) {
+            httpRequestFactory = createHttpRequestFactory(twitterCredentials);
+            
+            if (areCredentialsAccepted()) {
+                LOGGER.info("Stored credentials used, no PIN needed");
+                return;
+            }
+            
+            LOGGER.warning("Stored credentials were rejected by Twitter, PIN will be asked");
+            httpRequestFactory = null;
+            try {
+                credentialStore.clear();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Rejected credentials could not be removed", e);
+            }
+        }
+        
         OAuthHmacSigner oAuthHmacSigner = new OAuthHmacSigner();
         oAuthHmacSigner.clientSharedSecret = getConsumerSecret();
 
@@ -205,14 +377,10 @@ public final class TwitterAuthenticator {
         
         OAuthCredentialsResponse oAuthCredentialsResponse = getOAuthCredentialsResponse(oAuthHmacSigner, oAuthAuthorizePin, oAuthTemporaryToken);
         
-        oAuthHmacSigner.tokenSharedSecret = oAuthCredentialsResponse.tokenSecret;
-
-        OAuthParameters oAuthParameters = new OAuthParameters();
-        oAuthParameters.signer = oAuthHmacSigner;
-        oAuthParameters.consumerKey = getConsumerKey();
-        oAuthParameters.token = oAuthCredentialsResponse.token;
+        twitterCredentials = new TwitterCredentials(oAuthCredentialsResponse.token, oAuthCredentialsResponse.tokenSecret);
         
-        httpRequestFactory = getHttpTransport().createRequestFactory(oAuthParameters);
+        httpRequestFactory = createHttpRequestFactory(twitterCredentials);
+        saveCredentials(twitterCredentials);
     }
     
     /**
@@ -229,4 +397,22 @@ public final class TwitterAuthenticator {
         
         return httpRequestFactory;
     }
+    
+    /**
+     * Returns the rate limits learnt from the responses of the calls using this authenticator
+     * 
+     * @return RateLimitGovernor, also used to check the remaining calls of an endpoint
+     */
+    public RateLimitGovernor getRateLimitGovernor() {
+        return rateLimitGovernor;
+    }
+    
+    /**
+     * Returns the cache of the static calls using this authenticator, cf. AbstractStaticCall.setCacheEnabled()
+     * 
+     * @return StaticCallCache, also used to get the hit/miss metrics
+     */
+    public StaticCallCache getStaticCallCache() {
+        return staticCallCache;
+    }
 }
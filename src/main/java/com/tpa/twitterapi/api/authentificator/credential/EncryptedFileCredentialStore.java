@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.credential;
+
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Stores the TwitterCredentials in a file, encrypted with AES-GCM
+ * 
+ * The key is derived (PBKDF2) from a passphrase and a random salt written in the file,
+ * a modified file or a wrong passphrase is detected when loading
+ * 
+ * Threat model: the file is protected against someone who can read it but does not know the passphrase
+ * (ex. a backup, a copy of the directory, or another user if the owner-only permissions are not supported)
+ * It is not protected against someone who can read the passphrase, or the memory of the running process:
+ * if the passphrase is written in the config.properties, the token is only as safe as this file
+ * 
+ * Without passphrase, nothing is stored (the PIN is asked at every launch): there is no implicit key
+ * 
+ * It uses properties from the file config.properties:
+ * 
+ * - twitter.credentials.fileName => the file of the credentials
+ * - twitter.credentials.passphrase => the passphrase (required to store the credentials)
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class EncryptedFileCredentialStore implements InterfaceCredentialStore {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    
+    private static final int FORMAT_VERSION = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_IN_BITS = 128;
+    private static final int KEY_LENGTH_IN_BITS = 128;
+    private static final int KEY_ITERATIONS = 65536;
+    private static final int MAX_ENCRYPTED_LENGTH = 64 * 1024;
+    
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    
+    private final Path file;
+    private final char[] passphrase;
+    
+    public EncryptedFileCredentialStore() {
+        this(Paths.get(PROPERTY_SINGLETON.getProperty("twitter.credentials.fileName")), getDefaultPassphrase());
+    }
+    
+    /**
+     * 
+     * @param file : the file of the credentials
+     * @param passphrase : used to derive the encryption key (if empty, nothing is stored)
+     */
+    public EncryptedFileCredentialStore(Path file, char[] passphrase) {
+        this.file = file;
+        this.passphrase = passphrase.clone();
+    }
+    
+    private static char[] getDefaultPassphrase() {
+        String passphrase = PROPERTY_SINGLETON.getProperty("twitter.credentials.passphrase");
+        
+        return passphrase == null ? new char[0] : passphrase.toCharArray();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized TwitterCredentials load() throws IOException {
+        
+        // Without passphrase, nothing could have been stored
+        if (passphrase.length == 0 || !Files.exists(file)) {
+            return null;
+        }
+        
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+            
+            if (input.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown format of the credentials file: " + file);
+            }
+            
+            byte[] salt = new byte[SALT_LENGTH];
+            byte[] iv = new byte[IV_LENGTH];
+            input.readFully(salt);
+            input.readFully(iv);
+            int encryptedLength = input.readInt();
+            if (encryptedLength < 0 || encryptedLength > MAX_ENCRYPTED_LENGTH) {
+                throw new IOException("Corrupted credentials file: " + file);
+            }
+            byte[] encrypted = new byte[encryptedLength];
+            input.readFully(encrypted);
+            
+            DataInputStream decrypted = new DataInputStream(new ByteArrayInputStream(getCipher(Cipher.DECRYPT_MODE, salt, iv).doFinal(encrypted)));
+            
+            return new TwitterCredentials(decrypted.readUTF(), decrypted.readUTF());
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Credentials could not be decrypted (wrong passphrase or modified file): " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(TwitterCredentials twitterCredentials) throws IOException {
+        
+        if (passphrase.length == 0) {
+            throw new IOException("No passphrase to encrypt the credentials, cf. twitter.credentials.passphrase in config.properties");
+        }
+        
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] iv = new byte[IV_LENGTH];
+        SECURE_RANDOM.nextBytes(salt);
+        SECURE_RANDOM.nextBytes(iv);
+        
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(plain)) {
+            output.writeUTF(twitterCredentials.getToken());
+            output.writeUTF(twitterCredentials.getTokenSecret());
+        }
+        
+        byte[] encrypted;
+        try {
+            encrypted = getCipher(Cipher.ENCRYPT_MODE, salt, iv).doFinal(plain.toByteArray());
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Credentials could not be encrypted", e);
+        }
+        
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        
+        // The file is written next to the target and then moved, so a crash never leaves a truncated file
+        Path temporaryFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            restrictToOwner(temporaryFile);
+            
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temporaryFile))) {
+                output.writeInt(FORMAT_VERSION);
+                output.write(salt);
+                output.write(iv);
+                output.writeInt(encrypted.length);
+                output.write(encrypted);
+            }
+            
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    @Override
+    public synchronized void clear() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    private Cipher getCipher(int mode, byte[] salt, byte[] iv) throws GeneralSecurityException {
+        PBEKeySpec keySpec = new PBEKeySpec(passphrase, salt, KEY_ITERATIONS, KEY_LENGTH_IN_BITS);
+        
+        try {
+            byte[] key = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(keySpec).getEncoded();
+            
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(mode, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_LENGTH_IN_BITS, iv));
+            return cipher;
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+    
+    private static void restrictToOwner(Path path) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system (ex. Windows): the default permissions are kept
+        }
+    }
+}
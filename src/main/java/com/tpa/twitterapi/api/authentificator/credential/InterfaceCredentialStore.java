@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.credential;
+
+import java.io.IOException;
+
+/**
+ * This interface must be used to keep the TwitterCredentials between 2 launches
+ * 
+ * The TwitterAuthenticator uses the stored credentials if any, and asks for the PIN only if they are missing or rejected by Twitter
+ * 
+ * The implementation is defined in the config.properties (twitter.credentials.store) and must have a public default constructor
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public interface InterfaceCredentialStore {
+    
+    /**
+     * 
+     * @return the stored credentials, or null if there are none
+     * @throws IOException if the credentials could not be read
+     */
+    public abstract TwitterCredentials load() throws IOException;
+    
+    /**
+     * Replaces the stored credentials
+     * 
+     * @param twitterCredentials : the credentials to store
+     * @throws IOException 
+     */
+    public abstract void save(TwitterCredentials twitterCredentials) throws IOException;
+    
+    /**
+     * Removes the stored credentials (ex. when Twitter rejected them)
+     * 
+     * @throws IOException 
+     */
+    public abstract void clear() throws IOException;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.credential;
+
+/**
+ * The OAuth access token of a user, obtained at the end of the PIN flow
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class TwitterCredentials {
+    
+    private final String token;
+    private final String tokenSecret;
+    
+    /**
+     * 
+     * @param token : the OAuth access token
+     * @param tokenSecret : the OAuth access token secret
+     */
+    public TwitterCredentials(String token, String tokenSecret) {
+        this.token = token;
+        this.tokenSecret = tokenSecret;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getTokenSecret() {
+        return tokenSecret;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.ratelimit;
+
+import com.google.api.client.http.HttpHeaders;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A client-side rate limit, per endpoint, shared by all the calls of a TwitterAuthenticator
+ * 
+ * The limits are learnt from the x-rate-limit-* headers of the responses: every endpoint is a token bucket,
+ * refilled at the end of its window, and a call takes a token before being sent
+ * 
+ * When an endpoint has no token left, the call waits until the end of the window (or fails if the wait is too long),
+ * so the calls are never sent just to be rejected with a 429
+ * 
+ * It uses properties from the file config.properties:
+ * 
+ * - twitter.rateLimit.enabled => false to never delay a call (the limits are still learnt)
+ * - twitter.rateLimit.maxWaitInSeconds => a call fails immediately if the next window starts after this delay
+ * 
+ * This class is thread-safe and lock-free: the window of an endpoint is replaced with compare-and-set
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class RateLimitGovernor {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    private static final Logger LOGGER = LoggerSingleton.getInstance().getLogger(RateLimitGovernor.class);
+    
+    // The windows of the Twitter REST API last 15 minutes
+    private static final long WINDOW_IN_MILLIS = 15 * 60 * 1000;
+    // Protects against a client clock a little ahead of the Twitter clock
+    private static final long CLOCK_MARGIN_IN_MILLIS = 1000;
+    
+    private final Map<String, AtomicReference<RateLimitWindow>> windows;
+    private final boolean enabled;
+    private final long maxWaitInMillis;
+    
+    public RateLimitGovernor() {
+        this(PROPERTY_SINGLETON.getBoolean("twitter.rateLimit.enabled"), PROPERTY_SINGLETON.getInteger("twitter.rateLimit.maxWaitInSeconds") * 1000L);
+    }
+    
+    /**
+     * 
+     * @param enabled : false to never delay a call
+     * @param maxWaitInMillis : max waiting time of a call
+     */
+    public RateLimitGovernor(boolean enabled, long maxWaitInMillis) {
+        this.windows = new ConcurrentHashMap<>();
+        this.enabled = enabled;
+        this.maxWaitInMillis = maxWaitInMillis;
+    }
+    
+    /**
+     * Takes a token of the endpoint, waiting for the next window if there is none left
+     * 
+     * An endpoint without known limit (no response yet) is not limited
+     * 
+     * @param endpoint : the URL of the endpoint, without parameters
+     * @throws TwitterRequestException if the next window starts after twitter.rateLimit.maxWaitInSeconds, or if the thread is interrupted
+     */
+    public void acquire(String endpoint) throws TwitterRequestException {
+        
+        if (!enabled) {
+            return;
+        }
+        
+        long waitInMillis;
+        while ((waitInMillis = tryAcquire(endpoint, System.currentTimeMillis())) > 0) {
+            
+            if (waitInMillis > maxWaitInMillis) {
+                throw new TwitterRequestException("Rate limit reached for " + endpoint + ", next window in " + waitInMillis + " ms");
+            }
+            
+            LOGGER.log(Level.INFO, "Rate limit reached for {0}, call delayed by {1} ms", new Object[]{endpoint, waitInMillis});
+            
+            try {
+                Thread.sleep(waitInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TwitterRequestException("Interrupted while waiting for the rate limit of " + endpoint, e);
+            }
+        }
+    }
+    
+    /**
+     * 
+     * @param endpoint : the URL of the endpoint, without parameters
+     * @param now : the current epoch time, in milliseconds
+     * @return 0 if a token was taken | the time until the next window otherwise, in milliseconds
+     */
+    long tryAcquire(String endpoint, long now) {
+        
+        AtomicReference<RateLimitWindow> window = windows.get(endpoint);
+        
+        if (window == null) {
+            return 0;
+        }
+        
+        while (true) {
+            RateLimitWindow current = window.get();
+            RateLimitWindow next;
+            
+            if (now >= current.getResetEpochMillis()) {
+                // The window is over: the bucket is full again, until the next response gives the real end of the new window
+                next = new RateLimitWindow(current.getLimit(), Math.max(current.getLimit() - 1, 0), now + WINDOW_IN_MILLIS);
+            }
+            else if (current.getRemaining() > 0) {
+                next = new RateLimitWindow(current.getLimit(), current.getRemaining() - 1, current.getResetEpochMillis());
+            }
+            else {
+                return current.getResetEpochMillis() - now;
+            }
+            
+            if (window.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * Learns the limit of the endpoint from the headers of a response (successful or not)
+     * 
+     * @param endpoint : the URL of the endpoint, without parameters
+     * @param headers : the headers of the response
+     */
+    public void update(String endpoint, HttpHeaders headers) {
+        update(endpoint, headers, System.currentTimeMillis());
+    }
+    
+    /**
+     * 
+     * @param endpoint : the URL of the endpoint, without parameters
+     * @param headers : the headers of the response
+     * @param now : the current epoch time, in milliseconds
+     */
+    void update(String endpoint, HttpHeaders headers, long now) {
+        
+        Long limit = getLongHeader(headers, "x-rate-limit-limit");
+        Long remaining = getLongHeader(headers, "x-rate-limit-remaining");
+        Long resetEpochSeconds = getLongHeader(headers, "x-rate-limit-reset");
+        
+        if (limit == null || remaining == null || resetEpochSeconds == null) {
+            return;
+        }
+        
+        RateLimitWindow received = new RateLimitWindow(limit, remaining, resetEpochSeconds * 1000 + CLOCK_MARGIN_IN_MILLIS);
+        
+        // A response of a past window is useless
+        if (received.getResetEpochMillis() <= now) {
+            return;
+        }
+        
+        AtomicReference<RateLimitWindow> window = windows.computeIfAbsent(endpoint, key -> new AtomicReference<>(received));
+        
+        while (true) {
+            RateLimitWindow current = window.get();
+            RateLimitWindow next;
+            
+            if (current == received) {
+                return;
+            }
+            else if (current.getResetEpochMillis() == received.getResetEpochMillis()) {
+                // Same window: responses may arrive out of order, and tokens may be taken by calls not answered yet
+                if (current.getRemaining() <= received.getRemaining()) {
+                    return;
+                }
+                next = new RateLimitWindow(received.getLimit(), received.getRemaining(), received.getResetEpochMillis());
+            }
+            else {
+                next = received;
+            }
+            
+            if (window.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+    
+    private static Long getLongHeader(HttpHeaders headers, String name) {
+        String value = headers == null ? null : headers.getFirstHeaderStringValue(name);
+        
+        if (value == null) {
+            return null;
+        }
+        
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 
+     * @param endpoint : the URL of the endpoint, without parameters
+     * @return the current window of the endpoint | null if its limit is not known yet
+     */
+    public RateLimitWindow getWindow(String endpoint) {
+        AtomicReference<RateLimitWindow> window = windows.get(endpoint);
+        return window == null ? null : window.get();
+    }
+    
+    /**
+     * 
+     * @param endpoint : the URL of the endpoint, without parameters
+     * @return the number of calls left before the end of the window | -1 if the limit is not known yet
+     */
+    public long getRemaining(String endpoint) {
+        RateLimitWindow window = getWindow(endpoint);
+        
+        if (window == null) {
+            return -1;
+        }
+        
+        // The window is over: the bucket is full again
+        return System.currentTimeMillis() >= window.getResetEpochMillis() ? window.getLimit() : window.getRemaining();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.ratelimit;
+
+/**
+ * The rate limit of an endpoint for the current window (immutable)
+ * 
+ * Cf. Twitter developer documentation: https://dev.twitter.com/rest/public/rate-limiting
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class RateLimitWindow {
+    
+    private final long limit;
+    private final long remaining;
+    private final long resetEpochMillis;
+    
+    /**
+     * 
+     * @param limit : max number of calls in a window (x-rate-limit-limit)
+     * @param remaining : number of calls left in the current window (x-rate-limit-remaining)
+     * @param resetEpochMillis : end of the current window (x-rate-limit-reset)
+     */
+    public RateLimitWindow(long limit, long remaining, long resetEpochMillis) {
+        this.limit = limit;
+        this.remaining = remaining;
+        this.resetEpochMillis = resetEpochMillis;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public long getResetEpochMillis() {
+        return resetEpochMillis;
+    }
+
+    @Override
+    public String toString() {
+        return remaining + "/" + limit + " until " + resetEpochMillis;
+    }
+}
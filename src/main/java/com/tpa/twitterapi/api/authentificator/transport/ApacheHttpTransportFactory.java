@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.transport;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.ExecutionContext;
+
+/**
+ * Creates an ApacheHttpTransport, with a pool of persistent connections
+ * 
+ * Repeated calls to the same host reuse the opened sockets, so they do not pay again for the TCP and TLS handshakes
+ * 
+ * It uses properties from the file config.properties:
+ * 
+ * - twitter.http.maxConnections => max number of connections of the pool, per host
+ * - twitter.http.keepAliveInSeconds => max duration an idle connection is kept in the pool (the Keep-Alive header of the server is used if it is shorter)
+ * - twitter.http.socketBufferSize => size of the socket buffers, in bytes
+ * 
+ * A pooled connection may have been closed by the server while it was idle:
+ * the stale check detects it before the connection is reused, and a GET is retried once if it happens anyway
+ * (the Google Http Client does not retry a request which failed with an IOException)
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class ApacheHttpTransportFactory implements InterfaceHttpTransportFactory {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    
+    // Only idempotent requests are retried
+    private static final int MAX_GET_RETRIES = 1;
+    
+    public ApacheHttpTransportFactory() {
+    }
+
+    @Override
+    public HttpTransport createHttpTransport() {
+        
+        int maxConnections = PROPERTY_SINGLETON.getInteger("twitter.http.maxConnections");
+        long keepAliveInMillis = PROPERTY_SINGLETON.getInteger("twitter.http.keepAliveInSeconds") * 1000L;
+        
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        HttpConnectionParams.setTcpNoDelay(params, true);
+        HttpConnectionParams.setSocketBufferSize(params, PROPERTY_SINGLETON.getInteger("twitter.http.socketBufferSize"));
+        ConnManagerParams.setMaxTotalConnections(params, maxConnections * 2);
+        ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(maxConnections));
+        
+        SchemeRegistry schemeRegistry = new SchemeRegistry();
+        schemeRegistry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
+        schemeRegistry.register(new Scheme("https", SSLSocketFactory.getSocketFactory(), 443));
+        
+        ClientConnectionManager connectionManager = new ThreadSafeClientConnManager(params, schemeRegistry);
+        
+        DefaultHttpClient httpClient = new DefaultHttpClient(connectionManager, params);
+        httpClient.setHttpRequestRetryHandler(createRetryHandler());
+        httpClient.setKeepAliveStrategy(createKeepAliveStrategy(keepAliveInMillis));
+        
+        return new ApacheHttpTransport(httpClient);
+    }
+    
+    /**
+     * The other errors (HTTP status codes) are managed by the Google Http Client
+     * 
+     * @return a retry handler retrying a GET once, when the connection failed before the response (ex. NoHttpResponseException on a half-closed connection)
+     */
+    private static HttpRequestRetryHandler createRetryHandler() {
+        
+        DefaultHttpRequestRetryHandler defaultRetryHandler = new DefaultHttpRequestRetryHandler(MAX_GET_RETRIES, false);
+        
+        return (exception, executionCount, context) -> {
+            HttpRequest request = (HttpRequest) context.getAttribute(ExecutionContext.HTTP_REQUEST);
+            
+            if (request == null || !"GET".equalsIgnoreCase(request.getRequestLine().getMethod())) {
+                return false;
+            }
+            
+            return defaultRetryHandler.retryRequest(exception, executionCount, context);
+        };
+    }
+    
+    /**
+     * 
+     * @param maxKeepAliveInMillis : cf. twitter.http.keepAliveInSeconds
+     * @return a strategy using the Keep-Alive header of the server, capped by maxKeepAliveInMillis
+     */
+    private static ConnectionKeepAliveStrategy createKeepAliveStrategy(long maxKeepAliveInMillis) {
+        
+        DefaultConnectionKeepAliveStrategy serverKeepAliveStrategy = new DefaultConnectionKeepAliveStrategy();
+        
+        return (response, context) -> {
+            long serverKeepAliveInMillis = serverKeepAliveStrategy.getKeepAliveDuration(response, context);
+            
+            // -1: the server did not send any Keep-Alive timeout
+            return serverKeepAliveInMillis < 0 ? maxKeepAliveInMillis : Math.min(serverKeepAliveInMillis, maxKeepAliveInMillis);
+        };
+    }
+}
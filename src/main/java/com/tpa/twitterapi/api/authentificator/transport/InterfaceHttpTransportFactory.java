@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.transport;
+
+import com.google.api.client.http.HttpTransport;
+
+/**
+ * This interface must be used to create the HttpTransport of the TwitterAuthenticator
+ * 
+ * The implementation is defined in the config.properties (twitter.http.transportFactory) and must have a public default constructor
+ * 
+ * Cf. implementations:
+ * - NetHttpTransportFactory: HttpURLConnection of the JDK
+ * - ApacheHttpTransportFactory: Apache HttpClient with a configurable connection pool
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public interface InterfaceHttpTransportFactory {
+    
+    /**
+     * The transport is shared by all the calls of a TwitterAuthenticator, it must be thread-safe
+     * 
+     * @return a new HttpTransport
+     */
+    public abstract HttpTransport createHttpTransport();
+}
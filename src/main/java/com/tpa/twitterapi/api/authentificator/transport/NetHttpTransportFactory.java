@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.transport;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+
+/**
+ * Creates a NetHttpTransport, based on the HttpURLConnection of the JDK
+ * 
+ * The JDK keeps connections alive and reuses them when a response was fully read
+ * 
+ * NB: the JDK pool is global to the JVM, and its size is read once, at the first use of an HttpURLConnection:
+ * twitter.http.maxConnections is not used, set the system property http.maxConnections when the JVM is started instead
+ * (ex. java -Dhttp.maxConnections=20 ...)
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class NetHttpTransportFactory implements InterfaceHttpTransportFactory {
+    
+    public NetHttpTransportFactory() {
+    }
+
+    @Override
+    public HttpTransport createHttpTransport() {
+        return new NetHttpTransport();
+    }
+}
@@ -19,6 +19,8 @@ import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
 import com.tpa.twitterapi.api.generic.bean.TwitterStatuses;
 import com.tpa.twitterapi.api.generic.call.staticcall.AbstractStaticCall;
 import com.tpa.twitterapi.api.generic.call.staticcall.InterfaceStaticCall;
+import com.tpa.twitterapi.tools.singleton.executor.ExecutorSingleton;
+import java.util.concurrent.Executor;
 
 /**
  * This is an example to call the https://api.twitter.com/1.1/search/tweets.json
@@ -30,6 +32,9 @@ import com.tpa.twitterapi.api.generic.call.staticcall.InterfaceStaticCall;
  * 
  * You can more HTTP parameters by using the generic addParameter() method
  * 
+ * To get more statuses than the max count of a page, cf. pages()
+ * To get only the new statuses at every execution, cf. SearchPoller
+ * 
  * Cf. Twitter developer documentation: https://dev.twitter.com/rest/reference/get/search/tweets for more information
  * 
  * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
@@ -49,4 +54,56 @@ public class Search extends AbstractStaticCall<Search, TwitterStatuses>
         this.addParameter("q", PROPERTY_SINGLETON.getProperty("twitter.searchText"));
         this.addParameter("count", PROPERTY_SINGLETON.getProperty("twitter.maxMessage"));
     }
+    
+    /**
+     * Iterates over the pages of this search, from the most recent statuses to the oldest ones
+     * 
+     * The next page is requested as soon as a page is received, on the executor of the ExecutorSingleton
+     * 
+     * @param maxPages : the max number of pages requested
+     * @return the pages, to close if they are not all read
+     */
+    public SearchPages pages(int maxPages) {
+        return pages(maxPages, ExecutorSingleton.getInstance().getExecutorService());
+    }
+    
+    /**
+     * Iterates over the pages of this search, cf. pages(int)
+     * 
+     * @param maxPages : the max number of pages requested
+     * @param executor : the executor running the requests of the pages
+     * @return the pages, to close if they are not all read
+     */
+    public SearchPages pages(int maxPages, Executor executor) {
+        return new SearchPages(this, maxPages, executor);
+    }
+    
+    /**
+     * 
+     * @param maxId : the ID of the most recent status of the page
+     * @return a copy of this search, for the page of the statuses older than maxId (included)
+     */
+    Search getOlderPage(long maxId) {
+        return copy().addParameter("max_id", String.valueOf(maxId));
+    }
+    
+    /**
+     * 
+     * @param sinceId : the ID of the most recent status already received
+     * @return a copy of this search, for the statuses more recent than sinceId (excluded)
+     */
+    Search getNewerPage(long sinceId) {
+        return copy().addParameter("since_id", String.valueOf(sinceId));
+    }
+    
+    /**
+     * 
+     * @return a copy of this search, with the same parameters
+     */
+    Search copy() {
+        Search search = new Search(twitterAuthenticator);
+        search.parameters.putAll(parameters);
+        
+        return search.setUrl(url).setCacheEnabled(isCacheEnabled());
+    }
 }
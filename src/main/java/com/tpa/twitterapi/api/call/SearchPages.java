@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.call;
+
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatuses;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The pages of a Search, cf. Search.pages()
+ * 
+ * Every page is requested with max_id = (the min ID of the previous page) - 1, until a page is empty or maxPages is reached
+ * 
+ * The next page is requested as soon as a page is received, so it is downloaded while the current page is read:
+ * a deep search runs at the speed of the network instead of waiting for a full round-trip per page
+ * 
+ * This class is not thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class SearchPages implements Iterator<TwitterStatuses>, AutoCloseable {
+    
+    private final Executor executor;
+    
+    // The search of the last requested page
+    private Search search;
+    
+    private int remainingPages;
+    
+    // The page being requested (null if there is no page to request)
+    private CompletableFuture<TwitterStatuses> pendingPage;
+    
+    // The received page, or its failure, not returned yet
+    private TwitterStatuses nextPage;
+    private Throwable nextPageFailure;
+    
+    /**
+     * 
+     * @param search : the first page
+     * @param maxPages : the max number of pages requested
+     * @param executor : the executor running the requests of the pages
+     */
+    SearchPages(Search search, int maxPages, Executor executor) {
+        if (maxPages <= 0) {
+            throw new IllegalArgumentException("The max number of pages must be positive: " + maxPages);
+        }
+        
+        this.executor = executor;
+        this.search = search;
+        this.remainingPages = maxPages - 1;
+        this.pendingPage = search.executeRequestAsync(executor);
+    }
+    
+    /**
+     * Waits for the next page if it is not received yet
+     * 
+     * @return true if there is a next page (or a failure to throw)
+     */
+    @Override
+    public boolean hasNext() {
+        awaitPendingPage();
+        return nextPage != null || nextPageFailure != null;
+    }
+    
+    /**
+     * Returns the next page, waiting for it if it is not received yet
+     * 
+     * @return the next page, never empty
+     * @throws NoSuchElementException if there is no page left
+     * @throws IllegalStateException if the request of the page failed
+     */
+    @Override
+    public TwitterStatuses next() {
+        try {
+            return nextPage();
+        } catch (TwitterAuthenticationException | TwitterRequestException e) {
+            throw new IllegalStateException("The next page could not be retrieved", e);
+        }
+    }
+    
+    /**
+     * Returns the next page, waiting for it if it is not received yet
+     * 
+     * @return the next page, never empty
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException
+     * @throws NoSuchElementException if there is no page left
+     */
+    public TwitterStatuses nextPage() throws TwitterAuthenticationException, TwitterRequestException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("All the pages were returned");
+        }
+        
+        if (nextPageFailure != null) {
+            Throwable failure = nextPageFailure;
+            nextPageFailure = null;
+            
+            if (failure instanceof TwitterAuthenticationException) {
+                throw (TwitterAuthenticationException) failure;
+            }
+            if (failure instanceof TwitterRequestException) {
+                throw (TwitterRequestException) failure;
+            }
+            throw new TwitterRequestException("The next page could not be retrieved", failure);
+        }
+        
+        TwitterStatuses page = nextPage;
+        nextPage = null;
+        return page;
+    }
+    
+    /**
+     * Streams the statuses of all the pages, the pages being requested while the stream is consumed
+     * 
+     * @return the statuses, from the most recent to the oldest (a failed request throws an IllegalStateException)
+     */
+    public Stream<TwitterStatus> statuses() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(page -> page.getStatuses().stream())
+                .onClose(this::close);
+    }
+    
+    /**
+     * Stops requesting pages
+     */
+    @Override
+    public void close() {
+        if (pendingPage != null) {
+            pendingPage.cancel(false);
+            pendingPage = null;
+        }
+        nextPage = null;
+        nextPageFailure = null;
+        remainingPages = 0;
+    }
+    
+    private void awaitPendingPage() {
+        if (pendingPage == null || nextPage != null || nextPageFailure != null) {
+            return;
+        }
+        
+        try {
+            TwitterStatuses page = pendingPage.get();
+            pendingPage = null;
+            
+            List<TwitterStatus> statuses = page == null ? null : page.getStatuses();
+            if (statuses == null || statuses.isEmpty()) {
+                // No older status: the search is over
+                remainingPages = 0;
+                return;
+            }
+            
+            nextPage = page;
+            requestOlderPage(statuses);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        } catch (ExecutionException e) {
+            pendingPage = null;
+            remainingPages = 0;
+            nextPageFailure = e.getCause();
+        }
+    }
+    
+    private void requestOlderPage(List<TwitterStatus> statuses) {
+        if (remainingPages == 0) {
+            return;
+        }
+        
+        long minId = Long.MAX_VALUE;
+        for (TwitterStatus status : statuses) {
+            if (status.getId() != null && status.getId() < minId) {
+                minId = status.getId();
+            }
+        }
+        if (minId == Long.MAX_VALUE) {
+            return;
+        }
+        
+        remainingPages--;
+        search = search.getOlderPage(minId - 1);
+        pendingPage = search.executeRequestAsync(executor);
+    }
+}
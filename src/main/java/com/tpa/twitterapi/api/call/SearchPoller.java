@@ -0,0 +1,370 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.call;
+
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatuses;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.singleton.executor.ExecutorSingleton;
+import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes a Search on a schedule, and only gets the statuses published since the previous poll
+ * 
+ * - The highest status ID received is sent as since_id, so a poll never gets a status twice
+ * - If more statuses than the count of a page were published, the poll requests the older pages too (cf. SearchPages)
+ * - If even maxPagesPerPoll pages are not enough, the statuses between the previous since_id and the oldest page form a gap:
+ *   the gap is requested by the next polls (after their new statuses), with since_id and max_id
+ * - The interval adapts to the number of new statuses: a poll should get about half a page
+ *   (the interval is doubled when there is no new status, and halved when a poll gets a full page or more)
+ * 
+ * It uses properties from the file config.properties:
+ * 
+ * - twitter.polling.minIntervalInSeconds / twitter.polling.maxIntervalInSeconds => the bounds of the interval
+ * - twitter.polling.maxPagesPerPoll => the max number of pages requested by a poll
+ * 
+ * poll() can also be called directly, without start()
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class SearchPoller implements AutoCloseable {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    private static final Logger LOGGER = LoggerSingleton.getInstance().getLogger(SearchPoller.class);
+    
+    // Used when the search has no count parameter (default count of the Twitter search)
+    private static final int DEFAULT_PAGE_SIZE = 15;
+    // If the statuses are always published faster than the polls can read them, the oldest gaps are given up
+    private static final int MAX_PENDING_GAPS = 16;
+    
+    private final Search search;
+    private final Consumer<List<TwitterStatus>> listener;
+    private final long minIntervalInMillis;
+    private final long maxIntervalInMillis;
+    private final int maxPagesPerPoll;
+    private final int pageSize;
+    
+    // Guarded by "this": polls are never executed at the same time
+    private long sinceId;
+    private long intervalInMillis;
+    private final Deque<Gap> pendingGaps;
+    private long droppedGapCount;
+    
+    private volatile boolean closed;
+    private volatile ScheduledFuture<?> nextPoll;
+    
+    /**
+     * 
+     * @param search : the search to poll (its parameters are copied by every poll)
+     * @param listener : receives the new statuses of every poll, from the most recent to the oldest
+     */
+    public SearchPoller(Search search, Consumer<List<TwitterStatus>> listener) {
+        this(search, listener, PROPERTY_SINGLETON.getInteger("twitter.polling.minIntervalInSeconds") * 1000L,
+                PROPERTY_SINGLETON.getInteger("twitter.polling.maxIntervalInSeconds") * 1000L, PROPERTY_SINGLETON.getInteger("twitter.polling.maxPagesPerPoll"));
+    }
+    
+    /**
+     * 
+     * @param search : the search to poll (its parameters are copied by every poll)
+     * @param listener : receives the new statuses of every poll, from the most recent to the oldest
+     * @param minIntervalInMillis : the min delay between 2 polls
+     * @param maxIntervalInMillis : the max delay between 2 polls
+     * @param maxPagesPerPoll : the max number of pages requested by a poll
+     */
+    public SearchPoller(Search search, Consumer<List<TwitterStatus>> listener, long minIntervalInMillis, long maxIntervalInMillis, int maxPagesPerPoll) {
+        if (minIntervalInMillis <= 0 || maxIntervalInMillis < minIntervalInMillis || maxPagesPerPoll <= 0) {
+            throw new IllegalArgumentException("Wrong polling bounds: " + minIntervalInMillis + ", " + maxIntervalInMillis + ", " + maxPagesPerPoll);
+        }
+        
+        this.search = search;
+        this.listener = listener;
+        this.minIntervalInMillis = minIntervalInMillis;
+        this.maxIntervalInMillis = maxIntervalInMillis;
+        this.maxPagesPerPoll = maxPagesPerPoll;
+        this.pageSize = getPageSize(search);
+        this.sinceId = -1;
+        this.intervalInMillis = minIntervalInMillis;
+        this.pendingGaps = new ArrayDeque<>();
+    }
+    
+    private static int getPageSize(Search search) {
+        try {
+            return Integer.parseInt(search.getParameters().get("count"));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+    
+    /**
+     * Polls now, then after every interval, on the executor of the ExecutorSingleton
+     * 
+     * A failed poll is logged, and the next poll is delayed like a poll without new status
+     * 
+     * @return the poller itself
+     */
+    public SearchPoller start() {
+        schedule(0);
+        return this;
+    }
+    
+    /**
+     * Gets the statuses published since the previous poll, and gives them to the listener (if there is at least one)
+     * 
+     * The first poll only requests the most recent page
+     * 
+     * Then, a poll requests the new statuses, then the oldest pending gap (cf. getPendingGapCount())
+     * 
+     * @return the new statuses, from the most recent to the oldest
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException 
+     */
+    public synchronized List<TwitterStatus> poll() throws TwitterAuthenticationException, TwitterRequestException {
+        List<TwitterStatus> newStatuses = new ArrayList<>();
+        
+        if (sinceId < 0) {
+            readPages(search.copy(), 1, newStatuses);
+        }
+        else {
+            Long oldestId = readPages(search.getNewerPage(sinceId), maxPagesPerPoll, newStatuses);
+            
+            // The gaps are older than the new statuses: the order of the list is kept
+            backfillGap(newStatuses);
+            
+            if (oldestId != null) {
+                addGap(new Gap(sinceId, oldestId - 1));
+            }
+        }
+        
+        for (TwitterStatus status : newStatuses) {
+            if (status.getId() != null && status.getId() > sinceId) {
+                sinceId = status.getId();
+            }
+        }
+        
+        adaptInterval(newStatuses.size());
+        LOGGER.log(Level.FINE, "{0} new statuses, next poll in {1} ms", new Object[]{newStatuses.size(), intervalInMillis});
+        
+        if (!newStatuses.isEmpty()) {
+            listener.accept(newStatuses);
+        }
+        
+        return newStatuses;
+    }
+    
+    /**
+     * Reads the pages of a search
+     * 
+     * @param pageSearch : the search of the first page
+     * @param maxPages : the max number of pages
+     * @param statuses : receives the statuses of the pages
+     * @return the ID of the oldest status read, if the last page was read but was not empty | null if all the statuses were read
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException 
+     */
+    private Long readPages(Search pageSearch, int maxPages, List<TwitterStatus> statuses) throws TwitterAuthenticationException, TwitterRequestException {
+        int pageCount = 0;
+        TwitterStatuses lastPage = null;
+        
+        // A cached result would hide the statuses published during the TTL
+        // The pages are requested on the polling thread: no thread of the executor waits for another one
+        try (SearchPages pages = pageSearch.setCacheEnabled(false).pages(maxPages, Runnable::run)) {
+            while (pages.hasNext()) {
+                lastPage = pages.nextPage();
+                pageCount++;
+                statuses.addAll(lastPage.getStatuses());
+            }
+        }
+        
+        if (pageCount < maxPages || lastPage == null || lastPage.getStatuses() == null) {
+            return null;
+        }
+        
+        Long oldestId = null;
+        for (TwitterStatus status : lastPage.getStatuses()) {
+            if (status.getId() != null && (oldestId == null || status.getId() < oldestId)) {
+                oldestId = status.getId();
+            }
+        }
+        
+        return oldestId;
+    }
+    
+    /**
+     * Requests the oldest pending gap, and keeps what is still missing as a pending gap
+     * 
+     * @param statuses : receives the statuses of the gap
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException 
+     */
+    private void backfillGap(List<TwitterStatus> statuses) throws TwitterAuthenticationException, TwitterRequestException {
+        Gap gap = pendingGaps.peekFirst();
+        
+        if (gap == null) {
+            return;
+        }
+        
+        Long oldestId = readPages(search.getNewerPage(gap.sinceId).getOlderPage(gap.maxId), maxPagesPerPoll, statuses);
+        
+        pendingGaps.pollFirst();
+        if (oldestId != null) {
+            Gap remainingGap = new Gap(gap.sinceId, oldestId - 1);
+            if (!remainingGap.isEmpty()) {
+                pendingGaps.addFirst(remainingGap);
+            }
+        }
+    }
+    
+    private void addGap(Gap gap) {
+        if (gap.isEmpty()) {
+            return;
+        }
+        
+        LOGGER.log(Level.WARNING, "More than {0} pages of new statuses: the statuses from {1} to {2} will be requested by the next polls", 
+                new Object[]{maxPagesPerPoll, gap.sinceId + 1, gap.maxId});
+        pendingGaps.addLast(gap);
+        
+        if (pendingGaps.size() > MAX_PENDING_GAPS) {
+            Gap droppedGap = pendingGaps.pollFirst();
+            droppedGapCount++;
+            LOGGER.log(Level.WARNING, "Too many pending gaps: the statuses from {0} to {1} will never be requested", new Object[]{droppedGap.sinceId + 1, droppedGap.maxId});
+        }
+    }
+    
+    /**
+     * Changes the interval so that the next poll gets about half a page
+     * 
+     * @param newStatusCount : the number of statuses received by the last poll
+     */
+    synchronized void adaptInterval(int newStatusCount) {
+        double factor;
+        
+        if (newStatusCount == 0) {
+            factor = 2;
+        }
+        else {
+            // The rate of the statuses is supposed constant: the number of statuses is proportional to the interval
+            factor = Math.max(0.5, Math.min(2, (pageSize / 2.0) / newStatusCount));
+        }
+        
+        intervalInMillis = Math.max(minIntervalInMillis, Math.min(maxIntervalInMillis, (long) (intervalInMillis * factor)));
+    }
+    
+    /**
+     * @return the highest status ID received (-1 before the first poll)
+     */
+    public synchronized long getSinceId() {
+        return sinceId;
+    }
+    
+    /**
+     * @return the number of ranges of statuses not requested yet, because more than maxPagesPerPoll pages were published between 2 polls
+     */
+    public synchronized int getPendingGapCount() {
+        return pendingGaps.size();
+    }
+    
+    /**
+     * @return the number of ranges of statuses given up, because too many gaps were pending
+     */
+    public synchronized long getDroppedGapCount() {
+        return droppedGapCount;
+    }
+    
+    /**
+     * @return the delay before the next poll
+     */
+    public synchronized long getIntervalInMillis() {
+        return intervalInMillis;
+    }
+    
+    /**
+     * Stops the polls (a poll in progress is completed)
+     */
+    @Override
+    public void close() {
+        closed = true;
+        
+        ScheduledFuture<?> currentNextPoll = nextPoll;
+        if (currentNextPoll != null) {
+            currentNextPoll.cancel(false);
+        }
+    }
+    
+    private void schedule(long delayInMillis) {
+        if (closed) {
+            return;
+        }
+        
+        ExecutorSingleton executorSingleton = ExecutorSingleton.getInstance();
+        
+        try {
+            // The scheduler only triggers the poll: the blocking request is executed by the executor
+            nextPoll = executorSingleton.getTimeoutScheduler().schedule(
+                    () -> executorSingleton.getExecutorService().execute(this::pollAndReschedule), delayInMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.SEVERE, "The next poll could not be scheduled", e);
+        }
+        
+        if (closed) {
+            close();
+        }
+    }
+    
+    private void pollAndReschedule() {
+        if (closed) {
+            return;
+        }
+        
+        try {
+            poll();
+        } catch (TwitterAuthenticationException | TwitterRequestException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Poll failed, the next poll is delayed", e);
+            adaptInterval(0);
+        }
+        
+        schedule(getIntervalInMillis());
+    }
+    
+    /**
+     * The statuses with sinceId < ID <= maxId, not received yet
+     */
+    private static final class Gap {
+        
+        private final long sinceId;
+        private final long maxId;
+        
+        Gap(long sinceId, long maxId) {
+            this.sinceId = sinceId;
+            this.maxId = maxId;
+        }
+        
+        boolean isEmpty() {
+            return maxId <= sinceId;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.call;
+
+import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.api.generic.call.streamingcall.AbstractShardedStreamingCall;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This is an example to call the https://stream.twitter.com/1.1/statuses/filter.json with a large number of tracked terms
+ * 
+ * The terms are split into N StreamingSearch (one connection and one parsing thread each),
+ * and the statuses of all the connections are merged into one stream, without duplicates
+ * 
+ * The terms are balanced by length between the shards, and a shard never tracks more than 400 terms (limit of the filter endpoint)
+ * 
+ * NB: Twitter limits the number of concurrent connections of an account, you may need elevated access for more than 2 shards
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class ShardedStreamingSearch extends AbstractShardedStreamingCall<ShardedStreamingSearch, TwitterStatus> {
+    
+    public static final int MAX_TERMS_PER_SHARD = 400;
+    
+    /**
+     * 
+     * @param twitterAuthenticator : containing the authenticated HttpRequestFactory
+     * @param terms : the terms to track
+     * @param shardCount : the number of connections (more are used if a shard would track more than MAX_TERMS_PER_SHARD terms)
+     */
+    public ShardedStreamingSearch(TwitterAuthenticator twitterAuthenticator, Collection<String> terms, int shardCount) {
+        super(createShards(twitterAuthenticator, splitTerms(terms, shardCount)));
+    }
+    
+    private static List<StreamingSearch> createShards(TwitterAuthenticator twitterAuthenticator, List<List<String>> shardTerms) {
+        List<StreamingSearch> shards = new ArrayList<>(shardTerms.size());
+        
+        for (List<String> terms : shardTerms) {
+            shards.add(new StreamingSearch(twitterAuthenticator, null, null).addParameter("track", String.join(",", terms)));
+        }
+        
+        return shards;
+    }
+    
+    /**
+     * Splits the terms into shards of the same total length
+     * 
+     * The longest terms are placed first, each one in the shard with the smallest total length
+     * 
+     * @param terms : the terms to track
+     * @param shardCount : the expected number of shards
+     * @return the terms of every shard
+     */
+    static List<List<String>> splitTerms(Collection<String> terms, int shardCount) {
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("At least one term is required");
+        }
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The number of shards must be positive: " + shardCount);
+        }
+        
+        int minShardCount = (terms.size() + MAX_TERMS_PER_SHARD - 1) / MAX_TERMS_PER_SHARD;
+        int actualShardCount = Math.min(Math.max(shardCount, minShardCount), terms.size());
+        
+        List<List<String>> shardTerms = new ArrayList<>(actualShardCount);
+        int[] shardLengths = new int[actualShardCount];
+        for (int i = 0; i < actualShardCount; i++) {
+            shardTerms.add(new ArrayList<>());
+        }
+        
+        List<String> sortedTerms = new ArrayList<>(terms);
+        sortedTerms.sort(Comparator.comparingInt(String::length).reversed());
+        
+        for (String term : sortedTerms) {
+            int smallestShard = -1;
+            for (int i = 0; i < actualShardCount; i++) {
+                if (shardTerms.get(i).size() < MAX_TERMS_PER_SHARD && (smallestShard < 0 || shardLengths[i] < shardLengths[smallestShard])) {
+                    smallestShard = i;
+                }
+            }
+            
+            shardTerms.get(smallestShard).add(term);
+            shardLengths[smallestShard] += term.length();
+        }
+        
+        return shardTerms;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tpa.twitterapi.tools.collection.InterfaceIdSet;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TwitterStatuses which stores the statuses in columns, for large collections (ex. millions of streamed statuses)
+ * 
+ * Instead of a TwitterStatus object per status (with a Long ID, a String date, a String text...):
+ * 
+ * - IDs and dates are stored in long[] columns (the dates as epoch milliseconds)
+ * - texts are stored one after the other in a single UTF-8 byte[]
+ * - authors are stored once per author ID, and statuses only keep the position of their author
+ * 
+ * So a status costs about 30 bytes plus its UTF-8 text, instead of several hundred bytes
+ * 
+ * The API is the same as TwitterStatuses, but the TwitterStatus objects are recreated from the columns at each reading:
+ * 
+ * - getStatuses() is a read-only view, only addStatus() adds statuses
+ * - the statuses are equal to the added ones (same ID), but they are not the same objects
+ * - the dates are recreated in UTC, with the Twitter format (an invalid date is lost)
+ * - a status keeps the first author object added with the same author ID
+ * 
+ * The ordered view (cf. getOrderedStatuses()) is kept as an array of positions: statuses added since the last call
+ * are sorted, then merged with it
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class ColumnarTwitterStatuses extends TwitterStatuses {
+    
+    private static final int DEFAULT_CAPACITY = 1024;
+    
+    private static final long NO_ID = Long.MIN_VALUE;
+    private static final int NO_AUTHOR = -1;
+    private static final int NO_TEXT = -1;
+    
+    // Columns of the statuses, indexed by the position of the status
+    private long[] ids;
+    private long[] createdEpochMillis;
+    private int[] authorPositions;
+    private int[] textOffsets;
+    private int[] textLengths;
+    private int size;
+    
+    // The UTF-8 texts, one after the other
+    private byte[] texts;
+    private int textsLength;
+    
+    // Columns of the authors, indexed by the position of the author
+    private final List<TwitterAuthor> authors;
+    private long[] authorIds;
+    private long[] authorCreatedEpochMillis;
+    private final Map<Long, Integer> authorPositionsById;
+    
+    // Positions of the first orderedSize statuses, in the order of getOrderedStatuses()
+    private int[] orderedPositions;
+    private int orderedSize;
+    
+    public ColumnarTwitterStatuses() {
+        this(DEFAULT_CAPACITY, null);
+    }
+    
+    /**
+     * 
+     * @param expectedSize : the number of statuses you expect to store (the columns grow automatically if needed)
+     * @param statusIds : the set used to find duplicates (null to create it from the config.properties, cf. getStatusIds())
+     */
+    public ColumnarTwitterStatuses(int expectedSize, InterfaceIdSet statusIds) {
+        super(null, statusIds);
+        
+        int capacity = Math.max(expectedSize, 16);
+        
+        this.ids = new long[capacity];
+        this.createdEpochMillis = new long[capacity];
+        this.authorPositions = new int[capacity];
+        this.textOffsets = new int[capacity];
+        this.textLengths = new int[capacity];
+        this.texts = new byte[capacity * 64];
+        
+        this.authors = new ArrayList<>();
+        this.authorIds = new long[16];
+        this.authorCreatedEpochMillis = new long[16];
+        this.authorPositionsById = new HashMap<>();
+        
+        this.orderedPositions = new int[0];
+    }
+    
+    /**
+     * @return a read-only view of the statuses, in the order they were added
+     */
+    @Override
+    public List<TwitterStatus> getStatuses() {
+        return new StatusList();
+    }
+    
+    /**
+     * @return the number of statuses
+     */
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * @return the number of distinct authors
+     */
+    @JsonIgnore
+    public synchronized int getAuthorCount() {
+        return authors.size();
+    }
+    
+    /**
+     * 
+     * @param position : the position of the status, in the order they were added
+     * @return the ID of the status (without creating the TwitterStatus) | null if it has no ID
+     */
+    public synchronized Long getId(int position) {
+        checkPosition(position);
+        return ids[position] == NO_ID ? null : ids[position];
+    }
+    
+    /**
+     * 
+     * @param position : the position of the status, in the order they were added
+     * @return the creation date of the status (without creating the TwitterStatus) | TwitterDateParser.UNKNOWN_EPOCH_MILLIS
+     */
+    public synchronized long getCreatedEpochMillis(int position) {
+        checkPosition(position);
+        return createdEpochMillis[position];
+    }
+    
+    @Override
+    public synchronized List<TwitterStatus> getOrderedStatuses(int limit) {
+        int[] currentOrderedPositions = getOrderedPositions();
+        
+        List<TwitterStatus> orderedStatuses = new ArrayList<>(Math.min(limit, size));
+        for (int i = 0; i < size && orderedStatuses.size() < limit; i++) {
+            orderedStatuses.add(createStatus(currentOrderedPositions[i]));
+        }
+        
+        return orderedStatuses;
+    }
+    
+    /**
+     * Same as getOrderedStatuses(): the ordered positions are always maintained
+     * 
+     * @param parallel : not used
+     * @return ordered list of statuses
+     */
+    @Override
+    public List<TwitterStatus> getOrderedStatuses(boolean parallel) {
+        return getOrderedStatuses(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * To add a new status in the columns
+     * 
+     * @param twitterStatus
+     * @return true if status added | false if statuses already contains the input status
+     */
+    @Override
+    public synchronized boolean addStatus(TwitterStatus twitterStatus) {
+        checkWritable();
+        
+        Long id = twitterStatus.getId();
+        
+        // Without ID, we can not know if it's a duplicate
+        if (id != null && !getStatusIds().add(id)) {
+            return false;
+        }
+        
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            createdEpochMillis = Arrays.copyOf(createdEpochMillis, capacity);
+            authorPositions = Arrays.copyOf(authorPositions, capacity);
+            textOffsets = Arrays.copyOf(textOffsets, capacity);
+            textLengths = Arrays.copyOf(textLengths, capacity);
+        }
+        
+        ids[size] = id == null ? NO_ID : id;
+        createdEpochMillis[size] = twitterStatus.getCreatedEpochMillis();
+        authorPositions[size] = addAuthor(twitterStatus.getAuthor());
+        addText(twitterStatus.getText());
+        size++;
+        
+        return true;
+    }
+    
+    private int addAuthor(TwitterAuthor author) {
+        if (author == null) {
+            return NO_AUTHOR;
+        }
+        
+        if (author.getId() != null) {
+            Integer authorPosition = authorPositionsById.get(author.getId());
+            if (authorPosition != null) {
+                return authorPosition;
+            }
+        }
+        
+        int authorPosition = authors.size();
+        if (authorPosition == authorIds.length) {
+            authorIds = Arrays.copyOf(authorIds, authorPosition * 2);
+            authorCreatedEpochMillis = Arrays.copyOf(authorCreatedEpochMillis, authorPosition * 2);
+        }
+        
+        authors.add(author);
+        authorIds[authorPosition] = author.getId() == null ? NO_ID : author.getId();
+        authorCreatedEpochMillis[authorPosition] = author.getCreatedEpochMillis();
+        
+        if (author.getId() != null) {
+            authorPositionsById.put(author.getId(), authorPosition);
+        }
+        
+        return authorPosition;
+    }
+    
+    private void addText(String text) {
+        if (text == null) {
+            textOffsets[size] = NO_TEXT;
+            textLengths[size] = 0;
+            return;
+        }
+        
+        byte[] utf8Text = text.getBytes(StandardCharsets.UTF_8);
+        
+        if (textsLength + utf8Text.length > texts.length) {
+            texts = Arrays.copyOf(texts, Math.max(texts.length * 2, textsLength + utf8Text.length));
+        }
+        
+        System.arraycopy(utf8Text, 0, texts, textsLength, utf8Text.length);
+        textOffsets[size] = textsLength;
+        textLengths[size] = utf8Text.length;
+        textsLength += utf8Text.length;
+    }
+    
+    /**
+     * 
+     * @param position : the position of the status
+     * @return a new TwitterStatus, with the values of the columns
+     */
+    private TwitterStatus createStatus(int position) {
+        TwitterStatus status = new TwitterStatus();
+        
+        status.id = ids[position] == NO_ID ? null : ids[position];
+        status.setCreatedDate(TwitterDateParser.formatEpochMillis(createdEpochMillis[position]));
+        status.text = textOffsets[position] == NO_TEXT ? null : new String(texts, textOffsets[position], textLengths[position], StandardCharsets.UTF_8);
+        status.author = authorPositions[position] == NO_AUTHOR ? null : authors.get(authorPositions[position]);
+        
+        return status;
+    }
+    
+    /**
+     * Sorts the statuses added since the last call, and merges them with the ordered positions
+     * 
+     * @return the positions of all the statuses, in the order of getOrderedStatuses()
+     */
+    private int[] getOrderedPositions() {
+        if (orderedSize == size) {
+            return orderedPositions;
+        }
+        
+        int newCount = size - orderedSize;
+        int[] newPositions = new int[newCount];
+        for (int i = 0; i < newCount; i++) {
+            newPositions[i] = orderedSize + i;
+        }
+        sort(newPositions, 0, newCount, new int[newCount]);
+        
+        int[] mergedPositions = new int[size];
+        merge(orderedPositions, 0, orderedSize, newPositions, 0, newCount, mergedPositions, 0);
+        
+        orderedPositions = mergedPositions;
+        orderedSize = size;
+        
+        return orderedPositions;
+    }
+    
+    /**
+     * Merge sort of positions[from, to[
+     */
+    private void sort(int[] positions, int from, int to, int[] buffer) {
+        if (to - from < 2) {
+            return;
+        }
+        
+        int middle = (from + to) >>> 1;
+        sort(positions, from, middle, buffer);
+        sort(positions, middle, to, buffer);
+        
+        if (compare(positions[middle - 1], positions[middle]) <= 0) {
+            return;
+        }
+        
+        System.arraycopy(positions, from, buffer, from, to - from);
+        merge(buffer, from, middle, buffer, middle, to, positions, from);
+    }
+    
+    private void merge(int[] left, int leftFrom, int leftTo, int[] right, int rightFrom, int rightTo, int[] destination, int destinationFrom) {
+        int l = leftFrom;
+        int r = rightFrom;
+        int d = destinationFrom;
+        
+        while (l < leftTo && r < rightTo) {
+            destination[d++] = compare(left[l], right[r]) <= 0 ? left[l++] : right[r++];
+        }
+        while (l < leftTo) {
+            destination[d++] = left[l++];
+        }
+        while (r < rightTo) {
+            destination[d++] = right[r++];
+        }
+    }
+    
+    /**
+     * Same order as StatusOrderingKey: author createdDate, author ID, message createdDate, then position
+     */
+    private int compare(int position, int otherPosition) {
+        int authorPosition = authorPositions[position];
+        int otherAuthorPosition = authorPositions[otherPosition];
+        
+        if (authorPosition != otherAuthorPosition) {
+            long authorCreated = authorPosition == NO_AUTHOR ? Long.MIN_VALUE : authorCreatedEpochMillis[authorPosition];
+            long otherAuthorCreated = otherAuthorPosition == NO_AUTHOR ? Long.MIN_VALUE : authorCreatedEpochMillis[otherAuthorPosition];
+            if (authorCreated != otherAuthorCreated) {
+                return authorCreated < otherAuthorCreated ? -1 : 1;
+            }
+            
+            long authorId = authorPosition == NO_AUTHOR ? Long.MIN_VALUE : authorIds[authorPosition];
+            long otherAuthorId = otherAuthorPosition == NO_AUTHOR ? Long.MIN_VALUE : authorIds[otherAuthorPosition];
+            if (authorId != otherAuthorId) {
+                return authorId < otherAuthorId ? -1 : 1;
+            }
+        }
+        
+        if (createdEpochMillis[position] != createdEpochMillis[otherPosition]) {
+            return createdEpochMillis[position] < createdEpochMillis[otherPosition] ? -1 : 1;
+        }
+        
+        return Integer.compare(position, otherPosition);
+    }
+    
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", size: " + size);
+        }
+    }
+    
+    /**
+     * The read-only view returned by getStatuses()
+     */
+    private final class StatusList extends AbstractList<TwitterStatus> {
+        
+        @Override
+        public TwitterStatus get(int position) {
+            synchronized (ColumnarTwitterStatuses.this) {
+                checkPosition(position);
+                return createStatus(position);
+            }
+        }
+        
+        @Override
+        public int size() {
+            return ColumnarTwitterStatuses.this.size();
+        }
+    }
+}
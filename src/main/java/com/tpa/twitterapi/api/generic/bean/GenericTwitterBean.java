@@ -15,11 +15,10 @@
  */
 package com.tpa.twitterapi.api.generic.bean;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.api.client.util.Key;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Objects;
 
@@ -36,7 +35,11 @@ public abstract class GenericTwitterBean {
     
     @Key("created_at")
     @JsonProperty("created_at")
-    protected String createdDate;
+    protected String createdDate; // NB: written by the parsers, or by setCreatedDate() which resets the parsed value
+    
+    // createdDate parsed once, at the first call of getCreatedEpochMillis()
+    private long createdEpochMillis;
+    private volatile boolean createdDateParsed;
 
     public Long getId() {
         return id;
@@ -45,20 +48,54 @@ public abstract class GenericTwitterBean {
     /**
      * Convert the string createdAt Twitter-API property into a java Date
      * 
-     * If you want to get the epoch time, just use the date.getTime() method
+     * If you want to get the epoch time, use getCreatedEpochMillis() instead: it does not create any object
      * 
      * @return Date | null if error 
      */
     public Date getCreatedDate() {
-        // This is the default date format given from Twitter...
-        SimpleDateFormat sf = new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy");
-        sf.setLenient(true);
+        long epochMillis = getCreatedEpochMillis();
         
-        try {
-            return sf.parse(createdDate);
-        } catch (ParseException ex) {
+        if (epochMillis == TwitterDateParser.UNKNOWN_EPOCH_MILLIS) {
             return null;
         }
+        
+        return new Date(epochMillis);
+    }
+    
+    /**
+     * Convert the string createdAt Twitter-API property into an epoch time
+     * 
+     * The date is parsed at the first call only, next calls return the memoized value
+     * 
+     * @return the epoch time in milliseconds | TwitterDateParser.UNKNOWN_EPOCH_MILLIS if error
+     */
+    @JsonIgnore
+    public long getCreatedEpochMillis() {
+        if (!createdDateParsed) {
+            // Parsing is idempotent: if 2 threads get here at the same time, they write the same value
+            createdEpochMillis = TwitterDateParser.parseEpochMillis(createdDate);
+            createdDateParsed = true;
+        }
+        
+        return createdEpochMillis;
+    }
+    
+    /**
+     * Changes the created_at property: the next call of getCreatedEpochMillis() parses it again
+     * 
+     * @param createdDate : a date in the Twitter format
+     */
+    protected final void setCreatedDate(String createdDate) {
+        this.createdDate = createdDate;
+        this.createdDateParsed = false;
+    }
+    
+    /**
+     * Forbids the changes of the bean, for ex. when it is shared by several calls (cf. StaticCallCache)
+     * 
+     * Nothing to forbid here (there are only getters): the beans which can be modified override it, cf. TwitterStatuses
+     */
+    public void setReadOnly() {
     }
     
     /**
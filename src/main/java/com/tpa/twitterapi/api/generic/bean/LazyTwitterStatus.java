@@ -0,0 +1,309 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+
+/**
+ * A TwitterStatus which keeps the raw JSON message, and decodes its properties only when they are used
+ * 
+ * - At the first call of a getter, the message is scanned once: the ID is read, and only the position of
+ *   created_at, text and user is kept (all the other properties are skipped without being decoded)
+ * - created_at, text and user are then decoded at the first call of their getter
+ * 
+ * So a filtering pipeline which only reads the ID (or nothing) before discarding a status does not pay
+ * for the conversion of the whole message (cf. twitter.streaming.lazyStatuses in the config.properties)
+ * 
+ * This class is thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class LazyTwitterStatus extends TwitterStatus {
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+    private static final ObjectReader AUTHOR_READER = OBJECT_MAPPER.readerFor(TwitterAuthor.class);
+    
+    private static final int NOT_FOUND = -1;
+    
+    private final byte[] rawMessage;
+    
+    // Positions of the values in the rawMessage, set by scan()
+    private int createdDateOffset;
+    private int textOffset;
+    private int authorOffset;
+    
+    private volatile boolean scanned;
+    private volatile boolean createdDateDecoded;
+    private volatile boolean textDecoded;
+    private volatile boolean authorDecoded;
+    
+    /**
+     * 
+     * @param rawMessage : the JSON message, which must not be modified after (it is not copied)
+     */
+    public LazyTwitterStatus(byte[] rawMessage) {
+        this.rawMessage = rawMessage;
+        this.createdDateOffset = NOT_FOUND;
+        this.textOffset = NOT_FOUND;
+        this.authorOffset = NOT_FOUND;
+    }
+    
+    /**
+     * @return the JSON message (must not be modified)
+     */
+    @JsonIgnore
+    public byte[] getRawMessage() {
+        return rawMessage;
+    }
+    
+    @Override
+    public Long getId() {
+        scan();
+        return id;
+    }
+    
+    @Override
+    public long getCreatedEpochMillis() {
+        decodeCreatedDate();
+        return super.getCreatedEpochMillis();
+    }
+    
+    @Override
+    public String getText() {
+        if (!textDecoded) {
+            decodeText();
+        }
+        return text;
+    }
+    
+    @Override
+    public TwitterAuthor getAuthor() {
+        if (!authorDecoded) {
+            decodeAuthor();
+        }
+        return author;
+    }
+    
+    /**
+     * Reads the id of the user, without decoding the user (used by the TwitterAuthorRegistry)
+     * 
+     * @return the ID of the author | null if there is no author or no ID
+     */
+    Long getAuthorId() {
+        if (authorDecoded) {
+            return author == null ? null : author.getId();
+        }
+        
+        scan();
+        if (authorOffset == NOT_FOUND) {
+            return null;
+        }
+        
+        try (JsonParser parser = createParser(authorOffset)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String propertyName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                
+                if ("id".equals(propertyName)) {
+                    return token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Replaces the author, which will never be decoded (used by the TwitterAuthorRegistry)
+     * 
+     * @param author : the canonical author
+     */
+    synchronized void setAuthor(TwitterAuthor author) {
+        this.author = author;
+        this.authorDecoded = true;
+    }
+    
+    /**
+     * Checks the required properties without decoding them (only their presence and their JSON type are checked)
+     * 
+     * @return Boolean
+     */
+    @Override
+    public Boolean isValid() {
+        scan();
+        return id != null && createdDateOffset != NOT_FOUND && textOffset != NOT_FOUND && authorOffset != NOT_FOUND;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        scan();
+        return super.equals(obj);
+    }
+    
+    @Override
+    public int hashCode() {
+        scan();
+        return super.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        decodeCreatedDate();
+        getText();
+        getAuthor();
+        return super.toString();
+    }
+    
+    /**
+     * Reads the ID and finds the other properties, skipping the values of all the other properties
+     */
+    private void scan() {
+        if (scanned) {
+            return;
+        }
+        
+        synchronized (this) {
+            if (scanned) {
+                return;
+            }
+            
+            try (JsonParser parser = JSON_FACTORY.createParser(rawMessage)) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    scanProperties(parser);
+                }
+            } catch (IOException e) {
+                // Not a valid JSON message: the properties found before the error are kept, isValid() tells if they are enough
+            }
+            
+            scanned = true;
+        }
+    }
+    
+    private void scanProperties(JsonParser parser) throws IOException {
+        int remainingProperties = 4;
+        
+        while (remainingProperties > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+            String propertyName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            
+            // A property with an unexpected type (null included) is considered as missing, so isValid() returns false
+            int offset = (int) parser.getTokenLocation().getByteOffset();
+            
+            switch (propertyName) {
+                case "id":
+                    if (token == JsonToken.VALUE_NUMBER_INT) {
+                        id = parser.getLongValue();
+                    }
+                    remainingProperties--;
+                    break;
+                case "created_at":
+                    if (token == JsonToken.VALUE_STRING) {
+                        createdDateOffset = offset;
+                    }
+                    remainingProperties--;
+                    break;
+                case "text":
+                    if (token == JsonToken.VALUE_STRING) {
+                        textOffset = offset;
+                    }
+                    remainingProperties--;
+                    break;
+                case "user":
+                    if (token == JsonToken.START_OBJECT) {
+                        authorOffset = offset;
+                    }
+                    remainingProperties--;
+                    break;
+                default:
+                    break;
+            }
+            
+            // Nested objects and arrays (ex. entities, retweeted_status) are only tokenized, nothing is created
+            parser.skipChildren();
+        }
+    }
+    
+    private void decodeCreatedDate() {
+        if (createdDateDecoded) {
+            return;
+        }
+        
+        synchronized (this) {
+            scan();
+            if (!createdDateDecoded) {
+                setCreatedDate(decodeString(createdDateOffset));
+                createdDateDecoded = true;
+            }
+        }
+    }
+    
+    private synchronized void decodeText() {
+        scan();
+        if (!textDecoded) {
+            text = decodeString(textOffset);
+            textDecoded = true;
+        }
+    }
+    
+    private synchronized void decodeAuthor() {
+        scan();
+        if (!authorDecoded) {
+            if (authorOffset != NOT_FOUND) {
+                try (JsonParser parser = createParser(authorOffset)) {
+                    author = AUTHOR_READER.readValue(parser);
+                } catch (IOException e) {
+                    author = null;
+                }
+            }
+            authorDecoded = true;
+        }
+    }
+    
+    private String decodeString(int offset) {
+        if (offset == NOT_FOUND) {
+            return null;
+        }
+        
+        try (JsonParser parser = createParser(offset)) {
+            return parser.nextToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 
+     * @param offset : the position of a value
+     * @return a parser reading from the value (the end of the message is never read)
+     */
+    private JsonParser createParser(int offset) throws IOException {
+        return JSON_FACTORY.createParser(rawMessage, offset, rawMessage.length - offset);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+/**
+ * The sort key of a status, used by TwitterStatuses.getOrderedStatuses()
+ * 
+ * The values needed to order statuses are extracted once per status, so a comparison only compares primitives:
+ * 
+ * 1. By author createdDate
+ * 2. By author ID (to  avoid issues with authors with the same dates)
+ * 3. By message createdDate
+ * 4. By position in the original list (so the order is stable)
+ * 
+ * Missing dates or IDs are ordered first
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+final class StatusOrderingKey implements Comparable<StatusOrderingKey> {
+    
+    private final long authorCreatedEpochMillis;
+    private final long authorId;
+    private final long createdEpochMillis;
+    private final long sequence;
+    
+    private final TwitterStatus status;
+    
+    /**
+     * 
+     * @param status : the status to order
+     * @param sequence : the position of the status in its list
+     */
+    StatusOrderingKey(TwitterStatus status, long sequence) {
+        TwitterAuthor author = status.getAuthor();
+        
+        this.authorCreatedEpochMillis = author.getCreatedEpochMillis();
+        this.authorId = author.getId() == null ? Long.MIN_VALUE : author.getId();
+        this.createdEpochMillis = status.getCreatedEpochMillis();
+        this.sequence = sequence;
+        this.status = status;
+    }
+    
+    TwitterStatus getStatus() {
+        return status;
+    }
+    
+    @Override
+    public int compareTo(StatusOrderingKey other) {
+        if (authorCreatedEpochMillis != other.authorCreatedEpochMillis) {
+            return authorCreatedEpochMillis < other.authorCreatedEpochMillis ? -1 : 1;
+        }
+        
+        if (authorId != other.authorId) {
+            return authorId < other.authorId ? -1 : 1;
+        }
+        
+        if (createdEpochMillis != other.createdEpochMillis) {
+            return createdEpochMillis < other.createdEpochMillis ? -1 : 1;
+        }
+        
+        return Long.compare(sequence, other.sequence);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof StatusOrderingKey && compareTo((StatusOrderingKey) obj) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(sequence);
+    }
+}
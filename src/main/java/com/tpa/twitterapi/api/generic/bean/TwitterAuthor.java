@@ -43,7 +43,7 @@ public class TwitterAuthor extends GenericTwitterBean {
         return screenName;
     }
 
-    public TwitterStatuses getStatuses() {
+    public synchronized TwitterStatuses getStatuses() {
         if (statuses == null) {
             statuses = new TwitterStatuses(new ArrayList<>());
         }
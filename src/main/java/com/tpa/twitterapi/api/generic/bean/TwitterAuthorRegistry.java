@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.tpa.twitterapi.api.generic.call.streamingcall.InterfaceBeanInterceptor;
+import com.tpa.twitterapi.tools.collection.LongLruMap;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+
+/**
+ * Keeps a single TwitterAuthor object per author ID, for the streamed statuses (cf. AbstractStreamingCall.setBeanInterceptor())
+ * 
+ * Each streamed status has its own copy of its author: register() replaces it with the canonical author,
+ * and can add the status to the statuses of the author (cf. TwitterAuthor.getStatuses()), so the statuses
+ * of an author are grouped without any search
+ * 
+ * NB: the linked statuses are kept in memory as long as their author is in the registry,
+ * so an author who keeps posting on an unbounded stream keeps all their statuses: only link them for bounded sessions
+ * 
+ * With a LazyTwitterStatus, only the ID of the user is read: the author of a known ID is never decoded
+ * 
+ * The canonical author is the first one received (until it is evicted): a new name is not taken into account
+ * 
+ * It uses properties from the file config.properties:
+ * 
+ * - twitter.authors.registrySize => the max number of authors, the least recently seen author is evicted first
+ * - twitter.authors.linkStatuses => true to add the statuses to their author
+ * 
+ * This class is thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class TwitterAuthorRegistry implements InterfaceBeanInterceptor<TwitterStatus> {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    
+    private final LongLruMap<TwitterAuthor> authors;
+    private final boolean linkStatuses;
+    
+    private long hitCount;
+    private long missCount;
+    
+    public TwitterAuthorRegistry() {
+        this(PROPERTY_SINGLETON.getInteger("twitter.authors.registrySize"), PROPERTY_SINGLETON.getBoolean("twitter.authors.linkStatuses"));
+    }
+    
+    /**
+     * 
+     * @param maxSize : the max number of authors
+     * @param linkStatuses : true to add the registered statuses to the statuses of their author
+     */
+    public TwitterAuthorRegistry(int maxSize, boolean linkStatuses) {
+        this.authors = new LongLruMap<>(maxSize);
+        this.linkStatuses = linkStatuses;
+    }
+    
+    /**
+     * Replaces the author of the status with the canonical author, and links the status to it
+     * 
+     * A status without author ID is not changed
+     * 
+     * @param twitterStatus : a new status
+     * @return the same status
+     */
+    public synchronized TwitterStatus register(TwitterStatus twitterStatus) {
+        Long authorId = twitterStatus instanceof LazyTwitterStatus
+                ? ((LazyTwitterStatus) twitterStatus).getAuthorId()
+                : (twitterStatus.getAuthor() == null ? null : twitterStatus.getAuthor().getId());
+        
+        if (authorId == null) {
+            return twitterStatus;
+        }
+        
+        TwitterAuthor author = authors.get(authorId);
+        
+        if (author == null) {
+            author = twitterStatus.getAuthor();
+            if (author == null) {
+                return twitterStatus;
+            }
+            
+            missCount++;
+            authors.put(authorId, author);
+        }
+        else {
+            hitCount++;
+            if (twitterStatus instanceof LazyTwitterStatus) {
+                ((LazyTwitterStatus) twitterStatus).setAuthor(author);
+            }
+            else {
+                twitterStatus.author = author;
+            }
+        }
+        
+        if (linkStatuses) {
+            author.getStatuses().addStatus(twitterStatus);
+        }
+        
+        return twitterStatus;
+    }
+    
+    /**
+     * Defined in the InterfaceBeanInterceptor, cf. register()
+     * 
+     * @param twitterStatus : a delivered status
+     */
+    @Override
+    public void intercept(TwitterStatus twitterStatus) {
+        register(twitterStatus);
+    }
+    
+    /**
+     * Returns the canonical author of an ID
+     * 
+     * @param authorId
+     * @return the author | null if it is unknown (or evicted)
+     */
+    public synchronized TwitterAuthor getAuthor(long authorId) {
+        return authors.get(authorId);
+    }
+    
+    /**
+     * @return the number of authors
+     */
+    public synchronized int size() {
+        return authors.size();
+    }
+    
+    /**
+     * @return the number of statuses whose author was already known
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+    
+    /**
+     * @return the number of statuses whose author was added
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+    
+    /**
+     * @return the number of authors forgotten because the registry was full
+     */
+    public synchronized long getEvictionCount() {
+        return authors.getEvictionCount();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.util.Locale;
+
+/**
+ * Converts the Twitter dates (ex.: "Mon May 01 10:00:00 +0000 2017") into epoch milliseconds
+ * 
+ * Twitter always uses the same fixed-width format, so the fields are read at their position, without any formatter
+ * The java.time formatter is only used if the value does not have the expected width
+ * 
+ * This class is thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class TwitterDateParser {
+    
+    /**
+     * Returned when the date is missing or can not be parsed
+     */
+    public static final long UNKNOWN_EPOCH_MILLIS = Long.MIN_VALUE;
+    
+    // This is the default date format given from Twitter...
+    private static final DateTimeFormatter TWITTER_DATE_FORMATTER = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .appendPattern("EEE MMM d HH:mm:ss Z uuuu")
+            .toFormatter(Locale.ENGLISH)
+            // Strict: an invalid date (ex. Feb 31) is rejected instead of being adjusted
+            .withResolverStyle(ResolverStyle.STRICT)
+            // The day of the week is parsed but not checked against the date (like the fixed width parsing)
+            .withResolverFields(ChronoField.YEAR, ChronoField.MONTH_OF_YEAR, ChronoField.DAY_OF_MONTH,
+                    ChronoField.HOUR_OF_DAY, ChronoField.MINUTE_OF_HOUR, ChronoField.SECOND_OF_MINUTE, ChronoField.OFFSET_SECONDS);
+    
+    // Used to recreate a Twitter date, in UTC like the dates given by Twitter
+    private static final DateTimeFormatter TWITTER_DATE_PRINTER = DateTimeFormatter
+            .ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.ENGLISH)
+            .withZone(ZoneOffset.UTC);
+    
+    private static final int TWITTER_DATE_LENGTH = "EEE MMM dd HH:mm:ss +ZZZZ yyyy".length();
+    
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+    
+    private TwitterDateParser() {
+    }
+    
+    /**
+     * 
+     * @param twitterDate : a date given by the Twitter API
+     * @return the epoch time in milliseconds | UNKNOWN_EPOCH_MILLIS if the date is null or could not be parsed
+     */
+    public static long parseEpochMillis(String twitterDate) {
+        
+        if (twitterDate == null) {
+            return UNKNOWN_EPOCH_MILLIS;
+        }
+        
+        if (twitterDate.length() == TWITTER_DATE_LENGTH) {
+            long epochMillis = parseFixedWidth(twitterDate);
+            
+            if (epochMillis != UNKNOWN_EPOCH_MILLIS) {
+                return epochMillis;
+            }
+        }
+        
+        try {
+            return OffsetDateTime.parse(twitterDate, TWITTER_DATE_FORMATTER).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            return UNKNOWN_EPOCH_MILLIS;
+        }
+    }
+    
+    /**
+     * The reverse of parseEpochMillis()
+     * 
+     * @param epochMillis : an epoch time in milliseconds
+     * @return the date in the Twitter format, in UTC | null if the epoch time is UNKNOWN_EPOCH_MILLIS
+     */
+    public static String formatEpochMillis(long epochMillis) {
+        if (epochMillis == UNKNOWN_EPOCH_MILLIS) {
+            return null;
+        }
+        
+        return TWITTER_DATE_PRINTER.format(Instant.ofEpochMilli(epochMillis));
+    }
+    
+    /**
+     * Reads "EEE MMM dd HH:mm:ss +ZZZZ yyyy", the day of the week is ignored
+     * 
+     * @param twitterDate
+     * @return the epoch time in milliseconds | UNKNOWN_EPOCH_MILLIS if a field is not valid
+     */
+    private static long parseFixedWidth(String twitterDate) {
+        
+        int month = parseMonth(twitterDate);
+        if (month < 0) {
+            return UNKNOWN_EPOCH_MILLIS;
+        }
+        
+        int day = parseDigits(twitterDate, 8, 10);
+        int hours = parseDigits(twitterDate, 11, 13);
+        int minutes = parseDigits(twitterDate, 14, 16);
+        int seconds = parseDigits(twitterDate, 17, 19);
+        int offsetHours = parseDigits(twitterDate, 21, 23);
+        int offsetMinutes = parseDigits(twitterDate, 23, 25);
+        int year = parseDigits(twitterDate, 26, 30);
+        
+        char offsetSign = twitterDate.charAt(20);
+        
+        if (day < 1 || day > 31 || hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59
+                || offsetHours < 0 || offsetMinutes < 0 || year < 0 || (offsetSign != '+' && offsetSign != '-')
+                || twitterDate.charAt(3) != ' ' || twitterDate.charAt(7) != ' ' || twitterDate.charAt(10) != ' '
+                || twitterDate.charAt(13) != ':' || twitterDate.charAt(16) != ':' || twitterDate.charAt(19) != ' '
+                || twitterDate.charAt(25) != ' ') {
+            return UNKNOWN_EPOCH_MILLIS;
+        }
+        
+        long epochDay;
+        try {
+            epochDay = LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException ex) { // "Feb 31" for example
+            return UNKNOWN_EPOCH_MILLIS;
+        }
+        
+        long offsetSeconds = (offsetHours * 3600L + offsetMinutes * 60L) * (offsetSign == '-' ? -1 : 1);
+        
+        return (epochDay * 86400L + hours * 3600L + minutes * 60L + seconds - offsetSeconds) * 1000L;
+    }
+    
+    /**
+     * 
+     * @return the month between 1 and 12 | -1 if unknown
+     */
+    private static int parseMonth(String value) {
+        for (int i = 0; i < 12; i++) {
+            if (MONTHS.regionMatches(i * 3, value, 4, 3)) {
+                return i + 1;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * 
+     * @return the positive number between start and end | -1 if a character is not a digit
+     */
+    private static int parseDigits(String value, int start, int end) {
+        int result = 0;
+        
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            
+            result = result * 10 + (c - '0');
+        }
+        
+        return result;
+    }
+}
@@ -26,11 +26,11 @@ public class TwitterStatus extends GenericTwitterBean {
 
     @Key("user")
     @JsonProperty("user")
-    private TwitterAuthor author;
+    protected TwitterAuthor author;
     
     @Key
     @JsonProperty
-    private String text;
+    protected String text;
 
     public TwitterAuthor getAuthor() {
         return author;
@@ -15,38 +15,110 @@
  */
 package com.tpa.twitterapi.api.generic.bean;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.api.client.util.Key;
+import com.tpa.twitterapi.tools.collection.InterfaceIdSet;
+import com.tpa.twitterapi.tools.collection.LongHashSet;
+import com.tpa.twitterapi.tools.collection.RecentWindowIdSet;
+import com.tpa.twitterapi.tools.singleton.logger.LogSampler;
 import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
+import com.tpa.twitterapi.tools.singleton.logger.TwitterLogger;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * This bean is used for the static Twitter search (cf. com.tpa.twitter.api.call.Search.class) to cast API output
  * 
- * There is also a method to show you how to order messages with Java 8 stream API, cf. getOrderedStatuses()
+ * There is also a method to order messages, cf. getOrderedStatuses()
  * 
  * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
  */
 public class TwitterStatuses extends GenericTwitterBean {
     
     public static final Logger LOGGER = LoggerSingleton.getInstance().getLogger(TwitterStatuses.class);
+    
+    private static final TwitterLogger TWITTER_LOGGER = LoggerSingleton.getInstance().getTwitterLogger(TwitterStatuses.class);
+    private static final LogSampler NEW_STATUS_LOG_SAMPLER = LoggerSingleton.getInstance().newLogSampler();
 
     @Key
     @JsonProperty
     private List<TwitterStatus> statuses;
+    
+    // IDs of the statuses, used by addStatus() to find duplicates without scanning the list
+    private InterfaceIdSet statusIds;
+    // True when a status was replaced or removed with getStatuses(): the IDs are collected again from the list
+    private boolean statusIdsOutdated;
+    
+    // The view returned by getStatuses()
+    private List<TwitterStatus> statusesView;
+    
+    // True once shared by several calls (cf. StaticCallCache): addStatus() and getStatuses() can not modify it anymore
+    private volatile boolean readOnly;
+    
+    // Keys sorted by getOrderedStatuses(), copied into the ordered index only when addStatus() needs it
+    private StatusOrderingKey[] orderedKeys;
+    // Statuses ordered by getOrderedStatuses(), maintained by addStatus() once created
+    private ConcurrentSkipListSet<StatusOrderingKey> orderedIndex;
+    // Number of statuses and modification count of the ordered keys / index
+    private int orderedSize;
+    private int orderedModificationCount;
+    
+    // Incremented by every change made through getStatuses(): the order is computed again if it does not match
+    private int modificationCount;
+
+    /**
+     * Used by the parsers (Google Http Client and Jackson)
+     */
+    public TwitterStatuses() {
+    }
 
     public TwitterStatuses(List<TwitterStatus> statuses) {
         this.statuses = statuses;
     }
+    
+    /**
+     * 
+     * @param statuses : the initial statuses
+     * @param statusIds : the set used to find duplicates (for ex. a RecentWindowIdSet for an unbounded stream)
+     */
+    public TwitterStatuses(List<TwitterStatus> statuses, InterfaceIdSet statusIds) {
+        this.statuses = statuses;
+        this.statusIds = statusIds;
+        
+        if (statuses != null && statusIds != null) {
+            for (TwitterStatus status : statuses) {
+                addStatusId(status);
+            }
+        }
+    }
 
-    public List<TwitterStatus> getStatuses() {
-        return statuses;
+    /**
+     * The returned list writes through to the statuses: a change made with it (set, add, remove, sort...)
+     * makes getOrderedStatuses() sort the statuses again, and is taken into account by addStatus() to find duplicates
+     * 
+     * NB: a list given to the constructor must not be modified directly anymore, TwitterStatuses would not see it
+     * 
+     * @return the statuses (always the same view) | null if there is no status list
+     */
+    public synchronized List<TwitterStatus> getStatuses() {
+        if (statuses == null) {
+            return null;
+        }
+        
+        if (statusesView == null) {
+            statusesView = new ModificationTrackingList();
+        }
+        
+        return statusesView;
     }
 
     /**
@@ -56,19 +128,145 @@ public class TwitterStatuses extends GenericTwitterBean {
      * 2. By author ID (to  avoid issues with authors with the same dates)
      * 3. By message createdDate
      * 
+     * The statuses are sorted at the first call only: then, the order is maintained by addStatus()
+     * So you can call this method as often as you want while statuses are added
+     * 
      * @return ordered list of statuses
      */
     public List<TwitterStatus> getOrderedStatuses() {
-        // We create the comparator
-        Comparator<TwitterStatus> comparator = Comparator.comparing(currentStatus -> currentStatus.getAuthor().getCreatedDate());
-        comparator = comparator.thenComparing(Comparator.comparing(currentStatus -> currentStatus.getAuthor().getId()));
-        comparator = comparator.thenComparing(Comparator.comparing(currentStatus -> currentStatus.getCreatedDate()));
-
-        // We order the stream
-        Stream<TwitterStatus> twitterStatusesStream = statuses.stream().sorted(comparator);
-
+        return getOrderedStatuses(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Returns the first statuses of the ordered view, cf. getOrderedStatuses()
+     * 
+     * Once the statuses are sorted, only the first statuses are read: O(limit)
+     * 
+     * @param limit : the max number of statuses
+     * @return ordered list of statuses
+     */
+    public List<TwitterStatus> getOrderedStatuses(int limit) {
+        if (statuses == null) {
+            return new ArrayList<>();
+        }
+        
+        Iterable<StatusOrderingKey> currentOrder;
+        int currentSize;
+        
+        synchronized (this) {
+            currentOrder = getCurrentOrder();
+            currentSize = orderedSize;
+        }
+        
+        List<TwitterStatus> orderedStatuses = new ArrayList<>(Math.min(limit, currentSize));
+        
+        Iterator<StatusOrderingKey> iterator = currentOrder.iterator();
+        while (orderedStatuses.size() < limit && iterator.hasNext()) {
+            orderedStatuses.add(iterator.next().getStatus());
+        }
+        
+        return orderedStatuses;
+    }
+    
+    /**
+     * Orders statuses with a full sort, without using the ordered index, cf. getOrderedStatuses()
+     * 
+     * The sort keys (dates and IDs) are extracted once per status, then the keys are sorted
+     * 
+     * @param parallel : true to sort with all the cores (only useful for large lists)
+     * @return ordered list of statuses
+     */
+    public List<TwitterStatus> getOrderedStatuses(boolean parallel) {
+        if (statuses == null) {
+            return new ArrayList<>();
+        }
+        
+        StatusOrderingKey[] keys = getSortedKeys(parallel);
+        
         // We recreate a new ordered list and return it...
-        return twitterStatusesStream.collect(Collectors.toList());
+        List<TwitterStatus> orderedStatuses = new ArrayList<>(keys.length);
+        for (StatusOrderingKey key : keys) {
+            orderedStatuses.add(key.getStatus());
+        }
+        
+        return orderedStatuses;
+    }
+    
+    /**
+     * 
+     * @param parallel : true to sort with all the cores
+     * @return the sorted keys of all the statuses
+     */
+    private synchronized StatusOrderingKey[] getSortedKeys(boolean parallel) {
+        StatusOrderingKey[] keys = new StatusOrderingKey[statuses.size()];
+        
+        int sequence = 0;
+        for (TwitterStatus status : statuses) {
+            keys[sequence] = new StatusOrderingKey(status, sequence);
+            sequence++;
+        }
+        
+        if (parallel) {
+            Arrays.parallelSort(keys);
+        }
+        else {
+            Arrays.sort(keys);
+        }
+        
+        return keys;
+    }
+    
+    /**
+     * Returns the current order of the statuses: the ordered index if addStatus() created it, else the sorted keys
+     * 
+     * The statuses are sorted again if the list was modified without addStatus() (for ex. filled by the parser, or changed with getStatuses())
+     * The sort is done in parallel if the number of statuses reaches twitter.statuses.parallelSortThreshold (cf. config.properties)
+     * 
+     * NB: the sorted keys are never modified once published, so they can be read without the lock
+     * 
+     * @return the ordered keys
+     */
+    private synchronized Iterable<StatusOrderingKey> getCurrentOrder() {
+        if (!isOrderUpToDate(statuses.size())) {
+            orderedKeys = getSortedKeys(statuses.size() >= PropertySingleton.getInstance().getInteger("twitter.statuses.parallelSortThreshold"));
+            orderedIndex = null;
+            orderedSize = orderedKeys.length;
+            orderedModificationCount = modificationCount;
+        }
+        
+        return orderedIndex != null ? orderedIndex : Arrays.asList(orderedKeys);
+    }
+    
+    /**
+     * 
+     * @param expectedSize : the number of statuses which must be ordered
+     * @return true if the sorted keys or the ordered index contain all the statuses
+     */
+    private boolean isOrderUpToDate(int expectedSize) {
+        return (orderedIndex != null || orderedKeys != null) && orderedSize == expectedSize && orderedModificationCount == modificationCount;
+    }
+    
+    /**
+     * Forbids the changes: addStatus() and the modifications of getStatuses() throw an UnsupportedOperationException
+     */
+    @Override
+    public void setReadOnly() {
+        readOnly = true;
+    }
+    
+    @JsonIgnore
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    /**
+     * 
+     * @throws UnsupportedOperationException if the statuses are read-only, cf. setReadOnly()
+     */
+    protected final void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("These statuses are read-only (ex. a cached result shared by several calls)");
+        }
     }
     
     /**
@@ -76,20 +274,146 @@ public class TwitterStatuses extends GenericTwitterBean {
      * 
      * If the property statuses is null, this method automatically creates the ArrayList
      * 
+     * Duplicates are found in O(1) with the set of IDs (cf. getStatusIds()), which follows the changes made with getStatuses()
+     * 
+     * This method can be called while other threads read getOrderedStatuses()
+     * 
      * @param twitterStatus
      * @return true if status added | false if statuses already contains the input status
+     * @throws UnsupportedOperationException if the statuses are read-only, cf. setReadOnly()
      */
-    public boolean addStatus(TwitterStatus twitterStatus) {
+    public synchronized boolean addStatus(TwitterStatus twitterStatus) {
+        checkWritable();
+        
         if (statuses == null) {
             statuses = new ArrayList<>();
         }
         
-        if (!statuses.contains(twitterStatus)) {
-            LOGGER.log(Level.INFO, "\t\tNew tweet: {0}", twitterStatus.toString());
+        if (addStatusId(twitterStatus)) {
+            TWITTER_LOGGER.logSampled(Level.INFO, NEW_STATUS_LOG_SAMPLER, "\t\tNew tweet (1 tweet logged every {1}): {0}", twitterStatus, NEW_STATUS_LOG_SAMPLER.getRate());
             statuses.add(twitterStatus);
+            
+            // O(log N): the ordered view is updated without sorting again
+            if (isOrderUpToDate(statuses.size() - 1)) {
+                if (orderedIndex == null) {
+                    orderedIndex = new ConcurrentSkipListSet<>(Arrays.asList(orderedKeys));
+                    orderedKeys = null;
+                }
+                orderedIndex.add(new StatusOrderingKey(twitterStatus, orderedSize));
+                orderedSize++;
+            }
             return true;
         }
         
         return false;
     }
+    
+    /**
+     * Returns the set of IDs used to find duplicates
+     * 
+     * If not given to the constructor, it is created at the first call from the config.properties:
+     * 
+     * - twitter.statuses.deduplicationWindow=0 => every ID is kept (LongHashSet)
+     * - twitter.statuses.deduplicationWindow=N => only the N most recent IDs are kept (RecentWindowIdSet), for unbounded streams
+     * 
+     * @return the set of IDs
+     */
+    @JsonIgnore
+    public synchronized InterfaceIdSet getStatusIds() {
+        if (statusIds == null) {
+            Integer deduplicationWindow = PropertySingleton.getInstance().getInteger("twitter.statuses.deduplicationWindow");
+            
+            if (deduplicationWindow > 0) {
+                statusIds = new RecentWindowIdSet(deduplicationWindow);
+            }
+            else {
+                statusIds = new LongHashSet(statuses == null ? 0 : statuses.size());
+            }
+            
+            // The list may have been filled by the parser (cf. Search), without addStatus()
+            collectStatusIds();
+        }
+        else if (statusIdsOutdated) {
+            // The sets can not remove an ID: they are filled again
+            statusIds.clear();
+            collectStatusIds();
+        }
+        
+        return statusIds;
+    }
+    
+    private void collectStatusIds() {
+        statusIdsOutdated = false;
+        
+        if (statuses != null) {
+            for (TwitterStatus status : statuses) {
+                if (status.getId() != null) {
+                    statusIds.add(status.getId());
+                }
+            }
+        }
+    }
+    
+    /**
+     * 
+     * @param twitterStatus
+     * @return true if the ID of the status was unknown
+     */
+    private boolean addStatusId(TwitterStatus twitterStatus) {
+        // Without ID, we can not know if it's a duplicate
+        if (twitterStatus.getId() == null) {
+            return true;
+        }
+        
+        return getStatusIds().add(twitterStatus.getId());
+    }
+    
+    /**
+     * The view returned by getStatuses(): counts the changes of the statuses, and keeps their IDs up to date
+     */
+    private final class ModificationTrackingList extends AbstractList<TwitterStatus> implements RandomAccess {
+
+        @Override
+        public TwitterStatus get(int index) {
+            return statuses.get(index);
+        }
+
+        @Override
+        public int size() {
+            return statuses.size();
+        }
+
+        @Override
+        public TwitterStatus set(int index, TwitterStatus twitterStatus) {
+            synchronized (TwitterStatuses.this) {
+                checkWritable();
+                modificationCount++;
+                statusIdsOutdated = true;
+                return statuses.set(index, twitterStatus);
+            }
+        }
+
+        @Override
+        public void add(int index, TwitterStatus twitterStatus) {
+            synchronized (TwitterStatuses.this) {
+                checkWritable();
+                modificationCount++;
+                statuses.add(index, twitterStatus);
+                
+                if (statusIds != null && !statusIdsOutdated) {
+                    addStatusId(twitterStatus);
+                }
+            }
+        }
+
+        @Override
+        public TwitterStatus remove(int index) {
+            synchronized (TwitterStatuses.this) {
+                checkWritable();
+                modificationCount++;
+                statusIdsOutdated = true;
+                return statuses.remove(index);
+            }
+        }
+    }
 }
@@ -15,7 +15,9 @@
  */
 package com.tpa.twitterapi.api.generic.call;
 
+import com.tpa.twitterapi.tools.singleton.logger.LogSampler;
 import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
+import com.tpa.twitterapi.tools.singleton.logger.TwitterLogger;
 import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
 import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
 import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
@@ -40,11 +42,16 @@ public abstract class AbstractCall<CLASS_TYPE extends AbstractCall, BEAN_TYPE ex
 
     protected static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
     protected static Logger LOGGER;
+    // To be used for the events happening for every request or message
+    protected static TwitterLogger TWITTER_LOGGER;
 
     protected final Class<BEAN_TYPE> GENERIC_BEAN_TYPE;
 
     protected final TwitterAuthenticator twitterAuthenticator;
     protected final Map<String, Object> parameters;
+    
+    // Samples the logs of the events happening for every request or message (cf. java.util.logging.sampleRate)
+    protected final LogSampler messageLogSampler;
 
     protected String url;
 
@@ -62,6 +69,9 @@ public abstract class AbstractCall<CLASS_TYPE extends AbstractCall, BEAN_TYPE ex
         this.parameters = new HashMap<>();
 
         LOGGER = LoggerSingleton.getInstance().getLogger(GENERIC_BEAN_TYPE);
+        TWITTER_LOGGER = LoggerSingleton.getInstance().getTwitterLogger(GENERIC_BEAN_TYPE);
+        
+        this.messageLogSampler = LoggerSingleton.getInstance().newLogSampler();
     }
 
     public final Map<String, String> getParameters() {
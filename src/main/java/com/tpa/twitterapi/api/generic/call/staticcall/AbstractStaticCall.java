@@ -18,6 +18,8 @@ package com.tpa.twitterapi.api.generic.call.staticcall;
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.json.JsonObjectParser;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
 import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
@@ -39,8 +41,32 @@ import java.util.logging.Level;
 public abstract class AbstractStaticCall<CLASS_TYPE extends AbstractCall, BEAN_TYPE extends GenericTwitterBean> extends AbstractCall<CLASS_TYPE, BEAN_TYPE> 
         implements InterfaceStaticCall<CLASS_TYPE, BEAN_TYPE> {
     
+    // Thread-safe: shared by all the static calls instead of creating a JacksonFactory per request
+    private static final JsonObjectParser JSON_OBJECT_PARSER = new JacksonFactory().createJsonObjectParser();
+    
+    private boolean cacheEnabled;
+    
     public AbstractStaticCall(Class<BEAN_TYPE> genericTwitterBeanType, TwitterAuthenticator twitterAuthenticator, String url) {
         super(genericTwitterBeanType, twitterAuthenticator, url);
+        
+        this.cacheEnabled = PROPERTY_SINGLETON.getBoolean("twitter.cache.enabled");
+    }
+    
+    /**
+     * This is a chaining method to use (or not) the StaticCallCache of the TwitterAuthenticator
+     * 
+     * NB: a cached result is shared by the identical calls, so it is read-only (cf. GenericTwitterBean.setReadOnly())
+     * 
+     * @param cacheEnabled : true to get the result of an identical call executed during the TTL (default value: twitter.cache.enabled)
+     * @return the call itself
+     */
+    public final CLASS_TYPE setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+        return (CLASS_TYPE) this;
+    }
+    
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
     }
     
     /**
@@ -48,12 +74,41 @@ public abstract class AbstractStaticCall<CLASS_TYPE extends AbstractCall, BEAN_T
      * 
      * It uses "Google Http Client" to parse the result
      * 
+     * The call is delayed by the RateLimitGovernor of the TwitterAuthenticator if the rate limit of the URL is reached
+     * If the cache is enabled, the result of an identical call (same URL and parameters) may be returned instead, cf. StaticCallCache
+     * 
      * @return the <BEAN_TYPE> object result
      * @throws TwitterAuthenticationException
      * @throws TwitterRequestException 
      */
     @Override
     public BEAN_TYPE executeRequest() throws TwitterAuthenticationException, TwitterRequestException {
+        if (cacheEnabled) {
+            String key = GENERIC_BEAN_TYPE.getName() + " " + StaticCallCache.getKey(url, parameters);
+            return twitterAuthenticator.getStaticCallCache().get(key, this::executeSharedHttpRequest);
+        }
+        
+        return executeHttpRequest();
+    }
+    
+    /**
+     * Executes the request for the cache: the result is shared by the identical calls, so nobody can modify it
+     * 
+     * @return the read-only result
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException 
+     */
+    private BEAN_TYPE executeSharedHttpRequest() throws TwitterAuthenticationException, TwitterRequestException {
+        BEAN_TYPE genericApiResult = executeHttpRequest();
+        
+        if (genericApiResult != null) {
+            genericApiResult.setReadOnly();
+        }
+        
+        return genericApiResult;
+    }
+    
+    private BEAN_TYPE executeHttpRequest() throws TwitterAuthenticationException, TwitterRequestException {
         HttpResponse httpResponse = null;
         BEAN_TYPE genericApiResult = null;
         
@@ -63,13 +118,21 @@ public abstract class AbstractStaticCall<CLASS_TYPE extends AbstractCall, BEAN_T
             genericUrl.setUnknownKeys(parameters);
             
             HttpRequest request = twitterAuthenticator.getHttpRequestFactory().buildGetRequest(genericUrl);
-            request.setParser(new JacksonFactory().createJsonObjectParser());
+            request.setParser(JSON_OBJECT_PARSER);
+            
+            // Waits if there is no call left for this endpoint in the current rate limit window
+            twitterAuthenticator.getRateLimitGovernor().acquire(url);
             
             httpResponse = request.execute();
+            twitterAuthenticator.getRateLimitGovernor().update(url, httpResponse.getHeaders());
             
-            LOGGER.log(Level.INFO, "Request: {0} executed with status code: {1}", new Object[]{request.getUrl().toString(), httpResponse.getStatusCode()});
+            TWITTER_LOGGER.logSampled(Level.INFO, messageLogSampler, "Request: {0} executed with status code: {1}", request.getUrl(), httpResponse.getStatusCode());
             genericApiResult = httpResponse.parseAs(GENERIC_BEAN_TYPE); // This is using @Key annotations of the beans
-            LOGGER.info("Result retrieved and parsed");
+            TWITTER_LOGGER.log(Level.FINE, "Result retrieved and parsed");
+        } catch (HttpResponseException e) {
+            // Failed responses (ex. 429) also give the rate limit
+            twitterAuthenticator.getRateLimitGovernor().update(url, e.getHeaders());
+            throw new TwitterRequestException("Request could not be executed:", e);
         } catch (IOException e) {
             throw new TwitterRequestException("Request could not be executed:", e);
         }
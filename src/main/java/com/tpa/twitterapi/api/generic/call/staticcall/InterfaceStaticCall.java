@@ -19,6 +19,9 @@ import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
 import com.tpa.twitterapi.api.generic.call.AbstractCall;
 import com.tpa.twitterapi.exception.TwitterAuthenticationException;
 import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.singleton.executor.ExecutorSingleton;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * This interface must be used for the static calls
@@ -37,4 +40,25 @@ public interface InterfaceStaticCall<CLASS_TYPE extends AbstractCall, BEAN_TYPE
      * @throws TwitterRequestException 
      */
     public abstract BEAN_TYPE executeRequest() throws TwitterAuthenticationException, TwitterRequestException;
+    
+    /**
+     * Execute the request on the executor of the ExecutorSingleton (cf. twitter.executor.* in the config.properties)
+     * 
+     * As with a StaticCallExecutor, the request waits for a permit (cf. twitter.executor.maxConcurrentCalls) and is stopped by the timeout
+     * 
+     * @return a future completed with the unique element, or with the TwitterAuthenticationException / TwitterRequestException
+     */
+    public default CompletableFuture<BEAN_TYPE> executeRequestAsync() {
+        return executeRequestAsync(ExecutorSingleton.getInstance().getExecutorService());
+    }
+    
+    /**
+     * Execute the request on the given executor, cf. StaticCallExecutor.executeAsync()
+     * 
+     * @param executor : the executor running the blocking request
+     * @return a future completed with the unique element, or with the TwitterAuthenticationException / TwitterRequestException
+     */
+    public default CompletableFuture<BEAN_TYPE> executeRequestAsync(Executor executor) {
+        return new StaticCallExecutor().executeAsync(this, executor);
+    }
 }
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.staticcall;
+
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of the results of the static calls (ex. Search), shared by all the calls of a TwitterAuthenticator
+ * 
+ * - The key is the URL and the parameters (sorted, so the order of the addParameter() calls does not matter)
+ * - A result is kept during the TTL, then the next identical call executes the request again
+ * - When the cache is full, the least recently used result is evicted
+ * - Identical calls executed at the same time send only 1 request: the other calls wait for its result (single-flight)
+ * 
+ * Failed requests are never cached
+ * 
+ * NB: a cached result is the same object for all the calls getting it: AbstractStaticCall makes it read-only (cf. GenericTwitterBean.setReadOnly())
+ * 
+ * It uses properties from the file config.properties:
+ * 
+ * - twitter.cache.ttlInSeconds => how long a result is kept
+ * - twitter.cache.maxSize => the max number of results kept
+ * 
+ * This class is thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class StaticCallCache {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    
+    /**
+     * Executes the request when the result is not in the cache
+     * 
+     * @param <VALUE_TYPE>
+     */
+    @FunctionalInterface
+    public interface Loader<VALUE_TYPE> {
+        
+        public abstract VALUE_TYPE load() throws TwitterAuthenticationException, TwitterRequestException;
+    }
+    
+    private final long ttlInNanos;
+    private final int maxSize;
+    
+    // Access-ordered: the first entry is the least recently used one (guarded by "this")
+    private final LinkedHashMap<String, Entry> entries;
+    // Requests in progress, joined by the identical calls
+    private final Map<String, CompletableFuture<Object>> loadings;
+    
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong sharedLoadCount;
+    private final AtomicLong evictionCount;
+    
+    public StaticCallCache() {
+        this(PROPERTY_SINGLETON.getInteger("twitter.cache.ttlInSeconds") * 1000L, PROPERTY_SINGLETON.getInteger("twitter.cache.maxSize"));
+    }
+    
+    /**
+     * 
+     * @param ttlInMillis : how long a result is kept
+     * @param maxSize : the max number of results kept
+     */
+    public StaticCallCache(long ttlInMillis, int maxSize) {
+        if (ttlInMillis <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("The TTL and the size of the cache must be positive: " + ttlInMillis + ", " + maxSize);
+        }
+        
+        this.ttlInNanos = ttlInMillis * 1000000L;
+        this.maxSize = maxSize;
+        this.loadings = new ConcurrentHashMap<>();
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.sharedLoadCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+        
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > StaticCallCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * 
+     * @param url : the URL of the call, without parameters
+     * @param parameters : the parameters of the call
+     * @return the key of the call in the cache
+     */
+    public static String getKey(String url, Map<String, ?> parameters) {
+        return url + new TreeMap<>(parameters);
+    }
+    
+    /**
+     * Returns the cached result of the key, or executes the loader
+     * 
+     * If an identical call is already executing its request, this method waits for its result instead
+     * 
+     * @param <VALUE_TYPE>
+     * @param key : cf. getKey()
+     * @param loader : executes the request
+     * @return the result
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException 
+     */
+    @SuppressWarnings("unchecked")
+    public <VALUE_TYPE> VALUE_TYPE get(String key, Loader<VALUE_TYPE> loader) throws TwitterAuthenticationException, TwitterRequestException {
+        Object value = getIfPresent(key);
+        if (value != null) {
+            hitCount.incrementAndGet();
+            return (VALUE_TYPE) value;
+        }
+        
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> currentLoading = loadings.putIfAbsent(key, loading);
+        
+        if (currentLoading != null) {
+            sharedLoadCount.incrementAndGet();
+            return (VALUE_TYPE) await(currentLoading);
+        }
+        
+        try {
+            // The result may have been cached by an identical call, between getIfPresent() and putIfAbsent()
+            value = getIfPresent(key);
+            if (value != null) {
+                hitCount.incrementAndGet();
+            }
+            else {
+                missCount.incrementAndGet();
+                value = loader.load();
+                put(key, value);
+            }
+            loading.complete(value);
+            return (VALUE_TYPE) value;
+        } catch (Throwable e) {
+            // The waiting calls get the same exception
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(key, loading);
+        }
+    }
+    
+    /**
+     * Removes all the cached results
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+    
+    /**
+     * @return the number of cached results (including the expired results not removed yet)
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    /**
+     * @return the number of calls which got a cached result
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+    
+    /**
+     * @return the number of calls which executed their request
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+    
+    /**
+     * @return the number of calls which waited for the request of an identical call
+     */
+    public long getSharedLoadCount() {
+        return sharedLoadCount.get();
+    }
+    
+    /**
+     * @return the number of results removed because the cache was full
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+    
+    /**
+     * @return the ratio of calls which did not execute their request (0 if there was no call)
+     */
+    public double getHitRatio() {
+        long hits = hitCount.get() + sharedLoadCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+    
+    private synchronized Object getIfPresent(String key) {
+        Entry entry = entries.get(key);
+        
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.getCreationNanos() >= ttlInNanos) {
+            entries.remove(key);
+            return null;
+        }
+        
+        return entry.getValue();
+    }
+    
+    private synchronized void put(String key, Object value) {
+        if (value != null) {
+            entries.put(key, new Entry(value, System.nanoTime()));
+        }
+    }
+    
+    private static Object await(CompletableFuture<Object> loading) throws TwitterAuthenticationException, TwitterRequestException {
+        try {
+            return loading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TwitterRequestException("Interrupted while waiting for an identical request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            
+            if (cause instanceof TwitterAuthenticationException) {
+                throw (TwitterAuthenticationException) cause;
+            }
+            if (cause instanceof TwitterRequestException) {
+                throw (TwitterRequestException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final Object value;
+        private final long creationNanos;
+        
+        Entry(Object value, long creationNanos) {
+            this.value = value;
+            this.creationNanos = creationNanos;
+        }
+        
+        Object getValue() {
+            return value;
+        }
+        
+        long getCreationNanos() {
+            return creationNanos;
+        }
+    }
+}
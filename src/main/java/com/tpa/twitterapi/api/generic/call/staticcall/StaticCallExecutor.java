@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.staticcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.singleton.executor.ExecutorSingleton;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Executes many static calls at the same time, ex.:
+ * 
+ *      try (StaticCallResults<Search, TwitterStatuses> results = new StaticCallExecutor().executeAll(searches)) {
+ *          while (results.hasNext()) {
+ *              StaticCallResult<Search, TwitterStatuses> result = results.next();
+ *              ...
+ *          }
+ *      }
+ * 
+ * The calls are executed by the threads of the ExecutorSingleton (virtual threads if available),
+ * and never more than twitter.executor.maxConcurrentCalls at the same time for the whole application
+ * 
+ * A call which is not completed after its timeout is returned as timed out (cf. twitter.executor.callTimeoutInSeconds),
+ * its thread is interrupted but keeps its permit until the blocking request really ends
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class StaticCallExecutor {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    private static final ExecutorSingleton EXECUTOR_SINGLETON = ExecutorSingleton.getInstance();
+    
+    private final long timeoutInMillis;
+    
+    /**
+     * Uses the default timeout (cf. twitter.executor.callTimeoutInSeconds)
+     */
+    public StaticCallExecutor() {
+        this(PROPERTY_SINGLETON.getInteger("twitter.executor.callTimeoutInSeconds") * 1000L);
+    }
+    
+    /**
+     * 
+     * @param timeoutInMillis : max execution time of every call (waiting for a permit is not included)
+     */
+    public StaticCallExecutor(long timeoutInMillis) {
+        if (timeoutInMillis <= 0) {
+            throw new IllegalArgumentException("The timeout must be positive: " + timeoutInMillis);
+        }
+        
+        this.timeoutInMillis = timeoutInMillis;
+    }
+    
+    /**
+     * Submits all the calls and returns immediately
+     * 
+     * @param <CALL_TYPE> : the type of the calls
+     * @param <BEAN_TYPE> : the element returned by the calls
+     * @param calls : the calls to execute
+     * @return the results, in the order they complete
+     */
+    public <CALL_TYPE extends InterfaceStaticCall<?, BEAN_TYPE>, BEAN_TYPE extends GenericTwitterBean> StaticCallResults<CALL_TYPE, BEAN_TYPE> executeAll(Collection<? extends CALL_TYPE> calls) {
+        
+        BlockingQueue<StaticCallResult<CALL_TYPE, BEAN_TYPE>> completedResults = new LinkedBlockingQueue<>();
+        List<Runnable> cancellers = new ArrayList<>(calls.size());
+        
+        for (CALL_TYPE call : calls) {
+            CallTask<CALL_TYPE, BEAN_TYPE> callTask = new CallTask<>(call, completedResults::add);
+            Future<?> future = EXECUTOR_SINGLETON.getExecutorService().submit(callTask);
+            
+            cancellers.add(() -> {
+                callTask.cancel();
+                future.cancel(false);
+            });
+        }
+        
+        return new StaticCallResults<>(completedResults, cancellers);
+    }
+    
+    /**
+     * Submits one call and returns immediately
+     * 
+     * Like the calls of executeAll(), the call waits for a permit and is stopped by the timeout
+     * 
+     * @param <BEAN_TYPE> : the element returned by the call
+     * @param call : the call to execute
+     * @param executor : the executor running the blocking request
+     * @return a future completed with the element, or with the TwitterAuthenticationException / TwitterRequestException
+     */
+    public <BEAN_TYPE extends GenericTwitterBean> CompletableFuture<BEAN_TYPE> executeAsync(InterfaceStaticCall<?, BEAN_TYPE> call, Executor executor) {
+        
+        CompletableFuture<BEAN_TYPE> future = new CompletableFuture<>();
+        
+        try {
+            executor.execute(new CallTask<InterfaceStaticCall<?, BEAN_TYPE>, BEAN_TYPE>(call, staticCallResult -> {
+                if (staticCallResult.isSuccessful()) {
+                    future.complete(staticCallResult.getResult());
+                }
+                else {
+                    future.completeExceptionally(staticCallResult.getException());
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        
+        return future;
+    }
+    
+    /**
+     * Executes one call and publishes its result, or publishes a timeout if the call takes too long
+     * 
+     * Exactly one result is published, whatever happens: an Error of the call or a cancellation before the start are published as failures
+     */
+    private final class CallTask<CALL_TYPE extends InterfaceStaticCall<?, BEAN_TYPE>, BEAN_TYPE extends GenericTwitterBean> implements Runnable {
+        
+        private final CALL_TYPE call;
+        private final Consumer<StaticCallResult<CALL_TYPE, BEAN_TYPE>> resultConsumer;
+        
+        // Only the first result (the real one or the timeout) is published
+        private final AtomicBoolean published;
+        // Set by run() or by cancel(), only the first one is taken into account
+        private final AtomicBoolean started;
+        
+        // Protected by the CallTask lock: the thread executing the call, null once completed
+        private Thread runner;
+        private long startTime;
+        
+        /**
+         * 
+         * @param call : the call to execute
+         * @param resultConsumer : receives the result of the call, once
+         */
+        CallTask(CALL_TYPE call, Consumer<StaticCallResult<CALL_TYPE, BEAN_TYPE>> resultConsumer) {
+            this.call = call;
+            this.resultConsumer = resultConsumer;
+            this.published = new AtomicBoolean(false);
+            this.started = new AtomicBoolean(false);
+        }
+
+        @Override
+        public void run() {
+            
+            // Cancelled before being started: the cancellation is already published
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            
+            try {
+                execute();
+            } finally {
+                // Never published only if the call failed unexpectedly (ex. the timeout could not be scheduled)
+                publish(null, new TwitterRequestException("Call ended without any result"), false);
+            }
+        }
+        
+        /**
+         * Publishes a cancellation if the call is not started yet
+         */
+        void cancel() {
+            if (started.compareAndSet(false, true)) {
+                publish(null, new TwitterRequestException("Call was cancelled before being executed", new CancellationException()), false);
+            }
+        }
+        
+        private void execute() {
+            
+            try {
+                EXECUTOR_SINGLETON.getCallPermits().acquire();
+            } catch (InterruptedException e) {
+                publish(null, new TwitterRequestException("Call was interrupted before being executed", e), false);
+                return;
+            }
+            
+            synchronized (this) {
+                runner = Thread.currentThread();
+                startTime = System.nanoTime();
+            }
+            
+            ScheduledFuture<?> timeout = EXECUTOR_SINGLETON.getTimeoutScheduler().schedule(this::timeout, timeoutInMillis, TimeUnit.MILLISECONDS);
+            
+            try {
+                publish(call.executeRequest(), null, false);
+            } catch (TwitterRequestException | TwitterAuthenticationException | RuntimeException e) {
+                publish(null, e, false);
+            } catch (Error e) {
+                publish(null, new TwitterRequestException("Call failed with an error", e), false);
+                throw e;
+            } finally {
+                timeout.cancel(false);
+                
+                synchronized (this) {
+                    runner = null;
+                    // A timeout may have interrupted this thread: the flag must not stay for the next task of the thread
+                    Thread.interrupted();
+                }
+                
+                EXECUTOR_SINGLETON.getCallPermits().release();
+            }
+        }
+        
+        private synchronized void timeout() {
+            if (publish(null, new TwitterRequestException("Call did not complete after " + timeoutInMillis + " ms", new TimeoutException()), true) && runner != null) {
+                runner.interrupt();
+            }
+        }
+        
+        private boolean publish(BEAN_TYPE result, Exception exception, boolean timedOut) {
+            if (!published.compareAndSet(false, true)) {
+                return false;
+            }
+            
+            long durationInMillis;
+            synchronized (this) {
+                durationInMillis = startTime == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            }
+            
+            resultConsumer.accept(new StaticCallResult<>(call, result, exception, timedOut, durationInMillis));
+            return true;
+        }
+    }
+}
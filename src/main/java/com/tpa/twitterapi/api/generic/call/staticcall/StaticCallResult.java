@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.staticcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+
+/**
+ * The result of a call executed by the StaticCallExecutor: the element, or the reason of the failure
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <CALL_TYPE>
+ * @param <BEAN_TYPE>
+ */
+public final class StaticCallResult<CALL_TYPE extends InterfaceStaticCall<?, BEAN_TYPE>, BEAN_TYPE extends GenericTwitterBean> {
+    
+    private final CALL_TYPE call;
+    private final BEAN_TYPE result;
+    private final Exception exception;
+    private final boolean timedOut;
+    private final long durationInMillis;
+    
+    /**
+     * 
+     * @param call : the executed call
+     * @param result : the element, null if the call failed
+     * @param exception : the failure, null if the call succeeded
+     * @param timedOut : true if the call did not complete before its timeout
+     * @param durationInMillis : the execution time of the call
+     */
+    StaticCallResult(CALL_TYPE call, BEAN_TYPE result, Exception exception, boolean timedOut, long durationInMillis) {
+        this.call = call;
+        this.result = result;
+        this.exception = exception;
+        this.timedOut = timedOut;
+        this.durationInMillis = durationInMillis;
+    }
+
+    public CALL_TYPE getCall() {
+        return call;
+    }
+
+    /**
+     * 
+     * @return the element | null if the call failed
+     */
+    public BEAN_TYPE getResult() {
+        return result;
+    }
+
+    /**
+     * 
+     * @return the failure (TwitterRequestException or TwitterAuthenticationException) | null if the call succeeded
+     */
+    public Exception getException() {
+        return exception;
+    }
+    
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public long getDurationInMillis() {
+        return durationInMillis;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.staticcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The results of StaticCallExecutor.executeAll(), in the order they complete
+ * 
+ * next() blocks until the next call is completed (successful, failed or timed out)
+ * 
+ * Closing the results cancels the calls which are not started yet: they are returned as failed, so next() never waits for them
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <CALL_TYPE>
+ * @param <BEAN_TYPE>
+ */
+public final class StaticCallResults<CALL_TYPE extends InterfaceStaticCall<?, BEAN_TYPE>, BEAN_TYPE extends GenericTwitterBean>
+        implements Iterator<StaticCallResult<CALL_TYPE, BEAN_TYPE>>, AutoCloseable {
+    
+    private final BlockingQueue<StaticCallResult<CALL_TYPE, BEAN_TYPE>> completedResults;
+    private final List<Runnable> cancellers;
+    
+    private int remainingResults;
+    
+    /**
+     * 
+     * @param completedResults : filled by the calls once completed
+     * @param cancellers : cancel the submitted calls, one per call
+     */
+    StaticCallResults(BlockingQueue<StaticCallResult<CALL_TYPE, BEAN_TYPE>> completedResults, List<Runnable> cancellers) {
+        this.completedResults = completedResults;
+        this.cancellers = cancellers;
+        this.remainingResults = cancellers.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remainingResults > 0;
+    }
+
+    /**
+     * Waits for the next completed call
+     * 
+     * @return the result of the call
+     * @throws NoSuchElementException if all the results were returned
+     * @throws IllegalStateException if the thread is interrupted
+     */
+    @Override
+    public StaticCallResult<CALL_TYPE, BEAN_TYPE> next() {
+        if (remainingResults == 0) {
+            throw new NoSuchElementException("All the results were returned");
+        }
+        
+        try {
+            StaticCallResult<CALL_TYPE, BEAN_TYPE> staticCallResult = completedResults.take();
+            remainingResults--;
+            return staticCallResult;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next result", e);
+        }
+    }
+    
+    /**
+     * Waits for all the remaining calls
+     * 
+     * @return the remaining results, in the order they completed
+     */
+    public List<StaticCallResult<CALL_TYPE, BEAN_TYPE>> awaitAll() {
+        List<StaticCallResult<CALL_TYPE, BEAN_TYPE>> results = new ArrayList<>(remainingResults);
+        
+        while (hasNext()) {
+            results.add(next());
+        }
+        
+        return results;
+    }
+
+    @Override
+    public void close() {
+        for (Runnable canceller : cancellers) {
+            canceller.run();
+        }
+    }
+}
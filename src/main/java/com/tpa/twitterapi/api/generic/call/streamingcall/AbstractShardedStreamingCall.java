@@ -0,0 +1,330 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.collection.InterfaceIdSet;
+import com.tpa.twitterapi.tools.collection.RecentWindowIdSet;
+import com.tpa.twitterapi.tools.singleton.executor.ExecutorSingleton;
+import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs several streaming calls (the shards) at the same time and merges them into one stream
+ * 
+ * Every shard has its own connection and its own thread (cf. ExecutorSingleton.getStreamingExecutorService()),
+ * which reads and parses its messages: so the parsing is spread over the cores
+ * 
+ * The merged stream is de-duplicated by ID (an element matching several shards is delivered once, cf. twitter.streaming.deduplicationWindow)
+ * and the elements are delivered one at a time to the subscriber (its methods are never called concurrently)
+ * 
+ * Backpressure: as long as the subscriber did not request any element, the shard threads wait and so stop reading their socket
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <CLASS_TYPE>
+ * @param <BEAN_TYPE>
+ */
+public abstract class AbstractShardedStreamingCall<CLASS_TYPE extends AbstractShardedStreamingCall, BEAN_TYPE extends GenericTwitterBean> {
+    
+    protected static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    protected static final Logger LOGGER = LoggerSingleton.getInstance().getLogger(AbstractShardedStreamingCall.class);
+    
+    protected final List<AbstractStreamingCall<?, BEAN_TYPE>> shards;
+    
+    private final AtomicLong duplicateCount;
+    
+    /**
+     * 
+     * @param shards : the streaming calls to merge
+     */
+    public AbstractShardedStreamingCall(List<? extends AbstractStreamingCall<?, BEAN_TYPE>> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.duplicateCount = new AtomicLong();
+    }
+    
+    public List<AbstractStreamingCall<?, BEAN_TYPE>> getShards() {
+        return shards;
+    }
+    
+    /**
+     * 
+     * @return the number of elements received by several shards, and delivered only once
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+    
+    /**
+     * This is a chaining method to add a new parameter to every shard
+     * 
+     * @param key
+     * @param value
+     * @return an instance of AbstractShardedStreamingCall
+     */
+    public final CLASS_TYPE addParameter(String key, String value) {
+        for (AbstractStreamingCall<?, BEAN_TYPE> shard : shards) {
+            shard.addParameter(key, value);
+        }
+        return (CLASS_TYPE) this;
+    }
+    
+    /**
+     * Cf. AbstractStreamingCall.executeStreamingRequest()
+     * 
+     * The merged stream completes when every shard is completed, and fails as soon as one shard fails
+     * 
+     * @param subscriber : receives the elements of all the shards
+     * @throws TwitterAuthenticationException 
+     */
+    public void executeStreamingRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) throws TwitterAuthenticationException {
+        executeRequest(subscriber, false);
+    }
+    
+    /**
+     * Cf. AbstractStreamingCall.executeSupervisedStreamingRequest()
+     * 
+     * Every shard reconnects on its own: a lost connection does not stop the other shards
+     * 
+     * @param subscriber : receives the elements of all the shards
+     * @throws TwitterAuthenticationException 
+     */
+    public void executeSupervisedStreamingRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) throws TwitterAuthenticationException {
+        executeRequest(subscriber, true);
+    }
+    
+    /**
+     * Runs every shard on the streaming executor and waits until all of them are stopped
+     * 
+     * @param subscriber : receives the elements of all the shards
+     * @param isSupervised : if true, the shards reconnect until the subscriber cancels
+     * @throws TwitterAuthenticationException 
+     */
+    private void executeRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, boolean isSupervised) throws TwitterAuthenticationException {
+        
+        Merger merger = new Merger(subscriber);
+        
+        subscriber.onSubscribe(merger.subscription);
+        
+        ExecutorService streamingExecutorService = ExecutorSingleton.getInstance().getStreamingExecutorService();
+        List<ShardSubscriber> shardSubscribers = new ArrayList<>(shards.size());
+        List<Future<?>> shardFutures = new ArrayList<>(shards.size());
+        
+        // Every shard is counted before the first one starts: a shard which stops at once must not complete the merged stream
+        for (int i = 0; i < shards.size(); i++) {
+            shardSubscribers.add(merger.newShardSubscriber());
+        }
+        
+        LOGGER.log(Level.INFO, "Streaming with {0} shards", shards.size());
+        
+        for (int i = 0; i < shards.size(); i++) {
+            AbstractStreamingCall<?, BEAN_TYPE> shard = shards.get(i);
+            ShardSubscriber shardSubscriber = shardSubscribers.get(i);
+            
+            shardFutures.add(streamingExecutorService.submit(() -> {
+                try {
+                    if (isSupervised) {
+                        shard.executeSupervisedStreamingRequest(shardSubscriber);
+                    }
+                    else {
+                        shard.executeStreamingRequest(shardSubscriber);
+                    }
+                } catch (TwitterAuthenticationException e) {
+                    merger.authenticationError = e;
+                    merger.subscription.cancel();
+                } finally {
+                    // A shard stopped without calling onComplete() or onError() (ex. cancelled) must not block the others
+                    shardSubscriber.onComplete();
+                }
+            }));
+        }
+        
+        try {
+            for (Future<?> shardFuture : shardFutures) {
+                try {
+                    shardFuture.get();
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.SEVERE, "A shard stopped unexpectedly", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            merger.subscription.cancel();
+        }
+        
+        if (merger.authenticationError != null) {
+            throw merger.authenticationError;
+        }
+    }
+    
+    /**
+     * Receives the elements of all the shards and delivers them, de-duplicated, to the subscriber
+     */
+    private class Merger {
+        
+        private final InterfaceStreamingSubscriber<BEAN_TYPE> subscriber;
+        private final StreamingSubscription subscription;
+        private final List<StreamingSubscription> shardSubscriptions;
+        private final AtomicInteger runningShards;
+        
+        // Both protected by the Merger lock
+        private final InterfaceIdSet deliveredIds;
+        private boolean terminated;
+        
+        private volatile TwitterAuthenticationException authenticationError;
+        
+        Merger(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) {
+            this.subscriber = subscriber;
+            this.subscription = new StreamingSubscription();
+            this.shardSubscriptions = Collections.synchronizedList(new ArrayList<>());
+            this.runningShards = new AtomicInteger();
+            this.deliveredIds = new RecentWindowIdSet(PROPERTY_SINGLETON.getInteger("twitter.streaming.deduplicationWindow"));
+            this.terminated = false;
+            
+            // Cancelling the merged stream closes the connections of all the shards
+            this.subscription.setOnCancel(() -> {
+                synchronized (shardSubscriptions) {
+                    for (StreamingSubscription shardSubscription : shardSubscriptions) {
+                        shardSubscription.cancel();
+                    }
+                }
+            });
+        }
+        
+        ShardSubscriber newShardSubscriber() {
+            runningShards.incrementAndGet();
+            return new ShardSubscriber(this);
+        }
+        
+        void subscribe(StreamingSubscription shardSubscription) {
+            shardSubscriptions.add(shardSubscription);
+            
+            if (subscription.isCancelled()) {
+                shardSubscription.cancel();
+            }
+            else {
+                // The demand of the subscriber is checked by deliver(): a shard thread waits there, not on its socket
+                shardSubscription.request(Long.MAX_VALUE);
+            }
+        }
+        
+        void deliver(BEAN_TYPE bean) {
+            // The demand is awaited without the lock: meanwhile, the other shards can still fail or complete the merged stream
+            while (subscription.awaitDemand()) {
+                synchronized (this) {
+                    if (terminated) {
+                        return;
+                    }
+                    
+                    // Another shard took the last requested element: wait again
+                    if (subscription.getDemand() == 0) {
+                        continue;
+                    }
+                    
+                    if (!deliveredIds.add(bean.getId())) {
+                        duplicateCount.incrementAndGet();
+                        return;
+                    }
+                    
+                    subscription.consume();
+                    subscriber.onNext(bean);
+                    return;
+                }
+            }
+        }
+        
+        synchronized void fail(TwitterRequestException e) {
+            if (terminated) {
+                return;
+            }
+            
+            terminated = true;
+            subscriber.onError(e);
+            subscription.cancel();
+        }
+        
+        void complete() {
+            if (runningShards.decrementAndGet() > 0) {
+                return;
+            }
+            
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                
+                terminated = true;
+                
+                if (!subscription.isCancelled()) {
+                    subscriber.onComplete();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Forwards the elements of one shard to the Merger
+     */
+    private class ShardSubscriber implements InterfaceStreamingSubscriber<BEAN_TYPE> {
+        
+        private final Merger merger;
+        private boolean completed;
+        
+        ShardSubscriber(Merger merger) {
+            this.merger = merger;
+            this.completed = false;
+        }
+
+        @Override
+        public void onSubscribe(StreamingSubscription subscription) {
+            merger.subscribe(subscription);
+        }
+
+        @Override
+        public void onNext(BEAN_TYPE bean) {
+            merger.deliver(bean);
+        }
+
+        @Override
+        public void onError(TwitterRequestException e) {
+            merger.fail(e);
+        }
+
+        @Override
+        public void onComplete() {
+            // Called by the shard, and again when its thread stops
+            if (!completed) {
+                completed = true;
+                merger.complete();
+            }
+        }
+    }
+}
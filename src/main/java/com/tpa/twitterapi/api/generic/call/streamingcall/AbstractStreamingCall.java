@@ -15,21 +15,31 @@
  */
 package com.tpa.twitterapi.api.generic.call.streamingcall;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
 import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
 import com.tpa.twitterapi.api.generic.call.AbstractCall;
 import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
 import com.tpa.twitterapi.exception.TwitterAuthenticationException;
 import com.tpa.twitterapi.exception.TwitterRequestException;
-import java.io.BufferedReader;
+import com.tpa.twitterapi.tools.collection.InterfaceIdSet;
+import com.tpa.twitterapi.tools.collection.RecentWindowIdSet;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 /**
@@ -37,12 +47,36 @@ import java.util.logging.Level;
  * 
  * You have to implement the InterfaceStreamingCall to implement the executeListRequest() method
  * 
+ * Elements can be buffered into a list (executeListRequest()) or pushed one by one to a subscriber (executeStreamingRequest())
+ * 
+ * For long-running streams, executeSupervisedStreamingRequest() reconnects automatically (cf. getStreamingMetrics())
+ * 
+ * For long list requests, the elements can be spilled off heap (cf. executeSpilledListRequest())
+ * 
  * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
  * @param <CLASS_TYPE>
  * @param <BEAN_TYPE>
  */
 public abstract class AbstractStreamingCall<CLASS_TYPE extends AbstractCall, BEAN_TYPE extends GenericTwitterBean> extends AbstractCall<CLASS_TYPE, BEAN_TYPE> implements InterfaceStreamingCall<CLASS_TYPE, BEAN_TYPE> {
     
+    private final StreamingMessageParser<BEAN_TYPE> streamingMessageParser;
+    private final StreamingMetrics streamingMetrics;
+    private final int stallTimeoutInMillis;
+    private int parseWorkerCount;
+    private final int parseQueueCapacity;
+    
+    // Used by executeSpilledListRequest(), cf. StreamingSpillList
+    private final int spillSegmentSize;
+    private final Path spillDirectory;
+    
+    // Applied to the raw messages before parsing, null to parse every message
+    private volatile InterfaceMessageFilter messageFilter;
+    // Called before every delivery, null to deliver the elements as parsed
+    private volatile InterfaceBeanInterceptor<? super BEAN_TYPE> beanInterceptor;
+    
+    // The queue of the current connection, if the messages are parsed by workers
+    private volatile BlockingQueue<StreamingParseTask<BEAN_TYPE>> currentParseQueue;
+    
     private Long endTime;
     private Integer delayInSeconds;
     private Integer sizeLimit;
@@ -58,9 +92,19 @@ public abstract class AbstractStreamingCall<CLASS_TYPE extends AbstractCall, BEA
     public AbstractStreamingCall(Class<BEAN_TYPE> genericTwitterBeanType, TwitterAuthenticator twitterAuthenticator, String url, Integer delayInSeconds, Integer sizeLimit) {
         super(genericTwitterBeanType, twitterAuthenticator, url);
         
+        this.streamingMessageParser = new StreamingMessageParser<>(genericTwitterBeanType, PROPERTY_SINGLETON.getBoolean("twitter.streaming.lazyStatuses"));
+        this.streamingMetrics = new StreamingMetrics();
+        this.stallTimeoutInMillis = PROPERTY_SINGLETON.getInteger("twitter.streaming.stallTimeoutInSeconds") * 1000;
+        this.parseWorkerCount = PROPERTY_SINGLETON.getInteger("twitter.streaming.parseWorkers");
+        this.parseQueueCapacity = PROPERTY_SINGLETON.getInteger("twitter.streaming.parseQueueCapacity");
+        this.spillSegmentSize = PROPERTY_SINGLETON.getInteger("twitter.streaming.spill.segmentSizeInMB") * 1024 * 1024;
+        
+        String spillDirectoryName = PROPERTY_SINGLETON.getProperty("twitter.streaming.spill.directory");
+        this.spillDirectory = Paths.get(spillDirectoryName == null || spillDirectoryName.isEmpty() ? System.getProperty("java.io.tmpdir") : spillDirectoryName);
+        
         if (delayInSeconds == null) {
-            delayInSeconds = PROPERTY_SINGLETON.getInteger("twitter.default.delayInSeconds");
-            LOGGER.log(Level.INFO, "Call will be executed during the default duration: {0} seconds", delayInSeconds);
+            this.delayInSeconds = PROPERTY_SINGLETON.getInteger("twitter.default.delayInSeconds");
+            LOGGER.log(Level.INFO, "Call will be executed during the default duration: {0} seconds", this.delayInSeconds);
         }
         else {
             this.delayInSeconds = delayInSeconds;
@@ -68,8 +112,8 @@ public abstract class AbstractStreamingCall<CLASS_TYPE extends AbstractCall, BEA
         }
         
         if (sizeLimit == null) {
-            sizeLimit = PROPERTY_SINGLETON.getInteger("twitter.default.sizeLimit");
-            LOGGER.log(Level.INFO, "Or call will be executed until the default number of {0} elements are reached", sizeLimit);
+            this.sizeLimit = PROPERTY_SINGLETON.getInteger("twitter.default.sizeLimit");
+            LOGGER.log(Level.INFO, "Or call will be executed until the default number of {0} elements are reached", this.sizeLimit);
         }
         else {
             this.sizeLimit = sizeLimit;
@@ -117,63 +161,645 @@ public abstract class AbstractStreamingCall<CLASS_TYPE extends AbstractCall, BEA
     @Override
     public List<BEAN_TYPE> executeListRequest() throws TwitterAuthenticationException, TwitterRequestException {
         
-        HttpResponse httpResponse = null;
-        InputStream inputStream = null;
-        BufferedReader bufferedReader = null;
+        ListSubscriber listSubscriber = new ListSubscriber();
+        executeListRequest(listSubscriber);
+        
+        return listSubscriber.genericApiResults;
+    }
+    
+    /**
+     * Same as executeListRequest(), but only the first elements are kept on heap:
+     * the raw messages of the next ones are appended to memory-mapped files, and parsed again when they are read (cf. StreamingSpillList)
+     * 
+     * The files are configured by twitter.streaming.spill.segmentSizeInMB and twitter.streaming.spill.directory
+     * 
+     * The returned list holds the files until it is closed: use it in a try-with-resources
+     * 
+     * @param heapThreshold : the number of elements kept on heap
+     * @return the list of elements converted from the generic BEAN_TYPE
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException 
+     */
+    public StreamingSpillList<BEAN_TYPE> executeSpilledListRequest(int heapThreshold) throws TwitterAuthenticationException, TwitterRequestException {
         
-        ObjectMapper mapper = new ObjectMapper();
-        List<BEAN_TYPE> genericApiResults = new ArrayList<>();
+        SpillListSubscriber spillListSubscriber = new SpillListSubscriber(new StreamingSpillList<>(streamingMessageParser, heapThreshold, spillSegmentSize, spillDirectory));
         
         try {
+            executeListRequest(spillListSubscriber);
+        } catch (TwitterAuthenticationException | TwitterRequestException | RuntimeException e) {
+            spillListSubscriber.closeSpillList();
+            throw e;
+        }
+        
+        return spillListSubscriber.spillList;
+    }
+    
+    /**
+     * 
+     * @param listSubscriber : buffers the elements
+     * @throws TwitterAuthenticationException
+     * @throws TwitterRequestException 
+     */
+    private void executeListRequest(AbstractListSubscriber listSubscriber) throws TwitterAuthenticationException, TwitterRequestException {
+        
+        // The end time is defined at the first read line
+        endTime = null;
+        executeRequest(listSubscriber, true, false);
+        
+        if (listSubscriber.error != null) {
+            throw listSubscriber.error;
+        }
+        
+        LOGGER.log(Level.INFO, "Result retrieved and list created with {0} elements", listSubscriber.size());
+    }
+    
+    /**
+     * Defined in the InterfaceStreamingCall
+     * 
+     * Call the default URL and push every element to the subscriber as soon as its line is parsed
+     * 
+     * The delay and the max number of elements are not used: the subscriber decides when to stop
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @throws TwitterAuthenticationException 
+     */
+    @Override
+    public void executeStreamingRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) throws TwitterAuthenticationException {
+        executeRequest(subscriber, false, false);
+    }
+    
+    /**
+     * Defined in the InterfaceStreamingCall
+     * 
+     * Same as executeStreamingRequest(), but the stream is reconnected (cf. StreamingBackoff) when:
+     * 
+     * - the connection is lost or closed by Twitter
+     * - nothing, not even a keep-alive, was received during the stall timeout (cf. twitter.streaming.stallTimeoutInSeconds)
+     * - Twitter answers with a temporary HTTP error
+     * 
+     * Elements received again after a reconnection are not delivered twice (cf. twitter.streaming.deduplicationWindow)
+     * 
+     * Only the subscriber or a fatal HTTP error (ex. 401) stops the stream
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @throws TwitterAuthenticationException 
+     */
+    @Override
+    public void executeSupervisedStreamingRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) throws TwitterAuthenticationException {
+        executeRequest(subscriber, false, true);
+    }
+    
+    /**
+     * 
+     * @return the counters of the connections of this call (reconnections, stalls, duplicates, reconnect latency)
+     */
+    public StreamingMetrics getStreamingMetrics() {
+        return streamingMetrics;
+    }
+    
+    /**
+     * Connects to the stream and reads it, and reconnects if the call is supervised
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @param isDelayLimited : if true, the stream is closed once the delay is reached
+     * @param isSupervised : if true, the stream is reconnected until the subscriber cancels
+     * @throws TwitterAuthenticationException 
+     */
+    private void executeRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, boolean isDelayLimited, boolean isSupervised) throws TwitterAuthenticationException {
+        
+        StreamingSubscription subscription = new StreamingSubscription();
+        StreamingBackoff streamingBackoff = new StreamingBackoff();
+        InterfaceIdSet deliveredIds = isSupervised ? new RecentWindowIdSet(PROPERTY_SINGLETON.getInteger("twitter.streaming.deduplicationWindow")) : null;
+        
+        // 0 until the first disconnection
+        long disconnectionTime = 0;
+        
+        subscriber.onSubscribe(subscription);
+        
+        while (!subscription.isCancelled()) {
+            
+            HttpResponse httpResponse = null;
+            long reconnectDelayInMillis;
             
-            GenericUrl genericUrl = new GenericUrl(url);
-            genericUrl.setUnknownKeys(parameters);
+            try {
+                httpResponse = connect();
+                
+                if (disconnectionTime == 0) {
+                    streamingMetrics.recordConnection();
+                }
+                else {
+                    streamingMetrics.recordReconnection(System.nanoTime() - disconnectionTime);
+                    LOGGER.log(Level.INFO, "Stream reconnected: {0}", streamingMetrics);
+                }
+                streamingBackoff.reset();
+                
+                if (readStream(httpResponse, subscriber, subscription, isDelayLimited, deliveredIds) || !isSupervised) {
+                    if (!subscription.isCancelled()) {
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                
+                LOGGER.warning("Stream was closed by Twitter");
+                reconnectDelayInMillis = streamingBackoff.nextDelayInMillis(StreamingBackoff.ErrorType.NETWORK);
+            } catch (HttpResponseException e) {
+                if (!isSupervised || StreamingBackoff.isFatal(e.getStatusCode())) {
+                    subscriber.onError(new TwitterRequestException("Request could not be executed:", e));
+                    return;
+                }
+                
+                LOGGER.log(Level.WARNING, "Stream could not be opened, status code: {0}", e.getStatusCode());
+                reconnectDelayInMillis = streamingBackoff.nextDelayInMillis(StreamingBackoff.isRateLimited(e.getStatusCode()) ? StreamingBackoff.ErrorType.RATE_LIMIT : StreamingBackoff.ErrorType.HTTP);
+            } catch (IOException e) {
+                // Closing the connection on cancel makes the blocked reading fail: this is not an error
+                if (subscription.isCancelled()) {
+                    LOGGER.info("Stream was cancelled by the subscriber");
+                    return;
+                }
+                
+                if (!isSupervised) {
+                    subscriber.onError(new TwitterRequestException("Request could not be executed:", e));
+                    return;
+                }
+                
+                if (e instanceof SocketTimeoutException) {
+                    streamingMetrics.recordStall();
+                    LOGGER.warning("Stream stalled: nothing was received during the stall timeout");
+                }
+                else {
+                    LOGGER.log(Level.WARNING, "Stream was disconnected: {0}", e.getMessage());
+                }
+                reconnectDelayInMillis = streamingBackoff.nextDelayInMillis(StreamingBackoff.ErrorType.NETWORK);
+            } finally {
+                subscription.setOnCancel(null);
+                
+                if (httpResponse != null) {
+                    disconnect(httpResponse);
+                }
+            }
             
-            HttpRequest request = twitterAuthenticator.getHttpRequestFactory().buildGetRequest(genericUrl);
-            httpResponse = request.execute();
+            disconnectionTime = System.nanoTime();
+            LOGGER.log(Level.INFO, "Stream will be reconnected in {0} ms", reconnectDelayInMillis);
             
-            LOGGER.log(Level.INFO, "Request: {0} is streaming with status code: {1}", new Object[]{request.getUrl().toString(), httpResponse.getStatusCode()});
-            inputStream = httpResponse.getContent();
+            if (subscription.awaitCancel(reconnectDelayInMillis)) {
+                LOGGER.info("Stream was cancelled by the subscriber");
+            }
+        }
+    }
+    
+    /**
+     * Opens the stream
+     * 
+     * The read timeout is the stall timeout: a stream where nothing is received during this delay is considered as lost
+     * 
+     * @return the HttpResponse of the stream
+     * @throws TwitterAuthenticationException
+     * @throws IOException 
+     */
+    private HttpResponse connect() throws TwitterAuthenticationException, IOException {
+        
+        GenericUrl genericUrl = new GenericUrl(url);
+        genericUrl.setUnknownKeys(parameters);
+        
+        HttpRequest request = twitterAuthenticator.getHttpRequestFactory().buildGetRequest(genericUrl);
+        request.setReadTimeout(stallTimeoutInMillis);
+        
+        HttpResponse httpResponse = request.execute();
+        
+        TWITTER_LOGGER.log(Level.INFO, "Request: {0} is streaming with status code: {1}", request.getUrl(), httpResponse.getStatusCode());
+        
+        return httpResponse;
+    }
+    
+    /**
+     * Reads the stream message by message
+     * 
+     * Messages are parsed directly from the bytes of the stream, with the shared StreamingMessageParser
+     * 
+     * The reading thread waits as long as the subscriber did not request any element
+     * 
+     * If parsing workers are configured (cf. twitter.streaming.parseWorkers), the messages are parsed by the workers instead
+     * 
+     * @param httpResponse : the opened stream
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @param subscription : the subscription of the subscriber
+     * @param isDelayLimited : if true, the stream is closed once the delay is reached
+     * @param deliveredIds : the IDs of the elements already delivered, null if duplicates are not checked
+     * @return true if the reading was stopped by the subscriber or the delay | false at the end of the stream
+     * @throws IOException 
+     */
+    private boolean readStream(HttpResponse httpResponse, InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, StreamingSubscription subscription, boolean isDelayLimited, InterfaceIdSet deliveredIds) throws IOException {
+        
+        try (StreamingMessageReader streamingMessageReader = new StreamingMessageReader(httpResponse.getContent())) {
             
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
+            // If the subscription is cancelled by another thread, we close the connection to unblock the reading
+            subscription.setOnCancel(() -> disconnect(httpResponse));
             
-            String line;
+            if (parseWorkerCount > 0) {
+                return readStreamWithParseWorkers(streamingMessageReader, subscriber, subscription, isDelayLimited, deliveredIds);
+            }
             
-            // We iterate on the stream lines until the time is reached or until we get the max number of elements
-            while ((line = bufferedReader.readLine()) != null
-                    && !isDelayReached()
-                    && genericApiResults.size() < sizeLimit) {
+            // We iterate on the stream messages until the subscriber cancels or until the time is reached
+            while (subscription.awaitDemand()) {
+                
+                if (!streamingMessageReader.nextMessage()) {
+                    return false;
+                }
+                
+                if (isDelayLimited && isDelayReached()) {
+                    return true;
+                }
+                
+                // Empty line: this is only a keep-alive signal
+                if (streamingMessageReader.isKeepAlive()) {
+                    continue;
+                }
                 
                 try {
-                    BEAN_TYPE currentApiResult = mapper.readValue(line, GENERIC_BEAN_TYPE);
+                    BEAN_TYPE currentApiResult = parse(streamingMessageReader.getBuffer(), streamingMessageReader.getOffset(), streamingMessageReader.getLength());
+                    deliver(currentApiResult, streamingMessageReader.getBuffer(), streamingMessageReader.getOffset(), streamingMessageReader.getLength(), subscriber, subscription, deliveredIds);
+                }
+                catch(Exception e) {
+                    logUnparsedMessage(streamingMessageReader.getBuffer(), streamingMessageReader.getOffset(), streamingMessageReader.getLength(), e);
+                }
+            }
+            
+            return true;
+        }
+    }
+    
+    /**
+     * Pipelined version of readStream():
+     * 
+     * - a reading thread only frames the messages, and queues them in a bounded queue (cf. twitter.streaming.parseQueueCapacity)
+     * - the parsing workers parse the queued messages at the same time
+     * - the current thread delivers the parsed elements to the subscriber, in the order of the stream
+     * 
+     * So a slow parsing or a slow subscriber does not stop the reading of the socket, until the queue is full
+     * 
+     * @param streamingMessageReader : the reader of the opened stream
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @param subscription : the subscription of the subscriber
+     * @param isDelayLimited : if true, the stream is closed once the delay is reached
+     * @param deliveredIds : the IDs of the elements already delivered, null if duplicates are not checked
+     * @return true if the reading was stopped by the subscriber or the delay | false at the end of the stream
+     * @throws IOException 
+     */
+    private boolean readStreamWithParseWorkers(StreamingMessageReader streamingMessageReader, InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, StreamingSubscription subscription, boolean isDelayLimited, InterfaceIdSet deliveredIds) throws IOException {
+        
+        // Messages are queued in the order of the stream, before being parsed: the queue gives the order of the delivery
+        BlockingQueue<StreamingParseTask<BEAN_TYPE>> parseQueue = new ArrayBlockingQueue<>(parseQueueCapacity);
+        AtomicReference<IOException> readError = new AtomicReference<>();
+        
+        AtomicInteger parseWorkerIndex = new AtomicInteger();
+        ExecutorService parseWorkers = Executors.newFixedThreadPool(parseWorkerCount, runnable -> {
+            Thread thread = new Thread(runnable, "twitter-streaming-parser-" + parseWorkerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Thread readingThread = new Thread(() -> {
+            try {
+                while (streamingMessageReader.nextMessage()) {
                     
-                    if (currentApiResult.isValid()) {
-                        genericApiResults.add(currentApiResult);
-                        LOGGER.log(Level.INFO, "A line was parsed: {0}", line);
+                    // Empty line: this is only a keep-alive signal
+                    if (streamingMessageReader.isKeepAlive()) {
+                        continue;
                     }
-                    else {
-                        LOGGER.log(Level.CONFIG, "A line was parsed but did not contain all the required properties: {0}", line);
+                    
+                    byte[] message = streamingMessageReader.copyMessage();
+                    StreamingParseTask<BEAN_TYPE> parseTask = new StreamingParseTask<>(() -> parse(message, 0, message.length), message);
+                    parseQueue.put(parseTask);
+                    parseWorkers.execute(parseTask);
+                    
+                    streamingMetrics.recordParseQueueDepth(parseQueue.size());
+                }
+            } catch (IOException e) {
+                readError.set(e);
+            } catch (InterruptedException e) {
+                // Stopped by the delivering thread
+                return;
+            }
+            
+            try {
+                parseQueue.put(new StreamingParseTask<>());
+            } catch (InterruptedException e) {
+                // Stopped by the delivering thread
+            }
+        }, "twitter-streaming-reader");
+        
+        readingThread.setDaemon(true);
+        currentParseQueue = parseQueue;
+        readingThread.start();
+        
+        try {
+            
+            while (subscription.awaitDemand()) {
+                
+                StreamingParseTask<BEAN_TYPE> parseTask = parseQueue.take();
+                
+                if (parseTask.isEndOfStream()) {
+                    if (readError.get() != null) {
+                        throw readError.get();
                     }
+                    return false;
                 }
-                catch(Exception e) {
-                    LOGGER.log(Level.INFO, "A line appeared but could not be parsed:" + line, e);
+                
+                if (isDelayLimited && isDelayReached()) {
+                    return true;
+                }
+                
+                byte[] message = parseTask.getMessage();
+                
+                try {
+                    deliver(parseTask.get(), message, 0, message.length, subscriber, subscription, deliveredIds);
+                }
+                catch(ExecutionException e) {
+                    logUnparsedMessage(message, 0, message.length, e.getCause());
                 }
             }
-
-            LOGGER.log(Level.INFO, "Result retrieved and list created with {0} elements", genericApiResults.size());
+            
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscription.cancel();
+            return true;
+        } finally {
+            currentParseQueue = null;
+            
+            // The reading thread may wait for space in the queue, and the workers may still parse messages which will never be delivered
+            readingThread.interrupt();
+            parseWorkers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Parses a message, if it is accepted by the message filter
+     * 
+     * @param buffer : the buffer of the message
+     * @param offset : the position of the message in the buffer
+     * @param length : the length of the message
+     * @return the parsed element | null if the message was rejected
+     * @throws IOException if the message is not a valid JSON object of the BEAN_TYPE
+     */
+    private BEAN_TYPE parse(byte[] buffer, int offset, int length) throws IOException {
+        InterfaceMessageFilter currentMessageFilter = messageFilter;
+        
+        if (currentMessageFilter != null) {
+            boolean accepted = currentMessageFilter.accept(buffer, offset, length);
+            streamingMetrics.recordFilteredMessage(accepted);
+            
+            if (!accepted) {
+                return null;
+            }
+        }
+        
+        return streamingMessageParser.parse(buffer, offset, length);
+    }
+    
+    /**
+     * Delivers a parsed element to the subscriber, if it is valid (and not a duplicate)
+     * 
+     * @param currentApiResult : the parsed element, null if it was rejected by the message filter
+     * @param buffer : the buffer of the message, used for logging and by an InterfaceRawMessageSubscriber
+     * @param offset : the position of the message in the buffer
+     * @param length : the length of the message
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @param subscription : the subscription of the subscriber
+     * @param deliveredIds : the IDs of the elements already delivered, null if duplicates are not checked
+     */
+    private void deliver(BEAN_TYPE currentApiResult, byte[] buffer, int offset, int length, InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, StreamingSubscription subscription, InterfaceIdSet deliveredIds) {
+        
+        if (currentApiResult == null) {
+            return;
+        }
+        
+        if (!currentApiResult.isValid()) {
+            if (TWITTER_LOGGER.isLoggable(Level.CONFIG, messageLogSampler)) {
+                TWITTER_LOGGER.log(Level.CONFIG, "A line was parsed but did not contain all the required properties (1 line logged every {1}): {0}", getMessage(buffer, offset, length), messageLogSampler.getRate());
+            }
+        }
+        else if (deliveredIds != null && !deliveredIds.add(currentApiResult.getId())) {
+            streamingMetrics.recordDuplicate();
+        }
+        else {
+            // The message is decoded into a String only if it is really logged
+            if (TWITTER_LOGGER.isLoggable(Level.INFO, messageLogSampler)) {
+                TWITTER_LOGGER.log(Level.INFO, "A line was parsed (1 line logged every {1}): {0}", getMessage(buffer, offset, length), messageLogSampler.getRate());
+            }
+            InterfaceBeanInterceptor<? super BEAN_TYPE> currentBeanInterceptor = beanInterceptor;
+            if (currentBeanInterceptor != null) {
+                currentBeanInterceptor.intercept(currentApiResult);
+            }
+            
+            subscription.consume();
+            
+            if (subscriber instanceof InterfaceRawMessageSubscriber) {
+                ((InterfaceRawMessageSubscriber<BEAN_TYPE>) subscriber).onNext(currentApiResult, buffer, offset, length);
+            }
+            else {
+                subscriber.onNext(currentApiResult);
+            }
+        }
+    }
+    
+    /**
+     * 
+     * @param buffer : the buffer of the message
+     * @param offset : the position of the message in the buffer
+     * @param length : the length of the message
+     * @param e : the parsing error
+     */
+    private void logUnparsedMessage(byte[] buffer, int offset, int length, Throwable e) {
+        if (TWITTER_LOGGER.isLoggable(Level.INFO, messageLogSampler)) {
+            TWITTER_LOGGER.log(Level.INFO, "A line appeared but could not be parsed:" + getMessage(buffer, offset, length), e);
+        }
+    }
+    
+    /**
+     * Decodes a message, only used for logging
+     * 
+     * @param buffer : the buffer of the message
+     * @param offset : the position of the message in the buffer
+     * @param length : the length of the message
+     * @return the message as a String
+     */
+    private String getMessage(byte[] buffer, int offset, int length) {
+        return new String(buffer, offset, length, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * This is a chaining method to change the number of parsing workers (cf. twitter.streaming.parseWorkers)
+     * 
+     * @param parseWorkerCount : 0 to read and parse the messages on the same thread
+     * @return an instance of AbstractStreamingCall
+     */
+    public final CLASS_TYPE setParseWorkerCount(int parseWorkerCount) {
+        if (parseWorkerCount < 0) {
+            throw new IllegalArgumentException("The number of parsing workers can not be negative: " + parseWorkerCount);
+        }
+        
+        this.parseWorkerCount = parseWorkerCount;
+        return (CLASS_TYPE) this;
+    }
+    
+    /**
+     * This is a chaining method to skip messages before they are parsed (cf. StreamingMessageFilter)
+     * 
+     * The accepted and rejected messages are counted in the StreamingMetrics
+     * 
+     * @param messageFilter : the filter of the raw messages, null to parse every message
+     * @return an instance of AbstractStreamingCall
+     */
+    public final CLASS_TYPE setMessageFilter(InterfaceMessageFilter messageFilter) {
+        this.messageFilter = messageFilter;
+        return (CLASS_TYPE) this;
+    }
+    
+    /**
+     * This is a chaining method to complete or change every element just before it is delivered
+     * 
+     * For ex. a TwitterAuthorRegistry, to replace the author of every delivered status with a canonical author
+     * 
+     * @param beanInterceptor : the interceptor of the delivered elements, null to deliver the elements as parsed
+     * @return an instance of AbstractStreamingCall
+     */
+    public final CLASS_TYPE setBeanInterceptor(InterfaceBeanInterceptor<? super BEAN_TYPE> beanInterceptor) {
+        this.beanInterceptor = beanInterceptor;
+        return (CLASS_TYPE) this;
+    }
+    
+    /**
+     * 
+     * @return the number of messages waiting to be parsed or delivered (0 if the messages are not parsed by workers)
+     */
+    public int getParseQueueDepth() {
+        BlockingQueue<?> parseQueue = currentParseQueue;
+        return parseQueue == null ? 0 : parseQueue.size();
+    }
+    
+    /**
+     * Closes the connection, used to unblock a reading thread
+     * 
+     * @param httpResponse 
+     */
+    private void disconnect(HttpResponse httpResponse) {
+        try {
+            httpResponse.disconnect();
         } catch (IOException e) {
-            throw new TwitterRequestException("Request could not be executed:", e);
+            LOGGER.log(Level.FINE, "Connection could not be closed", e);
         }
-        finally {
-            if (bufferedReader != null) {
-                try {
-                    bufferedReader.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+    }
+    
+    /**
+     * Used by executeListRequest() and executeSpilledListRequest() to buffer the elements until the max number of elements is obtained
+     */
+    private abstract class AbstractListSubscriber implements InterfaceStreamingSubscriber<BEAN_TYPE> {
+        
+        protected StreamingSubscription subscription;
+        protected TwitterRequestException error;
+
+        @Override
+        public void onSubscribe(StreamingSubscription subscription) {
+            this.subscription = subscription;
+            
+            if (sizeLimit > 0) {
+                subscription.request(sizeLimit);
+            }
+            else {
+                subscription.cancel();
             }
         }
+
+        @Override
+        public void onError(TwitterRequestException e) {
+            this.error = e;
+        }
+
+        @Override
+        public void onComplete() {
+        }
         
-        return genericApiResults;
+        /**
+         * 
+         * @return the number of buffered elements
+         */
+        protected abstract int size();
+        
+        /**
+         * Cancels the stream once the max number of elements is obtained
+         */
+        protected void checkSizeLimit() {
+            if (size() >= sizeLimit) {
+                subscription.cancel();
+            }
+        }
+    }
+    
+    /**
+     * Used by executeListRequest(): the elements are kept on heap
+     */
+    private class ListSubscriber extends AbstractListSubscriber {
+        
+        private final List<BEAN_TYPE> genericApiResults = new ArrayList<>();
+
+        @Override
+        public void onNext(BEAN_TYPE bean) {
+            genericApiResults.add(bean);
+            checkSizeLimit();
+        }
+
+        @Override
+        protected int size() {
+            return genericApiResults.size();
+        }
+    }
+    
+    /**
+     * Used by executeSpilledListRequest(): the raw messages are given to the StreamingSpillList
+     */
+    private class SpillListSubscriber extends AbstractListSubscriber implements InterfaceRawMessageSubscriber<BEAN_TYPE> {
+        
+        private final StreamingSpillList<BEAN_TYPE> spillList;
+        
+        SpillListSubscriber(StreamingSpillList<BEAN_TYPE> spillList) {
+            this.spillList = spillList;
+        }
+
+        /**
+         * Never called by the streaming call, which gives the raw message (cf. InterfaceRawMessageSubscriber)
+         * 
+         * @param bean 
+         */
+        @Override
+        public void onNext(BEAN_TYPE bean) {
+            throw new IllegalStateException("The raw message of the element is needed to spill it");
+        }
+
+        @Override
+        public void onNext(BEAN_TYPE bean, byte[] buffer, int offset, int length) {
+            try {
+                spillList.append(bean, buffer, offset, length);
+            } catch (IOException e) {
+                onError(new TwitterRequestException("Element could not be spilled:", e));
+                subscription.cancel();
+                return;
+            }
+            
+            checkSizeLimit();
+        }
+
+        @Override
+        protected int size() {
+            return spillList.size();
+        }
+        
+        void closeSpillList() {
+            try {
+                spillList.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Spill files could not be deleted", e);
+            }
+        }
     }
 }
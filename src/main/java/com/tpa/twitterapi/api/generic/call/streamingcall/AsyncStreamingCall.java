@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a blocking streaming call on an executor, used by the async methods of the InterfaceStreamingCall
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+final class AsyncStreamingCall {
+    
+    /**
+     * A blocking streaming call
+     * 
+     * @param <RESULT_TYPE>
+     */
+    @FunctionalInterface
+    interface BlockingCall<RESULT_TYPE> {
+        
+        public abstract RESULT_TYPE execute() throws TwitterAuthenticationException, TwitterRequestException;
+    }
+    
+    private AsyncStreamingCall() {
+    }
+    
+    /**
+     * 
+     * @param <RESULT_TYPE>
+     * @param blockingCall : the call to run
+     * @param future : completed with the result of the call, or with its error (it may also be completed by the call itself)
+     * @param executor : the executor running the blocking call
+     * @return the future
+     */
+    static <RESULT_TYPE> CompletableFuture<RESULT_TYPE> execute(BlockingCall<RESULT_TYPE> blockingCall, CompletableFuture<RESULT_TYPE> future, Executor executor) {
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(blockingCall.execute());
+                } catch (TwitterAuthenticationException | TwitterRequestException | RuntimeException | Error e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        
+        return future;
+    }
+}
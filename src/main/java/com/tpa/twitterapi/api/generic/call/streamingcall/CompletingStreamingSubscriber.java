@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Forwards the signals of a stream to a subscriber, and completes the future of the stream with its error
+ * 
+ * Used by the async methods of the InterfaceStreamingCall
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <BEAN_TYPE>
+ */
+final class CompletingStreamingSubscriber<BEAN_TYPE extends GenericTwitterBean> implements InterfaceStreamingSubscriber<BEAN_TYPE> {
+    
+    private final InterfaceStreamingSubscriber<BEAN_TYPE> subscriber;
+    private final CompletableFuture<Void> future;
+    
+    /**
+     * 
+     * @param subscriber : the subscriber of the stream
+     * @param future : completed with the error of the stream
+     */
+    CompletingStreamingSubscriber(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, CompletableFuture<Void> future) {
+        this.subscriber = subscriber;
+        this.future = future;
+    }
+
+    @Override
+    public void onSubscribe(StreamingSubscription subscription) {
+        subscriber.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(BEAN_TYPE bean) {
+        subscriber.onNext(bean);
+    }
+
+    @Override
+    public void onError(TwitterRequestException e) {
+        try {
+            subscriber.onError(e);
+        } finally {
+            future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        subscriber.onComplete();
+    }
+}
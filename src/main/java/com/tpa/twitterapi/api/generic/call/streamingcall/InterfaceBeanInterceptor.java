@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+
+/**
+ * Called with every streamed element, just before it is delivered to the subscriber (cf. AbstractStreamingCall.setBeanInterceptor())
+ * 
+ * Only valid elements, which are not duplicates, are intercepted: the interceptor can complete or change them (ex. TwitterAuthorRegistry)
+ * 
+ * The elements are intercepted by the delivering thread, in the order of the stream
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <BEAN_TYPE>
+ */
+@FunctionalInterface
+public interface InterfaceBeanInterceptor<BEAN_TYPE extends GenericTwitterBean> {
+    
+    /**
+     * 
+     * @param bean : the element which will be delivered
+     */
+    public abstract void intercept(BEAN_TYPE bean);
+}
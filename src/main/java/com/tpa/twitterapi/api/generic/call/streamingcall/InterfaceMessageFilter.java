@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+/**
+ * A filter applied to the raw streamed messages, before they are parsed (cf. AbstractStreamingCall.setMessageFilter())
+ * 
+ * A rejected message is never converted into a bean: the filter should only read what it needs in the bytes
+ * 
+ * With parsing workers (cf. twitter.streaming.parseWorkers), the filter is called by several threads: it must be thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+@FunctionalInterface
+public interface InterfaceMessageFilter {
+    
+    /**
+     * 
+     * @param buffer : the buffer of the message
+     * @param offset : the position of the message in the buffer
+     * @param length : the length of the message
+     * @return true to parse and deliver the message | false to skip it
+     */
+    public abstract boolean accept(byte[] buffer, int offset, int length);
+}
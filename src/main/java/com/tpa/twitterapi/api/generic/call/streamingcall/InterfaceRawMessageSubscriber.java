@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+
+/**
+ * A subscriber which also needs the raw message of every element (ex. to spill it, cf. StreamingSpillList)
+ *
+ * The streaming call calls onNext(bean, buffer, offset, length) instead of onNext(bean)
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <BEAN_TYPE>
+ */
+interface InterfaceRawMessageSubscriber<BEAN_TYPE extends GenericTwitterBean> extends InterfaceStreamingSubscriber<BEAN_TYPE> {
+
+    /**
+     * Called as soon as a new element is parsed
+     *
+     * The buffer is only valid during the call: the message must be copied to be kept
+     *
+     * @param bean : a valid element (cf. isValid())
+     * @param buffer : the buffer of the message
+     * @param offset : the position of the message in the buffer
+     * @param length : the length of the message
+     */
+    public abstract void onNext(BEAN_TYPE bean, byte[] buffer, int offset, int length);
+}
@@ -19,7 +19,10 @@ import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
 import com.tpa.twitterapi.api.generic.call.AbstractCall;
 import com.tpa.twitterapi.exception.TwitterAuthenticationException;
 import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.singleton.executor.ExecutorSingleton;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * This interface must be used for the streaming calls
@@ -39,4 +42,100 @@ public interface InterfaceStreamingCall<CLASS_TYPE extends AbstractCall, BEAN_TY
      * @throws TwitterRequestException 
      */
     public abstract List<BEAN_TYPE> executeListRequest() throws TwitterAuthenticationException, TwitterRequestException;    
+
+    /**
+     * You have to define this method to call the default URL
+     * and to push every element to the subscriber as soon as it is parsed
+     * 
+     * The stream is not limited by the delay or the max number of elements: it runs until the end of the HTTP stream
+     * or until the subscriber cancels its subscription
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @throws TwitterAuthenticationException 
+     */
+    public abstract void executeStreamingRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) throws TwitterAuthenticationException;
+
+    /**
+     * You have to define this method to call the default URL
+     * and to push every element to the subscriber, reconnecting the stream every time it is lost
+     * 
+     * The stream runs until the subscriber cancels its subscription (or until a fatal error)
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @throws TwitterAuthenticationException 
+     */
+    public abstract void executeSupervisedStreamingRequest(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) throws TwitterAuthenticationException;
+    
+    /**
+     * Same as executeListRequest(), on the streaming executor of the ExecutorSingleton (one thread per stream)
+     * 
+     * @return a future completed with the list of elements, or with the TwitterAuthenticationException / TwitterRequestException
+     */
+    public default CompletableFuture<List<BEAN_TYPE>> executeListRequestAsync() {
+        return executeListRequestAsync(ExecutorSingleton.getInstance().getStreamingExecutorService());
+    }
+    
+    /**
+     * Same as executeListRequest(), on the given executor
+     * 
+     * @param executor : the executor running the blocking reading
+     * @return a future completed with the list of elements, or with the TwitterAuthenticationException / TwitterRequestException
+     */
+    public default CompletableFuture<List<BEAN_TYPE>> executeListRequestAsync(Executor executor) {
+        return AsyncStreamingCall.execute(this::executeListRequest, new CompletableFuture<>(), executor);
+    }
+    
+    /**
+     * Same as executeStreamingRequest(), on the streaming executor of the ExecutorSingleton (one thread per stream)
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @return a future completed once the stream is ended (completed or cancelled), or with the error given to the subscriber
+     */
+    public default CompletableFuture<Void> executeStreamingRequestAsync(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) {
+        return executeStreamingRequestAsync(subscriber, ExecutorSingleton.getInstance().getStreamingExecutorService());
+    }
+    
+    /**
+     * Same as executeStreamingRequest(), on the given executor: the subscriber is called by a thread of the executor
+     * 
+     * NB: a stream keeps its thread until it ends, use an executor with enough threads (or virtual threads) for your streams
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @param executor : the executor running the blocking reading
+     * @return a future completed once the stream is ended (completed or cancelled), or with the error given to the subscriber
+     */
+    public default CompletableFuture<Void> executeStreamingRequestAsync(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, Executor executor) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        
+        return AsyncStreamingCall.execute(() -> {
+            executeStreamingRequest(new CompletingStreamingSubscriber<>(subscriber, future));
+            return null;
+        }, future, executor);
+    }
+    
+    /**
+     * Same as executeSupervisedStreamingRequest(), on the streaming executor of the ExecutorSingleton (one thread per stream)
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @return a future completed once the stream is cancelled, or with the fatal error given to the subscriber
+     */
+    public default CompletableFuture<Void> executeSupervisedStreamingRequestAsync(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber) {
+        return executeSupervisedStreamingRequestAsync(subscriber, ExecutorSingleton.getInstance().getStreamingExecutorService());
+    }
+    
+    /**
+     * Same as executeSupervisedStreamingRequest(), on the given executor: the subscriber is called by a thread of the executor
+     * 
+     * @param subscriber : receives the elements converted from the generic BEAN_TYPE
+     * @param executor : the executor running the blocking reading
+     * @return a future completed once the stream is cancelled, or with the fatal error given to the subscriber
+     */
+    public default CompletableFuture<Void> executeSupervisedStreamingRequestAsync(InterfaceStreamingSubscriber<BEAN_TYPE> subscriber, Executor executor) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        
+        return AsyncStreamingCall.execute(() -> {
+            executeSupervisedStreamingRequest(new CompletingStreamingSubscriber<>(subscriber, future));
+            return null;
+        }, future, executor);
+    }
 }
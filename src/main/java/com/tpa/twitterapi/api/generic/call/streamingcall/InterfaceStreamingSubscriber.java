@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+
+/**
+ * This interface must be used to consume a streaming call element by element
+ *
+ * It follows the same contract as the java.util.concurrent.Flow.Subscriber (Java 9+):
+ *
+ * 1. onSubscribe() is called once, before anything else: you have to request elements with the given subscription
+ * 2. onNext() is called for every parsed element, never more than the requested number
+ * 3. onComplete() or onError() is called once at the end of the stream (not called if you cancelled the subscription)
+ *
+ * All the methods are called by the thread reading the stream, so a slow onNext() slows down the reading (this is the backpressure)
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <BEAN_TYPE>
+ */
+public interface InterfaceStreamingSubscriber<BEAN_TYPE extends GenericTwitterBean> {
+
+    /**
+     * Called once the connection is opened, before the first element
+     *
+     * @param subscription : use it to request elements or to cancel the stream
+     */
+    public abstract void onSubscribe(StreamingSubscription subscription);
+
+    /**
+     * Called as soon as a new element is parsed
+     *
+     * @param bean : a valid element (cf. isValid())
+     */
+    public abstract void onNext(BEAN_TYPE bean);
+
+    /**
+     * Called if the stream was interrupted by an error
+     *
+     * @param e
+     */
+    public abstract void onError(TwitterRequestException e);
+
+    /**
+     * Called when the stream is finished (end of the HTTP stream or delay reached)
+     */
+    public abstract void onComplete();
+}
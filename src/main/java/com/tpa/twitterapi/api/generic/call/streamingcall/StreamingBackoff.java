@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import java.util.Random;
+
+/**
+ * Computes the delay before reconnecting a stream, following the reconnection rules of the Twitter streaming API:
+ * 
+ * - NETWORK errors (TCP/IP level, stall or stream closed): back off linearly by 250ms, up to 16 seconds
+ * - HTTP errors: back off exponentially from 5 seconds, up to 320 seconds
+ * - RATE_LIMIT errors (HTTP 420 or 429): back off exponentially from 1 minute
+ * 
+ * A random jitter (up to 20%) is added, so many clients disconnected at the same time do not reconnect at the same time
+ * 
+ * The delays start again from their first value after reset(), to be called once a connection succeeded
+ * 
+ * This class is not thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class StreamingBackoff {
+    
+    public enum ErrorType {
+        NETWORK, HTTP, RATE_LIMIT
+    }
+    
+    private static final long NETWORK_STEP_IN_MILLIS = 250;
+    private static final long NETWORK_MAX_IN_MILLIS = 16 * 1000;
+    private static final long HTTP_FIRST_IN_MILLIS = 5 * 1000;
+    private static final long HTTP_MAX_IN_MILLIS = 320 * 1000;
+    private static final long RATE_LIMIT_FIRST_IN_MILLIS = 60 * 1000;
+    private static final long RATE_LIMIT_MAX_IN_MILLIS = 16 * 60 * 1000;
+    
+    private static final double JITTER_RATIO = 0.2;
+    
+    private final Random random;
+    
+    private ErrorType lastErrorType;
+    private long lastDelayInMillis;
+    
+    public StreamingBackoff() {
+        this(new Random());
+    }
+    
+    /**
+     * 
+     * @param random : used for the jitter
+     */
+    public StreamingBackoff(Random random) {
+        this.random = random;
+        reset();
+    }
+    
+    /**
+     * 
+     * @param errorType : the cause of the disconnection
+     * @return the delay to wait before the next connection, in milliseconds
+     */
+    public long nextDelayInMillis(ErrorType errorType) {
+        
+        // A different error starts again from the first delay of its own rule
+        long previousDelayInMillis = errorType == lastErrorType ? lastDelayInMillis : 0;
+        
+        switch (errorType) {
+            case NETWORK:
+                lastDelayInMillis = Math.min(previousDelayInMillis + NETWORK_STEP_IN_MILLIS, NETWORK_MAX_IN_MILLIS);
+                break;
+            case HTTP:
+                lastDelayInMillis = previousDelayInMillis == 0 ? HTTP_FIRST_IN_MILLIS : Math.min(previousDelayInMillis * 2, HTTP_MAX_IN_MILLIS);
+                break;
+            default:
+                lastDelayInMillis = previousDelayInMillis == 0 ? RATE_LIMIT_FIRST_IN_MILLIS : Math.min(previousDelayInMillis * 2, RATE_LIMIT_MAX_IN_MILLIS);
+                break;
+        }
+        
+        lastErrorType = errorType;
+        
+        return lastDelayInMillis + (long) (random.nextDouble() * JITTER_RATIO * lastDelayInMillis);
+    }
+    
+    /**
+     * To be called once a connection succeeded
+     */
+    public void reset() {
+        lastErrorType = null;
+        lastDelayInMillis = 0;
+    }
+    
+    /**
+     * 
+     * @param statusCode : the HTTP status code of a failed connection
+     * @return true if Twitter asks the client to slow down (420 Enhance Your Calm or 429 Too Many Requests)
+     */
+    public static boolean isRateLimited(int statusCode) {
+        return statusCode == 420 || statusCode == 429;
+    }
+    
+    /**
+     * Reconnecting does not help for these errors: the request or the credentials must be changed
+     * 
+     * @param statusCode : the HTTP status code of a failed connection
+     * @return true for 401, 403, 404, 406, 413 and 416
+     */
+    public static boolean isFatal(int statusCode) {
+        switch (statusCode) {
+            case 401:
+            case 403:
+            case 404:
+            case 406:
+            case 413:
+            case 416:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
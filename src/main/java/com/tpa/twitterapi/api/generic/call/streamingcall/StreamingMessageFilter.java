@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tpa.twitterapi.tools.collection.LongHashSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Filters the streamed statuses on their lang, user.id and text, with a token-level scan of the raw message
+ * 
+ * Only the top-level properties lang and text, and the id of the user object, are decoded:
+ * all the other values are skipped, and the scan stops as soon as the required properties are read
+ * 
+ * A message is accepted if it matches all the defined conditions (a message without the property of a condition is rejected):
+ * 
+ * - lang is one of the accepted languages
+ * - user.id is one of the accepted authors
+ * - text contains one of the accepted keywords (case insensitive)
+ * 
+ * A message which is not a valid JSON object is accepted, so the parsing error is logged as usual
+ * 
+ * The conditions must be defined before the streaming call: then, this class is thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class StreamingMessageFilter implements InterfaceMessageFilter {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private Set<String> languages;
+    private LongHashSet authorIds;
+    private List<String> keywords;
+    
+    /**
+     * This is a chaining method to accept only some languages
+     * 
+     * @param languages : the codes of the languages (ex. "en", "fr")
+     * @return the filter itself
+     */
+    public StreamingMessageFilter acceptLanguages(String... languages) {
+        if (this.languages == null) {
+            this.languages = new HashSet<>();
+        }
+        for (String language : languages) {
+            this.languages.add(language);
+        }
+        return this;
+    }
+    
+    /**
+     * This is a chaining method to accept only some authors
+     * 
+     * @param authorIds : the IDs of the users
+     * @return the filter itself
+     */
+    public StreamingMessageFilter acceptAuthorIds(long... authorIds) {
+        if (this.authorIds == null) {
+            this.authorIds = new LongHashSet(authorIds.length);
+        }
+        for (long authorId : authorIds) {
+            this.authorIds.add(authorId);
+        }
+        return this;
+    }
+    
+    /**
+     * This is a chaining method to accept only the texts containing a keyword
+     * 
+     * @param keywords : the keywords, one of them must be in the text
+     * @return the filter itself
+     */
+    public StreamingMessageFilter acceptKeywords(String... keywords) {
+        if (this.keywords == null) {
+            this.keywords = new ArrayList<>();
+        }
+        for (String keyword : keywords) {
+            this.keywords.add(keyword.toLowerCase(Locale.ROOT));
+        }
+        return this;
+    }
+    
+    @Override
+    public boolean accept(byte[] buffer, int offset, int length) {
+        // Bit set of the conditions not checked yet
+        int remainingConditions = (languages == null ? 0 : 1) | (keywords == null ? 0 : 2) | (authorIds == null ? 0 : 4);
+        
+        if (remainingConditions == 0) {
+            return true;
+        }
+        
+        try (JsonParser parser = JSON_FACTORY.createParser(buffer, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return true;
+            }
+            
+            while (remainingConditions != 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String propertyName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                
+                if ((remainingConditions & 1) != 0 && "lang".equals(propertyName)) {
+                    if (token != JsonToken.VALUE_STRING || !languages.contains(parser.getText())) {
+                        return false;
+                    }
+                    remainingConditions &= ~1;
+                }
+                else if ((remainingConditions & 2) != 0 && "text".equals(propertyName)) {
+                    if (token != JsonToken.VALUE_STRING || !containsKeyword(parser.getText())) {
+                        return false;
+                    }
+                    remainingConditions &= ~2;
+                }
+                else if ((remainingConditions & 4) != 0 && "user".equals(propertyName)) {
+                    if (token != JsonToken.START_OBJECT || !authorIds.contains(readAuthorId(parser))) {
+                        return false;
+                    }
+                    remainingConditions &= ~4;
+                }
+                else {
+                    // Nested objects and arrays (ex. entities, retweeted_status) are only tokenized
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            return true;
+        }
+        
+        return remainingConditions == 0;
+    }
+    
+    private boolean containsKeyword(String text) {
+        String lowerCaseText = text.toLowerCase(Locale.ROOT);
+        
+        for (String keyword : keywords) {
+            if (lowerCaseText.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 
+     * @param parser : positioned on the start of the user object, and then on its end
+     * @return the id of the user, or -1 if there is none
+     * @throws IOException 
+     */
+    private static long readAuthorId(JsonParser parser) throws IOException {
+        long authorId = -1;
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String propertyName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            
+            if (authorId == -1 && "id".equals(propertyName) && token == JsonToken.VALUE_NUMBER_INT) {
+                authorId = parser.getLongValue();
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        return authorId;
+    }
+}
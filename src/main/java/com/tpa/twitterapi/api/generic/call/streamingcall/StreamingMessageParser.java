@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import com.tpa.twitterapi.api.generic.bean.LazyTwitterStatus;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts the bytes of a streamed message into a BEAN_TYPE
+ *
+ * The Jackson ObjectReader is created once per bean type and shared by all the streaming calls:
+ * its root deserializer is resolved at creation, so the first message does not pay for the introspection
+ *
+ * In lazy mode, the statuses are not converted: a LazyTwitterStatus keeps a copy of the message and decodes it when it is used
+ *
+ * This class is thread-safe
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <BEAN_TYPE>
+ */
+public final class StreamingMessageParser<BEAN_TYPE extends GenericTwitterBean> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Map<Class<?>, ObjectReader> OBJECT_READERS = new ConcurrentHashMap<>();
+
+    private final ObjectReader objectReader;
+    private final boolean lazy;
+
+    /**
+     *
+     * @param genericTwitterBeanType : the TwitterBean you want to use to cast the messages
+     */
+    public StreamingMessageParser(Class<BEAN_TYPE> genericTwitterBeanType) {
+        this(genericTwitterBeanType, false);
+    }
+
+    /**
+     *
+     * @param genericTwitterBeanType : the TwitterBean you want to use to cast the messages
+     * @param lazy : true to create LazyTwitterStatus (ignored if the BEAN_TYPE is not LazyTwitterStatus or one of its super classes, ex. TwitterAuthor or TwitterStatuses)
+     */
+    public StreamingMessageParser(Class<BEAN_TYPE> genericTwitterBeanType, boolean lazy) {
+        this.objectReader = OBJECT_READERS.computeIfAbsent(genericTwitterBeanType, OBJECT_MAPPER::readerFor);
+        this.lazy = lazy && genericTwitterBeanType.isAssignableFrom(LazyTwitterStatus.class);
+    }
+
+    /**
+     * @return true if the messages are decoded only when they are used, cf. LazyTwitterStatus
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Parses a message, without any intermediate String
+     *
+     * @param buffer : cf. StreamingMessageReader.getBuffer()
+     * @param offset : cf. StreamingMessageReader.getOffset()
+     * @param length : cf. StreamingMessageReader.getLength()
+     * @return the converted message
+     * @throws IOException if the message is not a valid JSON object of the BEAN_TYPE (never thrown in lazy mode, cf. isValid())
+     */
+    @SuppressWarnings("unchecked")
+    public BEAN_TYPE parse(byte[] buffer, int offset, int length) throws IOException {
+        if (lazy) {
+            return (BEAN_TYPE) new LazyTwitterStatus(Arrays.copyOfRange(buffer, offset, offset + length));
+        }
+
+        return objectReader.readValue(buffer, offset, length);
+    }
+
+    /**
+     * Parses the current message of the reader
+     *
+     * @param streamingMessageReader
+     * @return the converted message
+     * @throws IOException if the message is not a valid JSON object of the BEAN_TYPE
+     */
+    public BEAN_TYPE parse(StreamingMessageReader streamingMessageReader) throws IOException {
+        return parse(streamingMessageReader.getBuffer(), streamingMessageReader.getOffset(), streamingMessageReader.getLength());
+    }
+}
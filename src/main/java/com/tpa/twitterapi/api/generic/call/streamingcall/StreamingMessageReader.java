@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits a Twitter stream into messages, directly on the bytes of the InputStream
+ *
+ * Twitter streams are made of JSON messages delimited by "\r\n" (an empty line is a keep-alive signal)
+ *
+ * Unlike a BufferedReader, there is no char decoding and no String: the current message is a view
+ * (getBuffer(), getOffset(), getLength()) on an internal buffer, only valid until the next call to nextMessage()
+ *
+ * This class is not thread-safe
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class StreamingMessageReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream inputStream;
+
+    // Bytes read from the stream but not consumed yet
+    private final byte[] readBuffer;
+    private int readPosition;
+    private int readLimit;
+
+    // Used only when a message does not fit in the readBuffer
+    private byte[] messageBuffer;
+
+    private byte[] buffer;
+    private int offset;
+    private int length;
+
+    public StreamingMessageReader(InputStream inputStream) {
+        this(inputStream, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param inputStream : the HTTP stream
+     * @param bufferSize : the size of the reading buffer
+     */
+    public StreamingMessageReader(InputStream inputStream, int bufferSize) {
+        this.inputStream = inputStream;
+        this.readBuffer = new byte[bufferSize];
+        this.messageBuffer = new byte[bufferSize];
+        this.readPosition = 0;
+        this.readLimit = 0;
+    }
+
+    /**
+     * Reads the next message (blocks until a full line is available)
+     *
+     * @return true if a message (or a keep-alive) was read | false at the end of the stream
+     * @throws IOException
+     */
+    public boolean nextMessage() throws IOException {
+
+        int messageLength = 0;
+
+        while (true) {
+
+            if (readPosition == readLimit && !fillReadBuffer()) {
+                // End of stream: the last line may not be terminated
+                if (messageLength == 0) {
+                    return false;
+                }
+                setMessage(messageBuffer, 0, messageLength);
+                return true;
+            }
+
+            int start = readPosition;
+            int end = indexOfNewLine(start);
+
+            if (end >= 0) {
+                readPosition = end + 1;
+
+                // Fast path: the whole line is in the readBuffer, no copy
+                if (messageLength == 0) {
+                    setMessage(readBuffer, start, end - start);
+                }
+                else {
+                    messageLength = appendToMessage(messageLength, start, end);
+                    setMessage(messageBuffer, 0, messageLength);
+                }
+                return true;
+            }
+
+            // The line continues after the readBuffer: we keep what we have and read again
+            messageLength = appendToMessage(messageLength, start, readLimit);
+            readPosition = readLimit;
+        }
+    }
+
+    /**
+     * @return the buffer containing the current message
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the position of the current message in getBuffer()
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the length of the current message (without the line delimiter)
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return true if the current message is an empty keep-alive line
+     */
+    public boolean isKeepAlive() {
+        return length == 0;
+    }
+
+    /**
+     * @return a copy of the current message
+     */
+    public byte[] copyMessage() {
+        return Arrays.copyOfRange(buffer, offset, offset + length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private boolean fillReadBuffer() throws IOException {
+        int read = inputStream.read(readBuffer, 0, readBuffer.length);
+
+        if (read <= 0) {
+            return false;
+        }
+
+        readPosition = 0;
+        readLimit = read;
+        return true;
+    }
+
+    private int indexOfNewLine(int from) {
+        for (int i = from; i < readLimit; i++) {
+            if (readBuffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int appendToMessage(int messageLength, int from, int to) {
+        int toCopy = to - from;
+
+        if (messageLength + toCopy > messageBuffer.length) {
+            messageBuffer = Arrays.copyOf(messageBuffer, Math.max(messageBuffer.length * 2, messageLength + toCopy));
+        }
+
+        System.arraycopy(readBuffer, from, messageBuffer, messageLength, toCopy);
+        return messageLength + toCopy;
+    }
+
+    private void setMessage(byte[] buffer, int offset, int length) {
+        // We remove the "\r" of the "\r\n" delimiter
+        if (length > 0 && buffer[offset + length - 1] == '\r') {
+            length--;
+        }
+
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+}
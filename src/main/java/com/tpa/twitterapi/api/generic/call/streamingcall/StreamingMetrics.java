@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of a streaming call, mainly useful for the supervised mode (cf. executeSupervisedStreamingRequest())
+ * and to tune the parsing workers (cf. twitter.streaming.parseWorkers)
+ * 
+ * The reconnect latency is the time between a disconnection and the next successful connection (backoff delay included)
+ * 
+ * This class is thread-safe: it is updated by the reading thread and can be read from any thread
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class StreamingMetrics {
+    
+    private final AtomicLong connectionCount = new AtomicLong();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private final AtomicLong stallCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+    private final AtomicLong maxParseQueueDepth = new AtomicLong();
+    private final AtomicLong acceptedMessageCount = new AtomicLong();
+    private final AtomicLong rejectedMessageCount = new AtomicLong();
+    
+    private final AtomicLong lastReconnectLatencyInMillis = new AtomicLong();
+    private final AtomicLong maxReconnectLatencyInMillis = new AtomicLong();
+    private final AtomicLong totalReconnectLatencyInMillis = new AtomicLong();
+    
+    /**
+     * 
+     * @return the number of successful connections
+     */
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+    
+    /**
+     * 
+     * @return the number of successful connections after a disconnection
+     */
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+    
+    /**
+     * 
+     * @return the number of connections closed because nothing was received during the stall timeout
+     */
+    public long getStallCount() {
+        return stallCount.get();
+    }
+    
+    /**
+     * 
+     * @return the number of elements received again after a reconnection, and not delivered
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+    
+    /**
+     * 
+     * @return the max number of messages which waited to be parsed or delivered (cf. twitter.streaming.parseWorkers)
+     */
+    public long getMaxParseQueueDepth() {
+        return maxParseQueueDepth.get();
+    }
+    
+    /**
+     * 
+     * @return the number of messages accepted by the message filter (0 if there is no filter)
+     */
+    public long getAcceptedMessageCount() {
+        return acceptedMessageCount.get();
+    }
+    
+    /**
+     * 
+     * @return the number of messages rejected by the message filter, and never parsed
+     */
+    public long getRejectedMessageCount() {
+        return rejectedMessageCount.get();
+    }
+    
+    public long getLastReconnectLatencyInMillis() {
+        return lastReconnectLatencyInMillis.get();
+    }
+    
+    public long getMaxReconnectLatencyInMillis() {
+        return maxReconnectLatencyInMillis.get();
+    }
+    
+    /**
+     * 
+     * @return the average reconnect latency | 0 if there was no reconnection
+     */
+    public long getAverageReconnectLatencyInMillis() {
+        long count = reconnectCount.get();
+        return count == 0 ? 0 : totalReconnectLatencyInMillis.get() / count;
+    }
+    
+    void recordConnection() {
+        connectionCount.incrementAndGet();
+    }
+    
+    /**
+     * 
+     * @param latencyInNanos : time since the disconnection
+     */
+    void recordReconnection(long latencyInNanos) {
+        long latencyInMillis = TimeUnit.NANOSECONDS.toMillis(latencyInNanos);
+        
+        connectionCount.incrementAndGet();
+        lastReconnectLatencyInMillis.set(latencyInMillis);
+        totalReconnectLatencyInMillis.addAndGet(latencyInMillis);
+        reconnectCount.incrementAndGet();
+        
+        long max;
+        do {
+            max = maxReconnectLatencyInMillis.get();
+        } while (latencyInMillis > max && !maxReconnectLatencyInMillis.compareAndSet(max, latencyInMillis));
+    }
+    
+    void recordParseQueueDepth(int depth) {
+        long max;
+        do {
+            max = maxParseQueueDepth.get();
+        } while (depth > max && !maxParseQueueDepth.compareAndSet(max, depth));
+    }
+    
+    void recordStall() {
+        stallCount.incrementAndGet();
+    }
+    
+    void recordDuplicate() {
+        duplicateCount.incrementAndGet();
+    }
+    
+    void recordFilteredMessage(boolean accepted) {
+        if (accepted) {
+            acceptedMessageCount.incrementAndGet();
+        }
+        else {
+            rejectedMessageCount.incrementAndGet();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "connections: " + getConnectionCount()
+                + ", reconnections: " + getReconnectCount()
+                + ", stalls: " + getStallCount()
+                + ", duplicates: " + getDuplicateCount()
+                + ", max parse queue depth: " + getMaxParseQueueDepth()
+                + ", accepted/rejected messages: " + getAcceptedMessageCount() + "/" + getRejectedMessageCount()
+                + ", reconnect latency (last/avg/max ms): " + getLastReconnectLatencyInMillis() + "/" + getAverageReconnectLatencyInMillis() + "/" + getMaxReconnectLatencyInMillis();
+    }
+}
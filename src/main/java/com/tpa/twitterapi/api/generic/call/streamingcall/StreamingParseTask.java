@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A message framed by the reading thread, and parsed by a worker of the parsing pool
+ * 
+ * The tasks are delivered in the order of the stream: the reading thread puts them in a FIFO queue, in which the delivering thread waits for each result
+ * 
+ * The result is null if the message was rejected by the message filter of the call
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <BEAN_TYPE>
+ */
+final class StreamingParseTask<BEAN_TYPE extends GenericTwitterBean> extends FutureTask<BEAN_TYPE> {
+    
+    private final boolean endOfStream;
+    private final byte[] message;
+    
+    /**
+     * 
+     * @param parsing : filters and parses the message
+     * @param message : a copy of the message
+     */
+    StreamingParseTask(Callable<BEAN_TYPE> parsing, byte[] message) {
+        super(parsing);
+        this.endOfStream = false;
+        this.message = message;
+    }
+    
+    /**
+     * Creates the task marking the end of the stream
+     */
+    StreamingParseTask() {
+        super(() -> null);
+        this.endOfStream = true;
+        this.message = null;
+    }
+
+    byte[] getMessage() {
+        return message;
+    }
+    
+    boolean isEndOfStream() {
+        return endOfStream;
+    }
+}
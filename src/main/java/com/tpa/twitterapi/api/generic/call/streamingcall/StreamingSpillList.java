@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.GenericTwitterBean;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The list returned by AbstractStreamingCall.executeSpilledListRequest()
+ *
+ * The first elements are kept on heap, as in an ArrayList
+ *
+ * Once the threshold is passed, only the raw messages are kept: they are appended to memory-mapped segment files,
+ * and an element is parsed again each time it is read (with the parser of the call, so a LazyTwitterStatus in lazy mode)
+ *
+ * The heap only contains the on-heap elements and an index of 12 bytes per spilled element:
+ * the messages themselves are in the page cache, and written to the disk by the OS if needed
+ *
+ * The list can not be modified by its users
+ *
+ * The segment files are opened with DELETE_ON_CLOSE: close() must be called to delete them and release their space
+ * (on Unix, the files are unlinked as soon as they are opened, but their space is only released on close())
+ *
+ * Reading is thread-safe once the list is returned
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <BEAN_TYPE>
+ */
+public final class StreamingSpillList<BEAN_TYPE extends GenericTwitterBean> extends AbstractList<BEAN_TYPE> implements RandomAccess, AutoCloseable {
+
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    private final StreamingMessageParser<BEAN_TYPE> streamingMessageParser;
+    private final int heapThreshold;
+    private final int segmentSize;
+    private final Path directory;
+
+    private final List<BEAN_TYPE> heapElements;
+
+    private final List<FileChannel> segmentChannels;
+    private final List<MappedByteBuffer> segments;
+    private MappedByteBuffer currentSegment;
+
+    // Segment index in the high 32 bits, position in the segment in the low 32 bits
+    private long[] spilledPositions;
+    private int[] spilledLengths;
+    private int spilledCount;
+    private long spilledBytes;
+
+    private volatile boolean closed;
+
+    /**
+     *
+     * @param streamingMessageParser : used to parse the spilled messages when they are read
+     * @param heapThreshold : the number of elements kept on heap
+     * @param segmentSize : the size of a segment file, in bytes (a larger message has its own segment)
+     * @param directory : the directory of the segment files
+     */
+    public StreamingSpillList(StreamingMessageParser<BEAN_TYPE> streamingMessageParser, int heapThreshold, int segmentSize, Path directory) {
+        if (heapThreshold < 0) {
+            throw new IllegalArgumentException("The number of elements kept on heap can not be negative: " + heapThreshold);
+        }
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("The size of a segment must be positive: " + segmentSize);
+        }
+
+        this.streamingMessageParser = streamingMessageParser;
+        this.heapThreshold = heapThreshold;
+        this.segmentSize = segmentSize;
+        this.directory = directory;
+
+        this.heapElements = new ArrayList<>(Math.min(heapThreshold, INITIAL_INDEX_CAPACITY));
+        this.segmentChannels = new ArrayList<>();
+        this.segments = new ArrayList<>();
+        this.spilledPositions = new long[0];
+        this.spilledLengths = new int[0];
+    }
+
+    /**
+     * Adds an element at the end of the list
+     *
+     * The raw message is only used once the threshold is passed: it is copied, so the buffer can be reused by the caller
+     *
+     * @param bean : the parsed element
+     * @param buffer : the buffer of the message of the element
+     * @param offset : the position of the message in the buffer
+     * @param length : the length of the message
+     * @throws IOException if a segment file could not be created
+     */
+    void append(BEAN_TYPE bean, byte[] buffer, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The list is closed");
+        }
+
+        if (heapElements.size() < heapThreshold) {
+            heapElements.add(bean);
+            return;
+        }
+
+        if (currentSegment == null || currentSegment.remaining() < length) {
+            currentSegment = createSegment(Math.max(segmentSize, length));
+        }
+
+        if (spilledCount == spilledPositions.length) {
+            int capacity = Math.max(INITIAL_INDEX_CAPACITY, spilledCount * 2);
+            spilledPositions = Arrays.copyOf(spilledPositions, capacity);
+            spilledLengths = Arrays.copyOf(spilledLengths, capacity);
+        }
+
+        spilledPositions[spilledCount] = ((long) (segments.size() - 1) << 32) | currentSegment.position();
+        spilledLengths[spilledCount] = length;
+        currentSegment.put(buffer, offset, length);
+
+        spilledCount++;
+        spilledBytes += length;
+    }
+
+    /**
+     * Spilled elements are parsed at each call: keep the returned element if it is used several times
+     *
+     * @param index
+     * @return the element at this position
+     * @throws UncheckedIOException if a spilled message can not be parsed again
+     */
+    @Override
+    public BEAN_TYPE get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+
+        if (index < heapElements.size()) {
+            return heapElements.get(index);
+        }
+
+        if (closed) {
+            throw new IllegalStateException("The list is closed");
+        }
+
+        int spilledIndex = index - heapElements.size();
+        long position = spilledPositions[spilledIndex];
+        byte[] message = new byte[spilledLengths[spilledIndex]];
+
+        // A duplicate has its own position, so several threads can read the same segment
+        ByteBuffer segment = segments.get((int) (position >>> 32)).duplicate();
+        segment.position((int) position);
+        segment.get(message);
+
+        try {
+            return streamingMessageParser.parse(message, 0, message.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("A spilled message could not be parsed", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return heapElements.size() + spilledCount;
+    }
+
+    /**
+     *
+     * @return the number of elements kept on heap
+     */
+    public int getHeapCount() {
+        return heapElements.size();
+    }
+
+    /**
+     *
+     * @return the number of elements appended to the segment files
+     */
+    public int getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     *
+     * @return the size of the messages appended to the segment files
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     *
+     * @return the number of segment files
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Deletes the segment files: the spilled elements can not be read anymore
+     *
+     * The on-heap elements can still be read
+     *
+     * @throws IOException if a segment file could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        IOException error = null;
+
+        // The files are deleted when their channel is closed (the mappings themselves are released by the GC)
+        for (FileChannel segmentChannel : segmentChannels) {
+            try {
+                segmentChannel.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        segmentChannels.clear();
+        segments.clear();
+        currentSegment = null;
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private MappedByteBuffer createSegment(int size) throws IOException {
+        Path file = Files.createTempFile(directory, "twitter-stream-", ".spill");
+
+        FileChannel segmentChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+
+        try {
+            MappedByteBuffer segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            segmentChannels.add(segmentChannel);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            segmentChannel.close();
+            throw e;
+        }
+    }
+}
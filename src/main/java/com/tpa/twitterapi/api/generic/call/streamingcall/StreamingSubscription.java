@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The link between a streaming call and its InterfaceStreamingSubscriber
+ *
+ * The subscriber requests elements with request(n), the reading thread waits (and so stops reading the socket)
+ * as long as there is no pending demand
+ *
+ * This class is thread-safe: request() and cancel() can be called from any thread
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class StreamingSubscription {
+
+    private final AtomicLong demand;
+    private final Object lock;
+
+    private volatile boolean cancelled;
+    private volatile Runnable onCancel;
+
+    public StreamingSubscription() {
+        this.demand = new AtomicLong();
+        this.lock = new Object();
+        this.cancelled = false;
+    }
+
+    /**
+     * Adds n elements to the current demand
+     *
+     * Use Long.MAX_VALUE if you do not want any backpressure
+     *
+     * @param n : must be strictly positive
+     */
+    public void request(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The number of requested elements must be positive: " + n);
+        }
+
+        long current;
+        long next;
+        do {
+            current = demand.get();
+            next = current + n < 0 ? Long.MAX_VALUE : current + n;
+        } while (!demand.compareAndSet(current, next));
+
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Stops the stream: no more element will be delivered
+     *
+     * If the reading thread is blocked on the socket, the connection is closed
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+
+        cancelled = true;
+
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+
+        Runnable currentOnCancel = onCancel;
+        if (currentOnCancel != null) {
+            currentOnCancel.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the number of elements requested but not delivered yet
+     */
+    public long getDemand() {
+        return demand.get();
+    }
+
+    /**
+     * Defines what must be done to unblock the reading thread when the subscription is cancelled
+     *
+     * @param onCancel
+     */
+    void setOnCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+
+        if (cancelled && onCancel != null) {
+            onCancel.run();
+        }
+    }
+
+    /**
+     * Blocks the reading thread until an element is requested or the subscription cancelled
+     *
+     * @return true if an element can be delivered | false if cancelled
+     */
+    boolean awaitDemand() {
+        if (demand.get() > 0 || cancelled) {
+            return !cancelled;
+        }
+
+        synchronized (lock) {
+            while (demand.get() == 0 && !cancelled) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                }
+            }
+        }
+
+        return !cancelled;
+    }
+
+    /**
+     * Blocks the reading thread during a delay (ex. before a reconnection), or until the subscription is cancelled
+     *
+     * @param timeoutInMillis : the delay
+     * @return true if cancelled
+     */
+    boolean awaitCancel(long timeoutInMillis) {
+        long deadline = System.currentTimeMillis() + timeoutInMillis;
+
+        synchronized (lock) {
+            long remaining = timeoutInMillis;
+            while (remaining > 0 && !cancelled) {
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                }
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Called once an element is delivered
+     */
+    void consume() {
+        long current;
+        do {
+            current = demand.get();
+
+            if (current == Long.MAX_VALUE || current == 0) {
+                return;
+            }
+        } while (!demand.compareAndSet(current, current - 1));
+    }
+}
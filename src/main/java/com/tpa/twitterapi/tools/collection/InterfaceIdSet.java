@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+/**
+ * A set of Twitter IDs, stored as primitive longs
+ * 
+ * Cf. implementations:
+ * - LongHashSet: keeps every ID
+ * - RecentWindowIdSet: only keeps the most recent IDs, for unbounded streams
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public interface InterfaceIdSet {
+    
+    /**
+     * 
+     * @param id
+     * @return true if the ID was added | false if the set already contains it
+     */
+    public abstract boolean add(long id);
+    
+    /**
+     * 
+     * @param id
+     * @return true if the set contains the ID
+     */
+    public abstract boolean contains(long id);
+    
+    /**
+     * 
+     * @return the number of IDs currently stored
+     */
+    public abstract int size();
+    
+    /**
+     * Removes all the IDs
+     */
+    public abstract void clear();
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+import java.util.Arrays;
+
+/**
+ * A hash set of primitive longs (no Long boxing), with open addressing and linear probing
+ * 
+ * add() and contains() are O(1) on average
+ * 
+ * This class is not thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class LongHashSet implements InterfaceIdSet {
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+    
+    // 0 is used to mark the empty slots, so the ID 0 is stored apart
+    private static final long EMPTY = 0L;
+    
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsZero;
+    
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * 
+     * @param expectedSize : the number of IDs you expect to store (the set grows automatically if needed)
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+    }
+    
+    @Override
+    public boolean add(long id) {
+        if (id == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        
+        int index = indexOf(id);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == id) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        keys[index] = id;
+        size++;
+        
+        if (size > resizeThreshold) {
+            rehash(keys.length * 2);
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public boolean contains(long id) {
+        if (id == EMPTY) {
+            return containsZero;
+        }
+        
+        int index = indexOf(id);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == id) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        return false;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        containsZero = false;
+        size = 0;
+    }
+    
+    /**
+     * Twitter IDs (snowflakes) are not uniformly distributed on their low bits, so they are mixed before use
+     */
+    private int indexOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+        
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int index = indexOf(key);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+    
+    private static int tableSizeFor(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return tableSize > 0 ? tableSize : 1 << 30;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+import java.util.Arrays;
+
+/**
+ * A map of primitive long keys (no Long boxing) bounded to maxSize entries: when it is full,
+ * the least recently used entry is evicted
+ * 
+ * - The entries are stored in arrays allocated once (maxSize entries), and linked in the order of their last use
+ * - A hash table with open addressing and linear probing gives the entry of a key
+ * 
+ * get() and put() are O(1) on average, and do not allocate anything
+ * 
+ * This class is not thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <VALUE_TYPE>
+ */
+public final class LongLruMap<VALUE_TYPE> {
+    
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int NONE = -1;
+    
+    private final int maxSize;
+    
+    // Entries, indexed by their position (from 0 to maxSize - 1)
+    private final long[] entryKeys;
+    private final Object[] entryValues;
+    private final int[] previousEntries;
+    private final int[] nextEntries;
+    
+    // Most and least recently used entries
+    private int head;
+    private int tail;
+    private int size;
+    private long evictionCount;
+    
+    // Position of the entry + 1 (0 marks the empty slots)
+    private final int[] table;
+    private final int mask;
+    
+    /**
+     * 
+     * @param maxSize : the max number of entries
+     */
+    public LongLruMap(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The max size must be positive: " + maxSize);
+        }
+        
+        this.maxSize = maxSize;
+        this.entryKeys = new long[maxSize];
+        this.entryValues = new Object[maxSize];
+        this.previousEntries = new int[maxSize];
+        this.nextEntries = new int[maxSize];
+        this.head = NONE;
+        this.tail = NONE;
+        
+        int tableSize = Integer.highestOneBit((int) Math.ceil(maxSize / LOAD_FACTOR) - 1) << 1;
+        this.table = new int[Math.max(tableSize, 2)];
+        this.mask = table.length - 1;
+    }
+    
+    /**
+     * 
+     * @param key
+     * @return the value of the key, which becomes the most recently used | null if the key is unknown
+     */
+    @SuppressWarnings("unchecked")
+    public VALUE_TYPE get(long key) {
+        int entry = findEntry(key);
+        
+        if (entry == NONE) {
+            return null;
+        }
+        
+        moveToHead(entry);
+        return (VALUE_TYPE) entryValues[entry];
+    }
+    
+    /**
+     * Adds or replaces the value of a key, which becomes the most recently used
+     * 
+     * If the map is full, the least recently used entry is evicted
+     * 
+     * @param key
+     * @param value : not null
+     */
+    public void put(long key, VALUE_TYPE value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value can not be null");
+        }
+        
+        int entry = findEntry(key);
+        
+        if (entry != NONE) {
+            entryValues[entry] = value;
+            moveToHead(entry);
+            return;
+        }
+        
+        if (size < maxSize) {
+            entry = size++;
+        }
+        else {
+            // The least recently used entry is reused
+            entry = tail;
+            removeFromTable(entryKeys[entry]);
+            unlink(entry);
+            evictionCount++;
+        }
+        
+        entryKeys[entry] = key;
+        entryValues[entry] = value;
+        linkAtHead(entry);
+        
+        int index = indexOf(key);
+        while (table[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        table[index] = entry + 1;
+    }
+    
+    public boolean containsKey(long key) {
+        return findEntry(key) != NONE;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    /**
+     * @return the number of entries evicted because the map was full
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+    
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(entryValues, null);
+        head = NONE;
+        tail = NONE;
+        size = 0;
+    }
+    
+    private int findEntry(long key) {
+        int index = indexOf(key);
+        
+        while (table[index] != 0) {
+            int entry = table[index] - 1;
+            if (entryKeys[entry] == key) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        return NONE;
+    }
+    
+    /**
+     * Removes a key from the hash table, shifting back the next keys of its cluster (no tombstone)
+     */
+    private void removeFromTable(long key) {
+        int index = indexOf(key);
+        while (entryKeys[table[index] - 1] != key) {
+            index = (index + 1) & mask;
+        }
+        
+        int next = (index + 1) & mask;
+        while (table[next] != 0) {
+            int home = indexOf(entryKeys[table[next] - 1]);
+            
+            // The key at next can move to the free slot only if its home slot is not between the free slot and next
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                table[index] = table[next];
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+        
+        table[index] = 0;
+    }
+    
+    private void moveToHead(int entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkAtHead(entry);
+        }
+    }
+    
+    private void linkAtHead(int entry) {
+        previousEntries[entry] = NONE;
+        nextEntries[entry] = head;
+        
+        if (head != NONE) {
+            previousEntries[head] = entry;
+        }
+        head = entry;
+        
+        if (tail == NONE) {
+            tail = entry;
+        }
+    }
+    
+    private void unlink(int entry) {
+        int previous = previousEntries[entry];
+        int next = nextEntries[entry];
+        
+        if (previous != NONE) {
+            nextEntries[previous] = next;
+        }
+        else {
+            head = next;
+        }
+        
+        if (next != NONE) {
+            previousEntries[next] = previous;
+        }
+        else {
+            tail = previous;
+        }
+    }
+    
+    /**
+     * Twitter IDs (snowflakes) are not uniformly distributed on their low bits, so they are mixed before use
+     */
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+/**
+ * A bounded set which only remembers the most recent IDs
+ * 
+ * IDs are stored in 2 generations of windowSize IDs: when the current generation is full, the oldest generation is forgotten
+ * So the set always knows at least the last windowSize IDs, and never more than 2 * windowSize
+ * 
+ * Unlike a Bloom filter, there is no false positive: a new ID is never considered as a duplicate
+ * 
+ * This class is not thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class RecentWindowIdSet implements InterfaceIdSet {
+    
+    private final int windowSize;
+    
+    private LongHashSet currentGeneration;
+    private LongHashSet previousGeneration;
+    
+    /**
+     * 
+     * @param windowSize : the minimum number of recent IDs remembered
+     */
+    public RecentWindowIdSet(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("The window size must be positive: " + windowSize);
+        }
+        
+        this.windowSize = windowSize;
+        this.currentGeneration = new LongHashSet(windowSize);
+        this.previousGeneration = new LongHashSet(windowSize);
+    }
+    
+    @Override
+    public boolean add(long id) {
+        if (previousGeneration.contains(id) || !currentGeneration.add(id)) {
+            return false;
+        }
+        
+        if (currentGeneration.size() >= windowSize) {
+            // We reuse the oldest table instead of allocating a new one
+            LongHashSet oldestGeneration = previousGeneration;
+            oldestGeneration.clear();
+            
+            previousGeneration = currentGeneration;
+            currentGeneration = oldestGeneration;
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public boolean contains(long id) {
+        return currentGeneration.contains(id) || previousGeneration.contains(id);
+    }
+    
+    @Override
+    public int size() {
+        return currentGeneration.size() + previousGeneration.size();
+    }
+    
+    @Override
+    public void clear() {
+        currentGeneration.clear();
+        previousGeneration.clear();
+    }
+    
+    public int getWindowSize() {
+        return windowSize;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue, backed by an array
+ * 
+ * Any number of threads can offer() and poll() at the same time, without lock:
+ * every slot has a sequence number telling if it can be written or read (cf. D. Vyukov bounded MPMC queue)
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ * @param <T> : the type of the elements
+ */
+public final class RingBuffer<T> {
+    
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    
+    private final AtomicLong head;
+    private final AtomicLong tail;
+    
+    /**
+     * 
+     * @param capacity : the max number of elements, rounded up to a power of 2
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30: " + capacity);
+        }
+        
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+        
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Adds an element, if there is a free slot
+     * 
+     * @param element : must not be null
+     * @return true if added | false if the buffer is full
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException("The ring buffer does not accept null elements");
+        }
+        
+        long position = tail.get();
+        
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    // Publishes the element for the readers
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if (difference < 0) {
+                // The slot was not read yet: the buffer is full
+                return false;
+            }
+            else {
+                // Another thread took this slot
+                position = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * Removes the oldest element
+     * 
+     * @return the oldest element | null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = head.get();
+        
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T element = (T) elements[index];
+                    elements[index] = null;
+                    // Frees the slot for the next round of writers
+                    sequences.lazySet(index, position + elements.length);
+                    return element;
+                }
+                position = head.get();
+            }
+            else if (difference < 0) {
+                // The slot was not written yet: the buffer is empty
+                return null;
+            }
+            else {
+                // Another thread read this slot
+                position = head.get();
+            }
+        }
+    }
+    
+    /**
+     * 
+     * @return the number of elements (approximate if other threads are using the buffer)
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+    
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    public int getCapacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.executor;
+
+import com.tpa.twitterapi.tools.singleton.AbstractSingleton;
+import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A singleton sharing the threads used to execute calls concurrently
+ * 
+ * It uses properties from the file config.properties:
+ * 
+ * - twitter.executor.virtualThreads => if true and if the JVM supports them (Java 21+), one virtual thread per call
+ * - twitter.executor.maxConcurrentCalls => max number of calls executed at the same time, for the whole application
+ * 
+ * Without virtual threads, the calls are executed by a pool of maxConcurrentCalls platform threads
+ * 
+ * The streams keep their thread until they end: they are executed by their own executor (cf. getStreamingExecutorService()),
+ * so they never take the threads of the calls
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class ExecutorSingleton extends AbstractSingleton {
+    
+    private static final PropertySingleton PROPERTY_SINGLETON = PropertySingleton.getInstance();
+    private static final Logger LOGGER = LoggerSingleton.getInstance().getLogger(ExecutorSingleton.class);
+    
+    private final ExecutorService executorService;
+    private final ExecutorService streamingExecutorService;
+    private final ScheduledExecutorService timeoutScheduler;
+    private final Semaphore callPermits;
+    private final boolean virtualThreads;
+    
+    public ExecutorSingleton() {
+        int maxConcurrentCalls = PROPERTY_SINGLETON.getInteger("twitter.executor.maxConcurrentCalls");
+        
+        ExecutorService virtualThreadExecutor = PROPERTY_SINGLETON.getBoolean("twitter.executor.virtualThreads") ? newVirtualThreadExecutor() : null;
+        
+        this.virtualThreads = virtualThreadExecutor != null;
+        this.executorService = virtualThreads ? virtualThreadExecutor : Executors.newFixedThreadPool(maxConcurrentCalls, newDaemonThreadFactory("twitter-call-"));
+        this.streamingExecutorService = virtualThreads ? virtualThreadExecutor : Executors.newCachedThreadPool(newDaemonThreadFactory("twitter-stream-"));
+        this.callPermits = new Semaphore(maxConcurrentCalls, true);
+        
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, newDaemonThreadFactory("twitter-call-timeout-"));
+        // Most of the calls end before their timeout: their cancelled timeouts must not stay in the queue
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.timeoutScheduler = scheduler;
+        
+        LOGGER.log(Level.INFO, "Calls will be executed by {0}, {1} at the same time", new Object[]{virtualThreads ? "virtual threads" : "platform threads", maxConcurrentCalls});
+    }
+    
+    public static ExecutorSingleton getInstance() {
+        return ExecutorSingleton.getGenericInstance(ExecutorSingleton.class);
+    }
+    
+    /**
+     * Java 8 builds can not reference the virtual threads: the factory method is looked up at runtime
+     * 
+     * @return a virtual-thread-per-task executor | null if the JVM does not support virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+            LOGGER.log(Level.CONFIG, "Virtual threads are not supported by this JVM: {0}", e.toString());
+            return null;
+        }
+    }
+    
+    private static ThreadFactory newDaemonThreadFactory(String namePrefix) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * 
+     * @return the executor of the calls
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+    
+    /**
+     * One thread per stream: the number of streams is not limited by twitter.executor.maxConcurrentCalls
+     * 
+     * @return the executor of the streaming calls
+     */
+    public ExecutorService getStreamingExecutorService() {
+        return streamingExecutorService;
+    }
+    
+    /**
+     * 
+     * @return the scheduler used to stop the calls which take too long
+     */
+    public ScheduledExecutorService getTimeoutScheduler() {
+        return timeoutScheduler;
+    }
+    
+    /**
+     * A call must acquire a permit before being executed, and release it once completed
+     * 
+     * @return the permits of the calls (cf. twitter.executor.maxConcurrentCalls)
+     */
+    public Semaphore getCallPermits() {
+        return callPermits;
+    }
+    
+    /**
+     * 
+     * @return true if the calls are executed by virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+}
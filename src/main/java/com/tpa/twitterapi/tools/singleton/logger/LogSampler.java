@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets only 1 event out of N be logged, for events happening for every message (cf. TwitterLogger.isLoggable(Level, LogSampler))
+ * 
+ * The default rate is given by java.util.logging.sampleRate in the config.properties (1 to log every event)
+ * 
+ * This class is thread-safe
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class LogSampler {
+    
+    private final int rate;
+    private final AtomicLong eventCount;
+    
+    /**
+     * 
+     * @param rate : 1 event logged every rate events (1 or less: every event is logged)
+     */
+    public LogSampler(int rate) {
+        this.rate = Math.max(1, rate);
+        this.eventCount = new AtomicLong();
+    }
+    
+    /**
+     * Counts a new event
+     * 
+     * @return true if this event must be logged
+     */
+    public boolean sample() {
+        long count = eventCount.getAndIncrement();
+        return rate == 1 || count % rate == 0;
+    }
+    
+    public int getRate() {
+        return rate;
+    }
+    
+    /**
+     * 
+     * @return the number of events counted by sample()
+     */
+    public long getEventCount() {
+        return eventCount.get();
+    }
+}
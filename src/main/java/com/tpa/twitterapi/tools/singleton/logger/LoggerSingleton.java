@@ -16,7 +16,11 @@
 package com.tpa.twitterapi.tools.singleton.logger;
 
 import com.tpa.twitterapi.tools.singleton.AbstractSingleton;
+import com.tpa.twitterapi.tools.singleton.logger.handler.AsyncHandler;
+import com.tpa.twitterapi.tools.singleton.logger.handler.RoutingHandler;
 import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -28,6 +32,7 @@ import java.util.logging.Formatter;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.logging.StreamHandler;
 
 /**
  * A singleton to log information
@@ -40,6 +45,12 @@ import java.util.logging.Logger;
  * - java.util.logging.FileHandler.keepSameFile=true|false => false if you want to reset the log file(s) at each restart
  * - java.util.logging.FileHandler.formatter=class_path => the formatter you want to use 
  * - java.util.logging.level=VALUE => minimum level you want to log
+ * - java.util.logging.async=true|false => true if you want logs to be written by a background thread (cf. AsyncHandler), and not to the console
+ *   (1 thread for the whole app, even with 1 file per class)
+ * - java.util.logging.async.capacity=N => max number of logs waiting to be written
+ * - java.util.logging.async.batchSize=N => max number of logs written between 2 flushes
+ * - java.util.logging.async.overflowPolicy=DROP|BLOCK => what to do when N logs are already waiting
+ * - java.util.logging.sampleRate=N => only 1 event out of N is logged for events happening for every message (cf. newLogSampler())
  * 
  * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
  */
@@ -49,6 +60,10 @@ public class LoggerSingleton extends AbstractSingleton {
     
     private final Map<String, Logger> loggers;
     
+    // Shared by all the loggers when java.util.logging.async=true: the RoutingHandler writes the file of each logger
+    private AsyncHandler asyncHandler;
+    private RoutingHandler routingHandler;
+    
     public LoggerSingleton() {
         loggers = new HashMap<>();
     }
@@ -57,6 +72,25 @@ public class LoggerSingleton extends AbstractSingleton {
         return LoggerSingleton.getGenericInstance(LoggerSingleton.class);
     }
 
+    /**
+     * Returns the facade of the logger for the given class, to be used on hot paths
+     * 
+     * @param loggerClass
+     * @return TwitterLogger
+     */
+    public TwitterLogger getTwitterLogger(Class loggerClass) {
+        return new TwitterLogger(getLogger(loggerClass));
+    }
+    
+    /**
+     * Creates a sampler with the default rate: java.util.logging.sampleRate
+     * 
+     * @return LogSampler
+     */
+    public LogSampler newLogSampler() {
+        return new LogSampler(PROPERTY_SINGLETON.getInteger("java.util.logging.sampleRate"));
+    }
+
     /**
      * Creates and returns the logger for the given class
      * 
@@ -93,9 +127,18 @@ public class LoggerSingleton extends AbstractSingleton {
                 
                 Logger logger = Logger.getLogger(loggerName);
                 
-                Handler fh = new FileHandler(PROPERTY_SINGLETON.getProperty("java.util.logging.FileHandler.dirName")
-                        + logFileName, 
-                        PROPERTY_SINGLETON.getBoolean("java.util.logging.FileHandler.keepSameFile"));
+                String logFilePath = PROPERTY_SINGLETON.getProperty("java.util.logging.FileHandler.dirName") + logFileName;
+                Boolean keepSameFile = PROPERTY_SINGLETON.getBoolean("java.util.logging.FileHandler.keepSameFile");
+                
+                Handler fh;
+                if (PROPERTY_SINGLETON.getBoolean("java.util.logging.async")) {
+                    fh = getAsyncHandler(loggerName, logFilePath, keepSameFile);
+                    // Otherwise the root ConsoleHandler still writes every record on the logging thread
+                    logger.setUseParentHandlers(false);
+                }
+                else {
+                    fh = new FileHandler(logFilePath, keepSameFile);
+                }
                 
                 fh.setFormatter(PROPERTY_SINGLETON.getObject("java.util.logging.FileHandler.formatter", Formatter.class));
                 
@@ -112,4 +155,37 @@ public class LoggerSingleton extends AbstractSingleton {
         
         return Logger.getLogger(LoggerSingleton.class.getName());
     }
+    
+    /**
+     * Returns the AsyncHandler shared by all the loggers, after adding the file of the given logger to it
+     * 
+     * So there is only 1 writer thread and 1 shutdown hook, whatever the number of log files
+     * 
+     * Unlike the FileHandler, the file stream is not flushed after every log: the AsyncHandler flushes it after every batch
+     * 
+     * @param loggerName : the name of the logger writing in the file
+     * @param logFilePath
+     * @param keepSameFile : true to append logs to the existing file
+     * @return the AsyncHandler
+     * @throws IOException 
+     */
+    private synchronized Handler getAsyncHandler(String loggerName, String logFilePath, Boolean keepSameFile) throws IOException {
+        
+        if (asyncHandler == null) {
+            routingHandler = new RoutingHandler();
+            
+            asyncHandler = new AsyncHandler(routingHandler, 
+                    PROPERTY_SINGLETON.getInteger("java.util.logging.async.capacity"), 
+                    AsyncHandler.OverflowPolicy.valueOf(PROPERTY_SINGLETON.getProperty("java.util.logging.async.overflowPolicy")), 
+                    PROPERTY_SINGLETON.getInteger("java.util.logging.async.batchSize"));
+            
+            // The waiting logs of all the files are written before the JVM stops
+            Runtime.getRuntime().addShutdownHook(new Thread(asyncHandler::close, "twitter-async-log-shutdown"));
+        }
+        
+        routingHandler.addHandler(loggerName, new StreamHandler(new BufferedOutputStream(new FileOutputStream(logFilePath, keepSameFile)), 
+                PROPERTY_SINGLETON.getObject("java.util.logging.FileHandler.formatter", Formatter.class)));
+        
+        return asyncHandler;
+    }
 }
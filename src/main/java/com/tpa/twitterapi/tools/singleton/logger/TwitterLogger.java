@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.logger;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A thin facade on a java.util.logging.Logger for the hot paths (cf. LoggerSingleton.getTwitterLogger())
+ * 
+ * - the level is checked before anything else: a disabled log costs nothing
+ * - parameterized messages with 1 or 2 parameters do not need any Object[] from the caller
+ * - events happening for every message can be sampled with a LogSampler
+ * 
+ * If a parameter is expensive to compute, check isLoggable() first:
+ * 
+ *      if (TWITTER_LOGGER.isLoggable(Level.INFO, sampler)) {
+ *          TWITTER_LOGGER.log(Level.INFO, "A line was parsed: {0}", expensiveValue());
+ *      }
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class TwitterLogger {
+    
+    private final Logger logger;
+    
+    public TwitterLogger(Logger logger) {
+        this.logger = logger;
+    }
+    
+    public Logger getLogger() {
+        return logger;
+    }
+    
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+    
+    /**
+     * Checks the level, then counts the event in the sampler
+     * 
+     * @param level
+     * @param sampler
+     * @return true if the event must be logged
+     */
+    public boolean isLoggable(Level level, LogSampler sampler) {
+        return logger.isLoggable(level) && sampler.sample();
+    }
+    
+    public void log(Level level, String message) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, message);
+        }
+    }
+    
+    public void log(Level level, String pattern, Object parameter) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, pattern, parameter);
+        }
+    }
+    
+    public void log(Level level, String pattern, Object parameter1, Object parameter2) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, pattern, new Object[]{parameter1, parameter2});
+        }
+    }
+    
+    public void log(Level level, String message, Throwable thrown) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, message, thrown);
+        }
+    }
+    
+    /**
+     * Logs only 1 event out of sampler.getRate()
+     * 
+     * @param level
+     * @param sampler
+     * @param pattern
+     * @param parameter 
+     */
+    public void logSampled(Level level, LogSampler sampler, String pattern, Object parameter) {
+        if (isLoggable(level, sampler)) {
+            logger.log(level, pattern, parameter);
+        }
+    }
+    
+    /**
+     * Logs only 1 event out of sampler.getRate()
+     * 
+     * @param level
+     * @param sampler
+     * @param pattern
+     * @param parameter1
+     * @param parameter2 
+     */
+    public void logSampled(Level level, LogSampler sampler, String pattern, Object parameter1, Object parameter2) {
+        if (isLoggable(level, sampler)) {
+            logger.log(level, pattern, new Object[]{parameter1, parameter2});
+        }
+    }
+}
@@ -32,7 +32,7 @@ public class TwitterFormatter extends Formatter {
      * @return a formatted log record
      */
     @Override
-    public synchronized String format(LogRecord record) {
+    public String format(LogRecord record) {
 
         StringBuilder sb = new StringBuilder();
 
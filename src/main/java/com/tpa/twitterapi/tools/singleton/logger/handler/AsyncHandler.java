@@ -0,0 +1,249 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.logger.handler;
+
+import com.tpa.twitterapi.tools.collection.RingBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * A handler which does not write the logs itself: records are put in a lock-free RingBuffer
+ * and a background thread gives them, by batches, to the delegate handler (for ex. a FileHandler)
+ * 
+ * So the logging threads never wait for the disk, nor for each other
+ * 
+ * If the buffer is full, the OverflowPolicy defines what to do:
+ * - DROP: the record is dropped (cf. getDroppedCount())
+ * - BLOCK: the logging thread waits for a free slot
+ * 
+ * The message of a record with parameters is formatted by the logging thread, before it is buffered:
+ * a mutable parameter (ex. StreamingMetrics) is rendered with its value at the time of the log, not at the time of the writing
+ * 
+ * NB: the caller of the record (class and method) is not inferred, so formatters using it will not find it
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class AsyncHandler extends Handler {
+    
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+    
+    // Max waiting time of the writer when the buffer is empty
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    // Waiting time of a blocked logging thread before trying again
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    // Only used to format the messages of the records (thread-safe)
+    private static final Formatter MESSAGE_FORMATTER = new SimpleFormatter();
+    
+    private final Handler delegate;
+    private final RingBuffer<LogRecord> ringBuffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    
+    private final AtomicLong droppedCount;
+    private final Thread writer;
+    
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    
+    /**
+     * 
+     * @param delegate : the handler which really writes the records
+     * @param capacity : the max number of records waiting to be written
+     * @param overflowPolicy : what to do when the buffer is full
+     * @param batchSize : the max number of records written between 2 flushes of the delegate
+     */
+    public AsyncHandler(Handler delegate, int capacity, OverflowPolicy overflowPolicy, int batchSize) {
+        this.delegate = delegate;
+        this.ringBuffer = new RingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = Math.max(1, batchSize);
+        this.droppedCount = new AtomicLong();
+        
+        this.writer = new Thread(this::write, "twitter-async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        
+        snapshot(record);
+        
+        while (!ringBuffer.offer(record)) {
+            if (overflowPolicy == OverflowPolicy.DROP || closed) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+            
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+        
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+    
+    /**
+     * Waits until all the published records are written, then flushes the delegate
+     */
+    @Override
+    public void flush() {
+        while (!ringBuffer.isEmpty() && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+        
+        synchronized (delegate) {
+            delegate.flush();
+        }
+    }
+    
+    /**
+     * Writes the remaining records, then closes the delegate
+     */
+    @Override
+    public void close() throws SecurityException {
+        if (closed) {
+            return;
+        }
+        
+        closed = true;
+        LockSupport.unpark(writer);
+        
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        synchronized (delegate) {
+            delegate.close();
+        }
+    }
+    
+    @Override
+    public void setFormatter(Formatter newFormatter) throws SecurityException {
+        super.setFormatter(newFormatter);
+        delegate.setFormatter(newFormatter);
+    }
+    
+    @Override
+    public synchronized void setLevel(Level newLevel) throws SecurityException {
+        super.setLevel(newLevel);
+        delegate.setLevel(newLevel);
+    }
+    
+    /**
+     * 
+     * @return the number of records dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    
+    /**
+     * 
+     * @return the number of records waiting to be written
+     */
+    public int getPendingCount() {
+        return ringBuffer.size();
+    }
+    
+    public Handler getDelegate() {
+        return delegate;
+    }
+    
+    /**
+     * Replaces the message and the parameters of the record with the formatted message
+     * 
+     * @param record 
+     */
+    private static void snapshot(LogRecord record) {
+        Object[] parameters = record.getParameters();
+        
+        if (parameters != null && parameters.length > 0) {
+            record.setMessage(MESSAGE_FORMATTER.formatMessage(record));
+            record.setParameters(null);
+        }
+    }
+    
+    /**
+     * The loop of the writer thread
+     */
+    private void write() {
+        while (true) {
+            int written = writeBatch();
+            
+            if (written > 0) {
+                continue;
+            }
+            
+            if (closed) {
+                // Last records published before the close
+                while (writeBatch() > 0) {
+                }
+                return;
+            }
+            
+            writerParked = true;
+            // Checked again: a record may have been published before writerParked was set
+            if (ringBuffer.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+    
+    /**
+     * 
+     * @return the number of written records
+     */
+    private int writeBatch() {
+        int written = 0;
+        
+        synchronized (delegate) {
+            LogRecord record;
+            while (written < batchSize && (record = ringBuffer.poll()) != null) {
+                try {
+                    delegate.publish(record);
+                } catch (RuntimeException e) {
+                    reportError("Record could not be written", e, ErrorManager.WRITE_FAILURE);
+                }
+                written++;
+            }
+            
+            if (written > 0) {
+                delegate.flush();
+            }
+        }
+        
+        return written;
+    }
+}
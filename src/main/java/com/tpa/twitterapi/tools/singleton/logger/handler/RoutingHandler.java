@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.logger.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A handler which gives each record to the handler of its logger (cf. LogRecord.getLoggerName())
+ * 
+ * Used as the delegate of a single AsyncHandler: so only 1 writer thread writes the files of all the loggers
+ * (cf. LoggerSingleton, with java.util.logging.everyLogInSameFile=false)
+ * 
+ * The records of a logger without handler are ignored
+ * 
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class RoutingHandler extends Handler {
+    
+    private final Map<String, Handler> handlers;
+    
+    public RoutingHandler() {
+        this.handlers = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * 
+     * @param loggerName : the name of the logger
+     * @param handler : writes the records of this logger
+     */
+    public void addHandler(String loggerName, Handler handler) {
+        handlers.put(loggerName, handler);
+    }
+    
+    @Override
+    public void publish(LogRecord record) {
+        Handler handler = handlers.get(record.getLoggerName());
+        
+        if (handler != null) {
+            handler.publish(record);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        for (Handler handler : handlers.values()) {
+            handler.flush();
+        }
+    }
+    
+    @Override
+    public void close() throws SecurityException {
+        for (Handler handler : handlers.values()) {
+            handler.close();
+        }
+    }
+    
+    @Override
+    public void setFormatter(Formatter newFormatter) throws SecurityException {
+        super.setFormatter(newFormatter);
+        for (Handler handler : handlers.values()) {
+            handler.setFormatter(newFormatter);
+        }
+    }
+    
+    @Override
+    public synchronized void setLevel(Level newLevel) throws SecurityException {
+        super.setLevel(newLevel);
+        for (Handler handler : handlers.values()) {
+            handler.setLevel(newLevel);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.tpa.twitterapi.api.authentificator.credential.InterfaceCredentialStore;
+import com.tpa.twitterapi.api.authentificator.credential.TwitterCredentials;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Creates TwitterAuthenticators which do not talk to Twitter: used by the tests of the calls
+ *
+ * The credentials are already stored (so no PIN is asked) and every request is answered by the given function
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class MockTwitterAuthenticator {
+
+    private static final String VERIFY_CREDENTIALS_URL = "https://api.twitter.com/1.1/account/verify_credentials.json";
+
+    private MockTwitterAuthenticator() {
+    }
+
+    /**
+     *
+     * @param responses : gives the response of a request URL (the verify_credentials call is already answered)
+     * @return the TwitterAuthenticator
+     * @throws TwitterAuthenticationException
+     */
+    public static TwitterAuthenticator create(Function<String, LowLevelHttpResponse> responses) throws TwitterAuthenticationException {
+
+        MockHttpTransport httpTransport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        if (url.startsWith(VERIFY_CREDENTIALS_URL)) {
+                            return jsonResponse(200, "{}");
+                        }
+                        return responses.apply(url);
+                    }
+                };
+            }
+        };
+
+        return new TwitterAuthenticator(new InterfaceCredentialStore() {
+            @Override
+            public TwitterCredentials load() {
+                return new TwitterCredentials("token", "tokenSecret");
+            }
+
+            @Override
+            public void save(TwitterCredentials twitterCredentials) {
+            }
+
+            @Override
+            public void clear() {
+            }
+        }, () -> httpTransport);
+    }
+
+    /**
+     *
+     * @param statusCode : the HTTP status code
+     * @param content : the JSON content
+     * @return a response
+     */
+    public static MockLowLevelHttpResponse jsonResponse(int statusCode, String content) {
+        return new MockLowLevelHttpResponse()
+                .setStatusCode(statusCode)
+                .setContentType("application/json")
+                .setContent(content);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.credential;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class EncryptedFileCredentialStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    public EncryptedFileCredentialStoreTest() {
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("store/twitter.credentials");
+        EncryptedFileCredentialStore store = new EncryptedFileCredentialStore(file, "passphrase".toCharArray());
+
+        assertNull(store.load());
+
+        store.save(new TwitterCredentials("my-token", "my-token-secret"));
+
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(content.contains("my-token"));
+
+        TwitterCredentials twitterCredentials = new EncryptedFileCredentialStore(file, "passphrase".toCharArray()).load();
+        assertEquals("my-token", twitterCredentials.getToken());
+        assertEquals("my-token-secret", twitterCredentials.getTokenSecret());
+
+        store.clear();
+        assertNull(store.load());
+    }
+
+    @Test
+    public void testWithoutPassphrase() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("twitter.credentials");
+        EncryptedFileCredentialStore store = new EncryptedFileCredentialStore(file, new char[0]);
+
+        try {
+            store.save(new TwitterCredentials("my-token", "my-token-secret"));
+            fail("Nothing must be stored without passphrase");
+        } catch (IOException e) {
+            assertFalse(Files.exists(file));
+        }
+
+        assertNull(store.load());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongPassphrase() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("twitter.credentials");
+        new EncryptedFileCredentialStore(file, "passphrase".toCharArray()).save(new TwitterCredentials("my-token", "my-token-secret"));
+
+        new EncryptedFileCredentialStore(file, "another passphrase".toCharArray()).load();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.ratelimit;
+
+import com.google.api.client.http.HttpHeaders;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class RateLimitGovernorTest {
+
+    private static final String ENDPOINT = "https://api.twitter.com/1.1/search/tweets.json";
+
+    // 2017-05-01T10:00:00Z
+    private static final long NOW = 1493632800000L;
+
+    public RateLimitGovernorTest() {
+    }
+
+    private static HttpHeaders headers(long limit, long remaining, long resetEpochMillis) {
+        return new HttpHeaders()
+                .set("x-rate-limit-limit", String.valueOf(limit))
+                .set("x-rate-limit-remaining", String.valueOf(remaining))
+                .set("x-rate-limit-reset", String.valueOf(resetEpochMillis / 1000));
+    }
+
+    @Test
+    public void testUnknownEndpointIsNotLimited() {
+        RateLimitGovernor rateLimitGovernor = new RateLimitGovernor(true, 0);
+
+        assertEquals(0, rateLimitGovernor.tryAcquire(ENDPOINT, NOW));
+        assertEquals(-1, rateLimitGovernor.getRemaining(ENDPOINT));
+        assertNull(rateLimitGovernor.getWindow(ENDPOINT));
+    }
+
+    @Test
+    public void testTokensAndWindowReset() {
+        RateLimitGovernor rateLimitGovernor = new RateLimitGovernor(true, 0);
+        long reset = NOW + 60000;
+
+        rateLimitGovernor.update(ENDPOINT, headers(180, 2, reset), NOW);
+
+        assertEquals(0, rateLimitGovernor.tryAcquire(ENDPOINT, NOW));
+        assertEquals(0, rateLimitGovernor.tryAcquire(ENDPOINT, NOW));
+        assertEquals(0, rateLimitGovernor.getWindow(ENDPOINT).getRemaining());
+
+        // No token left: wait until the reset (and its clock margin)
+        long wait = rateLimitGovernor.tryAcquire(ENDPOINT, NOW);
+        assertTrue(wait >= 60000 && wait <= 61000);
+
+        // New window: the bucket is full again
+        assertEquals(0, rateLimitGovernor.tryAcquire(ENDPOINT, NOW + wait));
+        assertEquals(179, rateLimitGovernor.getWindow(ENDPOINT).getRemaining());
+    }
+
+    @Test
+    public void testUpdateKeepsTheLowestRemaining() {
+        RateLimitGovernor rateLimitGovernor = new RateLimitGovernor(true, 0);
+        long reset = NOW + 60000;
+
+        rateLimitGovernor.update(ENDPOINT, headers(180, 100, reset), NOW);
+        rateLimitGovernor.update(ENDPOINT, headers(180, 120, reset), NOW);
+        assertEquals(100, rateLimitGovernor.getWindow(ENDPOINT).getRemaining());
+
+        rateLimitGovernor.update(ENDPOINT, headers(180, 90, reset), NOW);
+        assertEquals(90, rateLimitGovernor.getWindow(ENDPOINT).getRemaining());
+
+        // A response of a past window is ignored
+        rateLimitGovernor.update(ENDPOINT, headers(180, 0, NOW - 60000), NOW);
+        assertEquals(90, rateLimitGovernor.getWindow(ENDPOINT).getRemaining());
+
+        // A new window replaces the current one
+        rateLimitGovernor.update(ENDPOINT, headers(180, 179, reset + 900000), NOW);
+        assertEquals(179, rateLimitGovernor.getWindow(ENDPOINT).getRemaining());
+    }
+
+    @Test(expected = TwitterRequestException.class)
+    public void testAcquireFailsWhenTheWaitIsTooLong() throws TwitterRequestException {
+        RateLimitGovernor rateLimitGovernor = new RateLimitGovernor(true, 1000);
+
+        rateLimitGovernor.update(ENDPOINT, headers(180, 0, System.currentTimeMillis() + 60000));
+        rateLimitGovernor.acquire(ENDPOINT);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.authentificator.transport;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpVersion;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class ApacheHttpTransportFactoryTest {
+
+    public ApacheHttpTransportFactoryTest() {
+    }
+
+    @Test
+    public void testCreateHttpTransport() throws Exception {
+        HttpTransport httpTransport = new ApacheHttpTransportFactory().createHttpTransport();
+
+        assertTrue(httpTransport instanceof ApacheHttpTransport);
+
+        ApacheHttpTransport apacheHttpTransport = (ApacheHttpTransport) httpTransport;
+        HttpParams params = apacheHttpTransport.getHttpClient().getParams();
+
+        assertTrue(apacheHttpTransport.getHttpClient().getConnectionManager() instanceof ThreadSafeClientConnManager);
+        assertTrue(HttpConnectionParams.isStaleCheckingEnabled(params));
+        assertEquals(65536, HttpConnectionParams.getSocketBufferSize(params));
+        assertEquals(20, ConnManagerParams.getMaxConnectionsPerRoute(params).getMaxForRoute(new HttpRoute(new HttpHost("api.twitter.com", 443, "https"))));
+
+        apacheHttpTransport.shutdown();
+    }
+
+    @Test
+    public void testRetryOnlyGetOnce() throws Exception {
+        ApacheHttpTransport apacheHttpTransport = (ApacheHttpTransport) new ApacheHttpTransportFactory().createHttpTransport();
+        HttpRequestRetryHandler retryHandler = ((DefaultHttpClient) apacheHttpTransport.getHttpClient()).getHttpRequestRetryHandler();
+
+        HttpContext getContext = new BasicHttpContext();
+        getContext.setAttribute(ExecutionContext.HTTP_REQUEST, new BasicHttpRequest("GET", "/1.1/search/tweets.json"));
+        HttpContext postContext = new BasicHttpContext();
+        postContext.setAttribute(ExecutionContext.HTTP_REQUEST, new BasicHttpRequest("POST", "/oauth2/token"));
+
+        assertTrue(retryHandler.retryRequest(new NoHttpResponseException("closed"), 1, getContext));
+        assertFalse(retryHandler.retryRequest(new NoHttpResponseException("closed"), 2, getContext));
+        assertFalse(retryHandler.retryRequest(new NoHttpResponseException("closed"), 1, postContext));
+
+        apacheHttpTransport.shutdown();
+    }
+
+    @Test
+    public void testKeepAliveOfTheServerIsCapped() throws Exception {
+        ApacheHttpTransport apacheHttpTransport = (ApacheHttpTransport) new ApacheHttpTransportFactory().createHttpTransport();
+        ConnectionKeepAliveStrategy keepAliveStrategy = ((DefaultHttpClient) apacheHttpTransport.getHttpClient()).getConnectionKeepAliveStrategy();
+
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        assertEquals(60000, keepAliveStrategy.getKeepAliveDuration(response, new BasicHttpContext()));
+
+        response.setHeader("Keep-Alive", "timeout=5");
+        assertEquals(5000, keepAliveStrategy.getKeepAliveDuration(response, new BasicHttpContext()));
+
+        response.setHeader("Keep-Alive", "timeout=600");
+        assertEquals(60000, keepAliveStrategy.getKeepAliveDuration(response, new BasicHttpContext()));
+
+        apacheHttpTransport.shutdown();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.call;
+
+import com.tpa.twitterapi.api.authentificator.MockTwitterAuthenticator;
+import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+import static com.tpa.twitterapi.api.generic.bean.TwitterFixtures.statusWithoutAuthor;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class SearchPagesTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final long STATUS_COUNT = 25;
+
+    public SearchPagesTest() {
+    }
+
+    /**
+     * Answers like the Twitter search: the PAGE_SIZE most recent statuses with an ID <= max_id
+     */
+    private static TwitterAuthenticator createTwitterAuthenticator(AtomicInteger requests, long failingMaxId) throws TwitterAuthenticationException {
+        return MockTwitterAuthenticator.create(url -> {
+            requests.incrementAndGet();
+
+            long maxId = STATUS_COUNT;
+            int maxIdIndex = url.indexOf("max_id=");
+            if (maxIdIndex >= 0) {
+                String value = url.substring(maxIdIndex + 7);
+                maxId = Long.parseLong(value.contains("&") ? value.substring(0, value.indexOf('&')) : value);
+            }
+            if (maxId == failingMaxId) {
+                return MockTwitterAuthenticator.jsonResponse(500, "{}");
+            }
+
+            StringBuilder content = new StringBuilder("{\"statuses\":[");
+            for (long id = maxId; id > Math.max(0, maxId - PAGE_SIZE); id--) {
+                content.append(id == maxId ? "" : ",").append(statusWithoutAuthor(id));
+            }
+            return MockTwitterAuthenticator.jsonResponse(200, content.append("]}").toString());
+        });
+    }
+
+    @Test(timeout = 10000)
+    public void testStatuses() throws TwitterAuthenticationException {
+        AtomicInteger requests = new AtomicInteger();
+        Search search = new Search(createTwitterAuthenticator(requests, -1)).addParameter("q", "bieber");
+
+        List<Long> ids;
+        try (Stream<TwitterStatus> statuses = search.pages(10).statuses()) {
+            ids = statuses.map(TwitterStatus::getId).collect(Collectors.toList());
+        }
+
+        assertEquals(STATUS_COUNT, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(Long.valueOf(STATUS_COUNT - i), ids.get(i));
+        }
+        // 3 pages and the empty page
+        assertEquals(4, requests.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testPrefetchAndMaxPages() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        Search search = new Search(createTwitterAuthenticator(requests, -1)).addParameter("q", "bieber");
+
+        try (SearchPages pages = search.pages(2)) {
+            assertEquals(PAGE_SIZE, pages.nextPage().getStatuses().size());
+
+            // The second page is requested before being asked for
+            while (requests.get() < 2) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(Long.valueOf(STATUS_COUNT - PAGE_SIZE), pages.nextPage().getStatuses().get(0).getId());
+            assertFalse(pages.hasNext());
+        }
+
+        assertEquals(2, requests.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedPage() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        Search search = new Search(createTwitterAuthenticator(requests, STATUS_COUNT - PAGE_SIZE)).addParameter("q", "bieber");
+
+        try (SearchPages pages = search.pages(10)) {
+            pages.nextPage();
+            assertTrue(pages.hasNext());
+
+            try {
+                pages.nextPage();
+                fail("The request of the second page should fail");
+            } catch (TwitterRequestException e) {
+                assertFalse(pages.hasNext());
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.call;
+
+import com.tpa.twitterapi.api.authentificator.MockTwitterAuthenticator;
+import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import static com.tpa.twitterapi.api.generic.bean.TwitterFixtures.statusWithoutAuthor;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class SearchPollerTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    public SearchPollerTest() {
+    }
+
+    private static long getParameter(String url, String name, long defaultValue) {
+        int index = url.indexOf(name + "=");
+        if (index < 0) {
+            return defaultValue;
+        }
+        String value = url.substring(index + name.length() + 1);
+        return Long.parseLong(value.contains("&") ? value.substring(0, value.indexOf('&')) : value);
+    }
+
+    /**
+     * Answers like the Twitter search, the last published status being lastId
+     */
+    private static TwitterAuthenticator createTwitterAuthenticator(AtomicLong lastId, List<String> urls) throws Exception {
+        return MockTwitterAuthenticator.create(url -> {
+            urls.add(url);
+
+            long maxId = getParameter(url, "max_id", lastId.get());
+            long sinceId = getParameter(url, "since_id", 0);
+
+            StringBuilder content = new StringBuilder("{\"statuses\":[");
+            for (long id = maxId; id > Math.max(sinceId, maxId - PAGE_SIZE); id--) {
+                content.append(id == maxId ? "" : ",").append(statusWithoutAuthor(id));
+            }
+            return MockTwitterAuthenticator.jsonResponse(200, content.append("]}").toString());
+        });
+    }
+
+    @Test
+    public void testPollOnlyNewStatuses() throws Exception {
+        AtomicLong lastId = new AtomicLong(100);
+        List<String> urls = new ArrayList<>();
+        List<List<TwitterStatus>> received = new ArrayList<>();
+
+        Search search = new Search(createTwitterAuthenticator(lastId, urls)).addParameter("q", "bieber").addParameter("count", String.valueOf(PAGE_SIZE));
+        SearchPoller searchPoller = new SearchPoller(search, received::add, 1000, 60000, 5);
+
+        // First poll: only the most recent page
+        assertEquals(PAGE_SIZE, searchPoller.poll().size());
+        assertEquals(100, searchPoller.getSinceId());
+
+        // Nothing new: no status, and the listener is not called
+        assertTrue(searchPoller.poll().isEmpty());
+        assertTrue(urls.get(urls.size() - 1).contains("since_id=100"));
+
+        // 25 new statuses: 3 pages
+        lastId.set(125);
+        List<TwitterStatus> newStatuses = searchPoller.poll();
+        assertEquals(25, newStatuses.size());
+        assertEquals(Long.valueOf(125), newStatuses.get(0).getId());
+        assertEquals(Long.valueOf(101), newStatuses.get(24).getId());
+        assertEquals(125, searchPoller.getSinceId());
+
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    public void testBackfillGap() throws Exception {
+        AtomicLong lastId = new AtomicLong(100);
+        List<String> urls = new ArrayList<>();
+
+        Search search = new Search(createTwitterAuthenticator(lastId, urls)).addParameter("count", String.valueOf(PAGE_SIZE));
+        SearchPoller searchPoller = new SearchPoller(search, statuses -> { }, 1000, 60000, 2);
+
+        searchPoller.poll();
+
+        // 50 new statuses, but only 2 pages per poll: 101 to 180 are missing
+        lastId.set(200);
+        List<TwitterStatus> newStatuses = searchPoller.poll();
+        assertEquals(2 * PAGE_SIZE, newStatuses.size());
+        assertEquals(Long.valueOf(181), newStatuses.get(newStatuses.size() - 1).getId());
+        assertEquals(1, searchPoller.getPendingGapCount());
+
+        // The next polls request the gap, after the new statuses
+        lastId.set(205);
+        newStatuses = searchPoller.poll();
+        assertEquals(5 + 2 * PAGE_SIZE, newStatuses.size());
+        assertEquals(Long.valueOf(205), newStatuses.get(0).getId());
+        assertEquals(Long.valueOf(180), newStatuses.get(5).getId());
+        assertTrue(urls.get(urls.size() - 1).contains("since_id=100"));
+
+        newStatuses = searchPoller.poll();
+        newStatuses.addAll(searchPoller.poll());
+        newStatuses.addAll(searchPoller.poll());
+        assertEquals(6 * PAGE_SIZE, newStatuses.size());
+        assertEquals(Long.valueOf(101), newStatuses.get(newStatuses.size() - 1).getId());
+        assertEquals(0, searchPoller.getPendingGapCount());
+        assertEquals(205, searchPoller.getSinceId());
+    }
+
+    @Test
+    public void testAdaptInterval() throws Exception {
+        Search search = new Search(createTwitterAuthenticator(new AtomicLong(0), new ArrayList<>())).addParameter("count", "100");
+        SearchPoller searchPoller = new SearchPoller(search, statuses -> { }, 1000, 8000, 5);
+
+        assertEquals(1000, searchPoller.getIntervalInMillis());
+
+        // No status: the interval is doubled, up to the max
+        searchPoller.adaptInterval(0);
+        assertEquals(2000, searchPoller.getIntervalInMillis());
+        searchPoller.adaptInterval(0);
+        searchPoller.adaptInterval(0);
+        searchPoller.adaptInterval(0);
+        assertEquals(8000, searchPoller.getIntervalInMillis());
+
+        // 100 statuses for a target of 50: the interval is halved
+        searchPoller.adaptInterval(100);
+        assertEquals(4000, searchPoller.getIntervalInMillis());
+
+        // 40 statuses for a target of 50: the interval grows by 25%
+        searchPoller.adaptInterval(40);
+        assertEquals(5000, searchPoller.getIntervalInMillis());
+    }
+
+    @Test(timeout = 10000)
+    public void testStart() throws Exception {
+        AtomicLong lastId = new AtomicLong(10);
+        List<TwitterStatus> received = new CopyOnWriteArrayList<>();
+
+        Search search = new Search(createTwitterAuthenticator(lastId, new CopyOnWriteArrayList<>())).addParameter("count", String.valueOf(PAGE_SIZE));
+
+        try (SearchPoller searchPoller = new SearchPoller(search, received::addAll, 50, 50, 5).start()) {
+            while (received.size() < PAGE_SIZE) {
+                Thread.sleep(10);
+            }
+            lastId.set(15);
+            while (received.size() < PAGE_SIZE + 5) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertEquals(PAGE_SIZE + 5, received.size());
+    }
+}
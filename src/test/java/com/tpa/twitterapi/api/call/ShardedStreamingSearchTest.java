@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.call;
+
+import com.tpa.twitterapi.api.authentificator.MockTwitterAuthenticator;
+import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.api.generic.call.streamingcall.InterfaceStreamingSubscriber;
+import com.tpa.twitterapi.api.generic.call.streamingcall.StreamingSubscription;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import static com.tpa.twitterapi.api.generic.bean.TwitterFixtures.streamedStatus;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class ShardedStreamingSearchTest {
+
+    public ShardedStreamingSearchTest() {
+    }
+
+    @Test
+    public void testSplitTerms() {
+        List<List<String>> shardTerms = ShardedStreamingSearch.splitTerms(Arrays.asList("a", "bb", "ccc", "dddd", "eeeee", "ffffff"), 3);
+
+        assertEquals(3, shardTerms.size());
+        for (List<String> terms : shardTerms) {
+            assertEquals(7, terms.stream().mapToInt(String::length).sum());
+        }
+
+        // Never more shards than terms
+        assertEquals(2, ShardedStreamingSearch.splitTerms(Arrays.asList("a", "b"), 5).size());
+
+        // Never more than 400 terms per shard
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            terms.add("term" + i);
+        }
+        List<List<String>> largeShardTerms = ShardedStreamingSearch.splitTerms(terms, 1);
+        assertEquals(3, largeShardTerms.size());
+        for (List<String> shard : largeShardTerms) {
+            assertTrue(shard.size() <= ShardedStreamingSearch.MAX_TERMS_PER_SHARD);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMergeWithoutDuplicates() throws TwitterAuthenticationException {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> {
+            if (url.contains("track=java")) {
+                return MockTwitterAuthenticator.jsonResponse(200, streamedStatus(1) + streamedStatus(2) + streamedStatus(3));
+            }
+            return MockTwitterAuthenticator.jsonResponse(200, streamedStatus(3) + "\r\n" + streamedStatus(4));
+        });
+
+        Set<Long> ids = new HashSet<>();
+        List<Long> delivered = new ArrayList<>();
+        boolean[] completed = new boolean[1];
+
+        ShardedStreamingSearch shardedStreamingSearch = new ShardedStreamingSearch(twitterAuthenticator, Arrays.asList("java", "scala"), 2);
+        assertEquals(2, shardedStreamingSearch.getShards().size());
+
+        shardedStreamingSearch.executeStreamingRequest(new InterfaceStreamingSubscriber<TwitterStatus>() {
+            @Override
+            public void onSubscribe(StreamingSubscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(TwitterStatus status) {
+                ids.add(status.getId());
+                delivered.add(status.getId());
+            }
+
+            @Override
+            public void onError(TwitterRequestException e) {
+                fail(e.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+
+        assertTrue(completed[0]);
+        assertEquals(4, delivered.size());
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L, 4L)), ids);
+        assertEquals(1, shardedStreamingSearch.getDuplicateCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testFailureWithoutDemand() throws TwitterAuthenticationException {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> {
+            if (url.contains("track=java")) {
+                return MockTwitterAuthenticator.jsonResponse(200, streamedStatus(1) + streamedStatus(2));
+            }
+
+            // Leaves the time to the other shard to wait for the demand of the subscriber
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return MockTwitterAuthenticator.jsonResponse(503, "{}");
+        });
+
+        List<TwitterRequestException> errors = new ArrayList<>();
+
+        new ShardedStreamingSearch(twitterAuthenticator, Arrays.asList("java", "scala"), 2).executeStreamingRequest(new InterfaceStreamingSubscriber<TwitterStatus>() {
+            @Override
+            public void onSubscribe(StreamingSubscription subscription) {
+                // Nothing requested: the failure of a shard must be reported anyway
+            }
+
+            @Override
+            public void onNext(TwitterStatus status) {
+                fail("Nothing was requested");
+            }
+
+            @Override
+            public void onError(TwitterRequestException e) {
+                errors.add(e);
+            }
+
+            @Override
+            public void onComplete() {
+                fail("The stream should fail");
+            }
+        });
+
+        assertEquals(1, errors.size());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class ColumnarTwitterStatusesTest {
+
+    public ColumnarTwitterStatusesTest() {
+    }
+
+    @Test
+    public void testAddStatus() throws IOException {
+        List<TwitterStatus> statuses = TwitterStatusesTest.generateStatuses(100, 42);
+        ColumnarTwitterStatuses twitterStatuses = new ColumnarTwitterStatuses();
+
+        for (TwitterStatus status : statuses) {
+            assertTrue(twitterStatuses.addStatus(status));
+        }
+        for (TwitterStatus status : statuses) {
+            assertFalse(twitterStatuses.addStatus(status));
+        }
+
+        assertEquals(100, twitterStatuses.size());
+        assertEquals(10, twitterStatuses.getAuthorCount());
+        assertEquals(statuses, twitterStatuses.getStatuses());
+
+        for (int i = 0; i < statuses.size(); i++) {
+            TwitterStatus expected = statuses.get(i);
+            TwitterStatus actual = twitterStatuses.getStatuses().get(i);
+
+            assertEquals(expected.getText(), actual.getText());
+            assertEquals(expected.getCreatedEpochMillis(), actual.getCreatedEpochMillis());
+            assertEquals(expected.getCreatedEpochMillis(), twitterStatuses.getCreatedEpochMillis(i));
+            assertEquals(expected.getAuthor().getId(), actual.getAuthor().getId());
+            assertTrue(actual.isValid());
+        }
+    }
+
+    @Test
+    public void testGetOrderedStatusesWhileAdding() throws IOException {
+        List<TwitterStatus> statuses = TwitterStatusesTest.generateStatuses(500, 7);
+        ColumnarTwitterStatuses twitterStatuses = new ColumnarTwitterStatuses(10, null);
+
+        for (int i = 0; i < statuses.size(); i++) {
+            twitterStatuses.addStatus(statuses.get(i));
+
+            if (i % 37 == 0) {
+                assertEquals(TwitterStatusesTest.orderWithComparators(statuses.subList(0, i + 1)), twitterStatuses.getOrderedStatuses());
+            }
+        }
+
+        List<TwitterStatus> expected = TwitterStatusesTest.orderWithComparators(statuses);
+
+        assertEquals(expected, twitterStatuses.getOrderedStatuses());
+        assertEquals(expected, twitterStatuses.getOrderedStatuses(true));
+        assertEquals(expected.subList(0, 10), twitterStatuses.getOrderedStatuses(10));
+    }
+
+    @Test
+    public void testUnicodeTextAndMissingValues() throws IOException {
+        ColumnarTwitterStatuses twitterStatuses = new ColumnarTwitterStatuses();
+        TwitterStatus status = new ObjectMapper().readValue(
+                "{\"id\":1,\"created_at\":\"Mon May 01 12:00:00 +0200 2017\",\"text\":\"Caf\\u00e9 \\ud83d\\ude00\"}", TwitterStatus.class);
+
+        twitterStatuses.addStatus(status);
+        twitterStatuses.addStatus(new TwitterStatus());
+
+        TwitterStatus stored = twitterStatuses.getStatuses().get(0);
+        assertEquals("Café 😀", stored.getText());
+        assertEquals("Mon May 01 10:00:00 +0000 2017", stored.createdDate);
+        assertNull(stored.getAuthor());
+
+        TwitterStatus empty = twitterStatuses.getStatuses().get(1);
+        assertNull(empty.getId());
+        assertNull(empty.getText());
+        assertNull(empty.getCreatedDate());
+        assertEquals(2, twitterStatuses.getOrderedStatuses().size());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpa.twitterapi.api.generic.call.streamingcall.StreamingMessageParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class LazyTwitterStatusTest {
+
+    // A retweet: the nested status has its own id, text and user, which must be skipped
+    private static final String RETWEET = "{\"created_at\":\"Mon May 01 10:00:00 +0000 2017\",\"id\":2,\"id_str\":\"2\","
+            + "\"retweeted_status\":{\"id\":1,\"text\":\"Original\",\"user\":{\"id\":4,\"name\":\"Other\",\"screen_name\":\"other\"}},"
+            + "\"text\":\"RT \\\"Original\\\" \\u00e9\",\"entities\":{\"hashtags\":[{\"text\":\"tag\",\"indices\":[0,4]}]},"
+            + "\"user\":{\"id\":3,\"created_at\":\"Sun Jan 01 10:00:00 +0000 2017\",\"name\":\"Alex\",\"screen_name\":\"alex\"},"
+            + "\"lang\":\"en\"}";
+
+    public LazyTwitterStatusTest() {
+    }
+
+    private static LazyTwitterStatus lazyStatus(String json) {
+        return new LazyTwitterStatus(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSameAsEagerParsing() throws IOException {
+        byte[] message = RETWEET.getBytes(StandardCharsets.UTF_8);
+        TwitterStatus eagerStatus = new StreamingMessageParser<>(TwitterStatus.class).parse(message, 0, message.length);
+        LazyTwitterStatus lazyStatus = new LazyTwitterStatus(message);
+
+        assertEquals(eagerStatus.getId(), lazyStatus.getId());
+        assertEquals(eagerStatus.getText(), lazyStatus.getText());
+        assertEquals("RT \"Original\" \u00e9", lazyStatus.getText());
+        assertEquals(eagerStatus.getCreatedEpochMillis(), lazyStatus.getCreatedEpochMillis());
+        assertEquals(eagerStatus.getAuthor().getId(), lazyStatus.getAuthor().getId());
+        assertEquals("alex", lazyStatus.getAuthor().getScreenName());
+        assertEquals(eagerStatus.isValid(), lazyStatus.isValid());
+        assertEquals(eagerStatus, lazyStatus);
+        assertEquals(eagerStatus.toString(), lazyStatus.toString());
+
+        // The raw message is not a property of the status
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(objectMapper.writeValueAsString(eagerStatus), objectMapper.writeValueAsString(lazyStatus));
+    }
+
+    @Test
+    public void testInvalidMessages() {
+        // Not a status
+        assertFalse(lazyStatus("{\"delete\":{\"status\":{\"id\":1,\"user_id\":3}}}").isValid());
+        // No user
+        assertFalse(lazyStatus("{\"created_at\":\"Mon May 01 10:00:00 +0000 2017\",\"id\":2,\"text\":\"Hello\",\"user\":null}").isValid());
+        // Properties with a wrong type
+        assertFalse(lazyStatus("{\"created_at\":\"Mon May 01 10:00:00 +0000 2017\",\"id\":2,\"text\":\"Hello\",\"user\":\"x\"}").isValid());
+        assertFalse(lazyStatus("{\"created_at\":\"Mon May 01 10:00:00 +0000 2017\",\"id\":2,\"text\":123,\"user\":{\"id\":3}}").isValid());
+        assertFalse(lazyStatus("{\"created_at\":[],\"id\":2,\"text\":\"Hello\",\"user\":{\"id\":3}}").isValid());
+
+        // Truncated message: the properties before the error are kept
+        LazyTwitterStatus truncatedStatus = lazyStatus("{\"id\":2,\"text\":\"Hello\",\"entities\":{\"hash");
+        assertFalse(truncatedStatus.isValid());
+        assertEquals(Long.valueOf(2), truncatedStatus.getId());
+        assertEquals("Hello", truncatedStatus.getText());
+        assertNull(truncatedStatus.getAuthor());
+    }
+
+    @Test
+    public void testLazyParser() throws IOException {
+        byte[] buffer = ("xx" + RETWEET + "yy").getBytes(StandardCharsets.UTF_8);
+
+        StreamingMessageParser<TwitterStatus> parser = new StreamingMessageParser<>(TwitterStatus.class, true);
+        assertTrue(parser.isLazy());
+
+        TwitterStatus status = parser.parse(buffer, 2, buffer.length - 4);
+        assertTrue(status instanceof LazyTwitterStatus);
+        assertEquals(Long.valueOf(2), status.getId());
+
+        // Lazy mode is only for the statuses
+        assertFalse(new StreamingMessageParser<>(TwitterAuthor.class, true).isLazy());
+    }
+}
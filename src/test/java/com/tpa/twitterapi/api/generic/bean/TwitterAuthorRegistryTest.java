@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class TwitterAuthorRegistryTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public TwitterAuthorRegistryTest() {
+    }
+
+    @Test
+    public void testRegister() throws IOException {
+        TwitterAuthorRegistry registry = new TwitterAuthorRegistry(10, true);
+
+        TwitterStatus first = registry.register(MAPPER.readValue(TwitterFixtures.status(1, 100), TwitterStatus.class));
+        TwitterStatus second = registry.register(MAPPER.readValue(TwitterFixtures.status(2, 100), TwitterStatus.class));
+        TwitterStatus other = registry.register(MAPPER.readValue(TwitterFixtures.status(3, 200), TwitterStatus.class));
+
+        assertSame(first.getAuthor(), second.getAuthor());
+        assertNotSame(first.getAuthor(), other.getAuthor());
+        assertSame(first.getAuthor(), registry.getAuthor(100));
+
+        assertEquals(2, registry.getAuthor(100).getStatuses().getStatuses().size());
+        assertEquals(1, registry.getAuthor(200).getStatuses().getStatuses().size());
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.getHitCount());
+        assertEquals(2, registry.getMissCount());
+
+        // A status registered twice is linked once
+        registry.register(second);
+        assertEquals(2, registry.getAuthor(100).getStatuses().getStatuses().size());
+    }
+
+    @Test
+    public void testRegisterLazyStatuses() {
+        TwitterAuthorRegistry registry = new TwitterAuthorRegistry(1, false);
+
+        LazyTwitterStatus first = new LazyTwitterStatus(TwitterFixtures.status(1, 100).getBytes(StandardCharsets.UTF_8));
+        LazyTwitterStatus second = new LazyTwitterStatus(TwitterFixtures.status(2, 100).getBytes(StandardCharsets.UTF_8));
+        LazyTwitterStatus other = new LazyTwitterStatus(TwitterFixtures.status(3, 200).getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Long.valueOf(100), first.getAuthorId());
+
+        registry.register(first);
+        registry.register(second);
+
+        assertSame(first.getAuthor(), second.getAuthor());
+        assertEquals(Long.valueOf(100), second.getAuthor().getId());
+        assertEquals("Alex", second.getAuthor().getName());
+        assertEquals(0, first.getAuthor().getStatuses().getStatuses().size());
+
+        // The registry keeps only 1 author
+        registry.register(other);
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.getEvictionCount());
+        assertNull(registry.getAuthor(100));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class TwitterDateParserTest {
+
+    public TwitterDateParserTest() {
+    }
+
+    /**
+     * The former implementation of GenericTwitterBean.getCreatedDate()
+     */
+    private static long parseWithSimpleDateFormat(String twitterDate) throws ParseException {
+        SimpleDateFormat sf = new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH);
+        sf.setLenient(true);
+        return sf.parse(twitterDate).getTime();
+    }
+
+    @Test
+    public void testParseEpochMillis() throws ParseException {
+        String[] twitterDates = {
+            "Mon May 01 10:00:00 +0000 2017",
+            "Thu Feb 29 23:59:59 +0000 2016",
+            "Wed Dec 31 23:00:00 -0130 2014",
+            "Sat Jan 01 00:00:01 +0200 2000"
+        };
+
+        for (String twitterDate : twitterDates) {
+            assertEquals(twitterDate, parseWithSimpleDateFormat(twitterDate), TwitterDateParser.parseEpochMillis(twitterDate));
+        }
+    }
+
+    @Test
+    public void testParseEpochMillisWithoutFixedWidth() throws ParseException {
+        String twitterDate = "Mon May 1 10:00:00 +0000 2017";
+
+        assertEquals(parseWithSimpleDateFormat(twitterDate), TwitterDateParser.parseEpochMillis(twitterDate));
+    }
+
+    @Test
+    public void testParseEpochMillisIgnoresDayOfWeek() throws ParseException {
+        long epochMillis = parseWithSimpleDateFormat("Mon May 01 10:00:00 +0000 2017");
+
+        assertEquals(epochMillis, TwitterDateParser.parseEpochMillis("Tue May 01 10:00:00 +0000 2017"));
+        assertEquals(epochMillis, TwitterDateParser.parseEpochMillis("Tue May 1 10:00:00 +0000 2017"));
+    }
+
+    @Test
+    public void testParseEpochMillisWithWrongValue() {
+        assertEquals(TwitterDateParser.UNKNOWN_EPOCH_MILLIS, TwitterDateParser.parseEpochMillis(null));
+        assertEquals(TwitterDateParser.UNKNOWN_EPOCH_MILLIS, TwitterDateParser.parseEpochMillis(""));
+        assertEquals(TwitterDateParser.UNKNOWN_EPOCH_MILLIS, TwitterDateParser.parseEpochMillis("Mon Foo 01 10:00:00 +0000 2017"));
+        assertEquals(TwitterDateParser.UNKNOWN_EPOCH_MILLIS, TwitterDateParser.parseEpochMillis("Mon Feb 31 10:00:00 +0000 2017"));
+        assertEquals(TwitterDateParser.UNKNOWN_EPOCH_MILLIS, TwitterDateParser.parseEpochMillis("Mon May 01 25:00:00 +0000 2017"));
+    }
+
+    @Test
+    public void testGetCreatedEpochMillis() throws IOException, ParseException {
+        TwitterAuthor author = new ObjectMapper().readValue("{\"id\":1,\"created_at\":\"Mon May 01 10:00:00 +0000 2017\"}", TwitterAuthor.class);
+
+        assertEquals(parseWithSimpleDateFormat("Mon May 01 10:00:00 +0000 2017"), author.getCreatedEpochMillis());
+        assertEquals(author.getCreatedEpochMillis(), author.getCreatedDate().getTime());
+    }
+
+    @Test
+    public void testSetCreatedDate() throws IOException, ParseException {
+        TwitterAuthor author = new ObjectMapper().readValue("{\"id\":1,\"created_at\":\"Mon May 01 10:00:00 +0000 2017\"}", TwitterAuthor.class);
+        author.getCreatedEpochMillis();
+
+        // The memoized value must not be returned anymore
+        author.setCreatedDate("Sun Jan 01 10:00:00 +0000 2017");
+        assertEquals(parseWithSimpleDateFormat("Sun Jan 01 10:00:00 +0000 2017"), author.getCreatedEpochMillis());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+/**
+ * JSON statuses shared by the tests: the same format as the messages sent by Twitter, with only the properties used by the API
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public final class TwitterFixtures {
+
+    public static final String STATUS_CREATED_AT = "Mon May 01 10:00:00 +0000 2017";
+    public static final String AUTHOR_CREATED_AT = "Sun Jan 01 10:00:00 +0000 2017";
+
+    public static final long AUTHOR_ID = 2;
+
+    // Separates the messages of a stream
+    public static final String STREAM_DELIMITER = "\r\n";
+
+    private TwitterFixtures() {
+    }
+
+    /**
+     * @param id : the ID of the status
+     * @return a status of the author AUTHOR_ID, with "Status <id>" as text
+     */
+    public static String status(long id) {
+        return status(id, AUTHOR_ID);
+    }
+
+    /**
+     * @param id : the ID of the status
+     * @param authorId : the ID of the author
+     * @return a status of the given author, with "Status <id>" as text
+     */
+    public static String status(long id, long authorId) {
+        return json(id, ",\"user\":{\"id\":" + authorId + ",\"created_at\":\"" + AUTHOR_CREATED_AT + "\",\"name\":\"Alex\",\"screen_name\":\"alex\"}");
+    }
+
+    /**
+     * @param id : the ID of the status
+     * @return a status without user (like the results of the search pages)
+     */
+    public static String statusWithoutAuthor(long id) {
+        return json(id, "");
+    }
+
+    /**
+     * @param id : the ID of the status
+     * @return a status followed by the delimiter of the stream
+     */
+    public static String streamedStatus(long id) {
+        return status(id) + STREAM_DELIMITER;
+    }
+
+    private static String json(long id, String user) {
+        return "{\"id\":" + id + ",\"created_at\":\"" + STATUS_CREATED_AT + "\",\"text\":\"Status " + id + "\"" + user + "}";
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class TwitterStatusesTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] DATES = {
+        "Mon May 01 10:00:00 +0000 2017",
+        "Mon May 01 10:00:01 +0000 2017",
+        "Sun Jan 01 10:00:00 +0000 2017",
+        "Thu Feb 02 09:30:00 +0000 2017"
+    };
+
+    public TwitterStatusesTest() {
+    }
+
+    /**
+     * Generates statuses with a lot of equal dates and authors, to check all the ordering rules
+     */
+    static List<TwitterStatus> generateStatuses(int size, long seed) throws IOException {
+        Random random = new Random(seed);
+        List<TwitterStatus> statuses = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            int author = random.nextInt(10);
+
+            statuses.add(MAPPER.readValue("{\"id\":" + (1000 + i)
+                    + ",\"created_at\":\"" + DATES[random.nextInt(DATES.length)] + "\""
+                    + ",\"text\":\"Status " + i + "\""
+                    + ",\"user\":{\"id\":" + author
+                    + ",\"created_at\":\"" + DATES[author % DATES.length] + "\""
+                    + ",\"name\":\"Author " + author + "\",\"screen_name\":\"author_" + author + "\"}}", TwitterStatus.class));
+        }
+
+        return statuses;
+    }
+
+    /**
+     * The former implementation of getOrderedStatuses()
+     */
+    static List<TwitterStatus> orderWithComparators(List<TwitterStatus> statuses) {
+        Comparator<TwitterStatus> comparator = Comparator.comparing(currentStatus -> currentStatus.getAuthor().getCreatedDate());
+        comparator = comparator.thenComparing(Comparator.comparing(currentStatus -> currentStatus.getAuthor().getId()));
+        comparator = comparator.thenComparing(Comparator.comparing(currentStatus -> currentStatus.getCreatedDate()));
+
+        return statuses.stream().sorted(comparator).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testGetOrderedStatuses() throws IOException {
+        List<TwitterStatus> statuses = generateStatuses(500, 42);
+        TwitterStatuses twitterStatuses = new TwitterStatuses(statuses);
+
+        List<TwitterStatus> expected = orderWithComparators(statuses);
+
+        assertEquals(expected, twitterStatuses.getOrderedStatuses(false));
+        assertEquals(expected, twitterStatuses.getOrderedStatuses(true));
+        assertEquals(expected, twitterStatuses.getOrderedStatuses());
+    }
+
+    @Test
+    public void testGetOrderedStatusesWhileAdding() throws IOException {
+        List<TwitterStatus> statuses = generateStatuses(500, 7);
+        TwitterStatuses twitterStatuses = new TwitterStatuses(new ArrayList<>());
+
+        for (int i = 0; i < statuses.size(); i++) {
+            twitterStatuses.addStatus(statuses.get(i));
+
+            if (i % 100 == 0) {
+                assertEquals(orderWithComparators(statuses.subList(0, i + 1)), twitterStatuses.getOrderedStatuses());
+            }
+        }
+
+        List<TwitterStatus> expected = orderWithComparators(statuses);
+
+        assertEquals(expected, twitterStatuses.getOrderedStatuses());
+        assertEquals(expected.subList(0, 10), twitterStatuses.getOrderedStatuses(10));
+    }
+
+    @Test
+    public void testGetOrderedStatusesAfterListModification() throws IOException {
+        List<TwitterStatus> statuses = generateStatuses(100, 3);
+        TwitterStatuses twitterStatuses = new TwitterStatuses(new ArrayList<>(statuses.subList(0, 50)));
+
+        assertEquals(orderWithComparators(statuses.subList(0, 50)), twitterStatuses.getOrderedStatuses());
+
+        // Without addStatus(): the index must be re-created
+        twitterStatuses.getStatuses().addAll(statuses.subList(50, 100));
+
+        assertEquals(orderWithComparators(statuses), twitterStatuses.getOrderedStatuses());
+    }
+
+    @Test
+    public void testGetOrderedStatusesAfterReplacement() throws IOException {
+        List<TwitterStatus> statuses = generateStatuses(100, 5);
+        List<TwitterStatus> expected = new ArrayList<>(statuses.subList(0, 50));
+        TwitterStatuses twitterStatuses = new TwitterStatuses(new ArrayList<>(expected));
+
+        assertEquals(orderWithComparators(expected), twitterStatuses.getOrderedStatuses());
+
+        // Same size after the changes: the index must be re-created anyway
+        twitterStatuses.getStatuses().set(0, statuses.get(50));
+        expected.set(0, statuses.get(50));
+
+        assertEquals(orderWithComparators(expected), twitterStatuses.getOrderedStatuses());
+
+        twitterStatuses.getStatuses().remove(1);
+        twitterStatuses.getStatuses().add(statuses.get(51));
+        expected.remove(1);
+        expected.add(statuses.get(51));
+
+        assertEquals(orderWithComparators(expected), twitterStatuses.getOrderedStatuses());
+    }
+
+    @Test
+    public void testGetOrderedStatusesWhenEmpty() {
+        assertTrue(new TwitterStatuses(null).getOrderedStatuses().isEmpty());
+        assertTrue(new TwitterStatuses(new ArrayList<>()).getOrderedStatuses().isEmpty());
+    }
+
+    @Test
+    public void testAddStatus() throws IOException {
+        List<TwitterStatus> statuses = generateStatuses(100, 42);
+        TwitterStatuses twitterStatuses = new TwitterStatuses(new ArrayList<>(statuses.subList(0, 50)));
+
+        for (TwitterStatus status : statuses) {
+            twitterStatuses.addStatus(status);
+        }
+        for (TwitterStatus status : statuses) {
+            assertFalse(twitterStatuses.addStatus(status));
+        }
+
+        assertEquals(statuses, twitterStatuses.getStatuses());
+    }
+
+    @Test
+    public void testAddStatusAfterListModification() throws IOException {
+        List<TwitterStatus> statuses = generateStatuses(4, 42);
+        TwitterStatuses twitterStatuses = new TwitterStatuses(new ArrayList<>());
+        twitterStatuses.addStatus(statuses.get(0));
+
+        assertSame(twitterStatuses.getStatuses(), twitterStatuses.getStatuses());
+
+        // Added without addStatus(): still a duplicate
+        twitterStatuses.getStatuses().add(statuses.get(1));
+        assertFalse(twitterStatuses.addStatus(statuses.get(1)));
+
+        // Removed or replaced without addStatus(): can be added again
+        twitterStatuses.getStatuses().remove(statuses.get(0));
+        assertTrue(twitterStatuses.addStatus(statuses.get(0)));
+        twitterStatuses.getStatuses().set(0, statuses.get(2));
+        assertTrue(twitterStatuses.addStatus(statuses.get(1)));
+        assertFalse(twitterStatuses.addStatus(statuses.get(2)));
+
+        assertEquals(3, twitterStatuses.getStatuses().size());
+    }
+
+    @Test
+    public void testSerialize() throws IOException {
+        TwitterStatuses twitterStatuses = new TwitterStatuses();
+        for (TwitterStatus status : generateStatuses(3, 42)) {
+            twitterStatuses.addStatus(status);
+        }
+        twitterStatuses.getStatuses().get(0).getCreatedEpochMillis();
+
+        String json = MAPPER.writeValueAsString(twitterStatuses);
+
+        assertFalse(json.contains("statusIds"));
+        assertFalse(json.contains("createdEpochMillis"));
+        assertEquals(3, MAPPER.readValue(json, TwitterStatuses.class).getStatuses().size());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.staticcall;
+
+import com.tpa.twitterapi.api.authentificator.MockTwitterAuthenticator;
+import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
+import com.tpa.twitterapi.api.call.Search;
+import com.tpa.twitterapi.api.generic.bean.TwitterFixtures;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatuses;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class StaticCallCacheTest {
+
+    public StaticCallCacheTest() {
+    }
+
+    @Test
+    public void testGetKey() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("q", "bieber");
+        parameters.put("count", "100");
+        Map<String, Object> sameParameters = new HashMap<>();
+        sameParameters.put("count", "100");
+        sameParameters.put("q", "bieber");
+
+        assertEquals(StaticCallCache.getKey("url", parameters), StaticCallCache.getKey("url", sameParameters));
+
+        sameParameters.put("q", "gaga");
+        assertNotEquals(StaticCallCache.getKey("url", parameters), StaticCallCache.getKey("url", sameParameters));
+    }
+
+    @Test
+    public void testHitAndExpiration() throws Exception {
+        StaticCallCache cache = new StaticCallCache(100, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("result 1", cache.get("key", () -> "result " + loads.incrementAndGet()));
+        assertEquals("result 1", cache.get("key", () -> "result " + loads.incrementAndGet()));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        Thread.sleep(150);
+
+        assertEquals("result 2", cache.get("key", () -> "result " + loads.incrementAndGet()));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        StaticCallCache cache = new StaticCallCache(60000, 2);
+
+        cache.get("a", () -> "a");
+        cache.get("b", () -> "b");
+        cache.get("a", () -> "a");
+        cache.get("c", () -> "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        // "b" was the least recently used
+        assertEquals("a", cache.get("a", () -> "new a"));
+        assertEquals("new b", cache.get("b", () -> "new b"));
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+        StaticCallCache cache = new StaticCallCache(60000, 10);
+
+        try {
+            cache.get("key", () -> {
+                throw new TwitterRequestException("Failed");
+            });
+            fail("The exception should be thrown");
+        } catch (TwitterRequestException e) {
+            assertEquals("Failed", e.getMessage());
+        }
+
+        assertEquals("result", cache.get("key", () -> "result"));
+    }
+
+    @Test(timeout = 10000)
+    public void testSingleFlight() throws Exception {
+        StaticCallCache cache = new StaticCallCache(60000, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executorService.submit(() -> cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "result";
+                })));
+            }
+
+            started.await();
+            // The other calls wait for the request in progress
+            while (cache.getSharedLoadCount() < 7) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testCachedSearch() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> {
+            requests.incrementAndGet();
+            return MockTwitterAuthenticator.jsonResponse(200, "{\"statuses\":[" + TwitterFixtures.status(1) + "]}");
+        });
+
+        TwitterStatuses first = new Search(twitterAuthenticator).addParameter("q", "bieber").setCacheEnabled(true).executeRequest();
+        TwitterStatuses second = new Search(twitterAuthenticator).addParameter("q", "bieber").setCacheEnabled(true).executeRequest();
+        new Search(twitterAuthenticator).addParameter("q", "gaga").setCacheEnabled(true).executeRequest();
+        TwitterStatuses uncached = new Search(twitterAuthenticator).addParameter("q", "bieber").setCacheEnabled(false).executeRequest();
+
+        assertSame(first, second);
+        assertEquals(1, first.getStatuses().size());
+
+        // Shared by the identical calls: nobody can modify it
+        assertTrue(first.isReadOnly());
+        assertFalse(uncached.isReadOnly());
+        try {
+            first.addStatus(uncached.getStatuses().get(0));
+            fail("A cached result must be read-only");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(1, first.getStatuses().size());
+        }
+        try {
+            first.getStatuses().remove(0);
+            fail("A cached result must be read-only");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(1, second.getStatuses().size());
+        }
+        assertEquals(3, requests.get());
+        assertEquals(1.0 / 3, twitterAuthenticator.getStaticCallCache().getHitRatio(), 0.001);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.staticcall;
+
+import com.tpa.twitterapi.api.authentificator.MockTwitterAuthenticator;
+import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import com.tpa.twitterapi.tools.singleton.executor.ExecutorSingleton;
+import com.tpa.twitterapi.tools.singleton.property.PropertySingleton;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import org.junit.Assume;
+import org.junit.Test;
+import static com.tpa.twitterapi.api.generic.bean.TwitterFixtures.status;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class StaticCallExecutorTest {
+
+    private static final String SHOW_URL = "https://api.twitter.com/1.1/statuses/show.json";
+
+    public StaticCallExecutorTest() {
+    }
+
+    static class ShowStatus extends AbstractStaticCall<ShowStatus, TwitterStatus> {
+
+        ShowStatus(TwitterAuthenticator twitterAuthenticator, long id) {
+            super(TwitterStatus.class, twitterAuthenticator, SHOW_URL);
+            addParameter("id", String.valueOf(id));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testExecuteAll() throws TwitterAuthenticationException {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> {
+            long id = Long.parseLong(url.substring(url.indexOf("id=") + 3));
+
+            if (id == 0) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    // Interrupted by the timeout
+                }
+            }
+            if (id == 1) {
+                return MockTwitterAuthenticator.jsonResponse(404, "{}");
+            }
+            return MockTwitterAuthenticator.jsonResponse(200, status(id));
+        });
+
+        List<ShowStatus> calls = new ArrayList<>();
+        for (long id = 0; id < 20; id++) {
+            calls.add(new ShowStatus(twitterAuthenticator, id));
+        }
+
+        List<StaticCallResult<ShowStatus, TwitterStatus>> results;
+        try (StaticCallResults<ShowStatus, TwitterStatus> staticCallResults = new StaticCallExecutor(500).executeAll(calls)) {
+            results = staticCallResults.awaitAll();
+        }
+
+        assertEquals(20, results.size());
+
+        // The slow call completes last
+        StaticCallResult<ShowStatus, TwitterStatus> lastResult = results.get(19);
+        assertFalse(lastResult.isSuccessful());
+        assertTrue(lastResult.isTimedOut());
+
+        Set<Long> ids = new HashSet<>();
+        int failures = 0;
+        for (StaticCallResult<ShowStatus, TwitterStatus> result : results.subList(0, 19)) {
+            if (result.isSuccessful()) {
+                ids.add(result.getResult().getId());
+            }
+            else {
+                assertFalse(result.isTimedOut());
+                failures++;
+            }
+        }
+
+        assertEquals(1, failures);
+        assertEquals(18, ids.size());
+    }
+
+    @Test(timeout = 10000)
+    public void testExecuteRequestAsync() throws Exception {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> url.contains("id=1")
+                ? MockTwitterAuthenticator.jsonResponse(200, status(1))
+                : MockTwitterAuthenticator.jsonResponse(404, "{}"));
+
+        CompletableFuture<String> text = new ShowStatus(twitterAuthenticator, 1).executeRequestAsync().thenApply(TwitterStatus::getText);
+        assertEquals("Status 1", text.get());
+
+        try {
+            new ShowStatus(twitterAuthenticator, 2).executeRequestAsync().get();
+            fail("The call should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TwitterRequestException);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testExecuteRequestAsyncWaitsForAPermit() throws Exception {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(200, status(1)));
+        Semaphore callPermits = ExecutorSingleton.getInstance().getCallPermits();
+
+        int permits = callPermits.drainPermits();
+        CompletableFuture<TwitterStatus> status;
+        try {
+            status = new ShowStatus(twitterAuthenticator, 1).executeRequestAsync();
+
+            Thread.sleep(200);
+            assertFalse(status.isDone());
+        } finally {
+            callPermits.release(permits);
+        }
+
+        assertEquals(Long.valueOf(1), status.get().getId());
+    }
+
+    @Test(timeout = 10000)
+    public void testErrorIsPublished() {
+        List<InterfaceStaticCall<ShowStatus, TwitterStatus>> calls = new ArrayList<>();
+        calls.add(() -> {
+            throw new AssertionError("Unexpected error of the call");
+        });
+
+        try (StaticCallResults<InterfaceStaticCall<ShowStatus, TwitterStatus>, TwitterStatus> staticCallResults = new StaticCallExecutor(500).executeAll(calls)) {
+            StaticCallResult<InterfaceStaticCall<ShowStatus, TwitterStatus>, TwitterStatus> result = staticCallResults.next();
+
+            assertFalse(result.isSuccessful());
+            assertTrue(result.getException().getCause() instanceof AssertionError);
+            assertFalse(staticCallResults.hasNext());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCloseBeforeStart() throws Exception {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(200, status(1)));
+        Semaphore callPermits = ExecutorSingleton.getInstance().getCallPermits();
+
+        // With virtual threads, every call is started at once
+        Assume.assumeFalse(ExecutorSingleton.getInstance().isVirtualThreads());
+
+        // More calls than threads: while no permit is available, the last calls are not started
+        int callCount = PropertySingleton.getInstance().getInteger("twitter.executor.maxConcurrentCalls") * 2;
+        List<ShowStatus> calls = new ArrayList<>();
+        for (long id = 0; id < callCount; id++) {
+            calls.add(new ShowStatus(twitterAuthenticator, id));
+        }
+
+        List<StaticCallResult<ShowStatus, TwitterStatus>> results;
+        int permits = callPermits.drainPermits();
+        try (StaticCallResults<ShowStatus, TwitterStatus> staticCallResults = new StaticCallExecutor().executeAll(calls)) {
+            staticCallResults.close();
+            callPermits.release(permits);
+            permits = 0;
+
+            results = staticCallResults.awaitAll();
+        } finally {
+            callPermits.release(permits);
+        }
+
+        assertEquals(callCount, results.size());
+
+        int cancelled = 0;
+        for (StaticCallResult<ShowStatus, TwitterStatus> result : results) {
+            if (!result.isSuccessful()) {
+                assertTrue(result.getException().getCause() instanceof CancellationException);
+                cancelled++;
+            }
+        }
+        assertTrue(cancelled > 0);
+    }
+}
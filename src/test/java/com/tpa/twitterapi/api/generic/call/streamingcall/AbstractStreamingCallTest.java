@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.authentificator.MockTwitterAuthenticator;
+import com.tpa.twitterapi.api.authentificator.TwitterAuthenticator;
+import com.tpa.twitterapi.api.generic.bean.TwitterAuthorRegistry;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import com.tpa.twitterapi.exception.TwitterAuthenticationException;
+import com.tpa.twitterapi.exception.TwitterRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static com.tpa.twitterapi.api.generic.bean.TwitterFixtures.streamedStatus;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class AbstractStreamingCallTest {
+
+    private static final String STREAM_URL = "https://stream.twitter.com/1.1/statuses/filter.json";
+
+    public AbstractStreamingCallTest() {
+    }
+
+    private static class TestStreamingCall extends AbstractStreamingCall<TestStreamingCall, TwitterStatus> {
+
+        TestStreamingCall(TwitterAuthenticator twitterAuthenticator) {
+            super(TwitterStatus.class, twitterAuthenticator, STREAM_URL, null, null);
+        }
+    }
+
+    private static class CollectingSubscriber implements InterfaceStreamingSubscriber<TwitterStatus> {
+
+        private final List<Long> ids = new ArrayList<>();
+        private final int count;
+
+        private StreamingSubscription subscription;
+        private TwitterRequestException error;
+
+        CollectingSubscriber(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void onSubscribe(StreamingSubscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(TwitterStatus status) {
+            ids.add(status.getId());
+            if (ids.size() >= count) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(TwitterRequestException e) {
+            this.error = e;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testSupervisedStreamingReconnectsWithoutDuplicates() throws TwitterAuthenticationException {
+        AtomicInteger connections = new AtomicInteger();
+
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> {
+            if (connections.incrementAndGet() == 1) {
+                // The first stream is closed by Twitter after 2 statuses
+                return MockTwitterAuthenticator.jsonResponse(200, streamedStatus(1) + streamedStatus(2));
+            }
+            // The second one delivers again the status 2
+            return MockTwitterAuthenticator.jsonResponse(200, streamedStatus(2) + "\r\n" + streamedStatus(3) + streamedStatus(4));
+        });
+
+        TestStreamingCall streamingCall = new TestStreamingCall(twitterAuthenticator);
+        CollectingSubscriber subscriber = new CollectingSubscriber(3);
+
+        streamingCall.executeSupervisedStreamingRequest(subscriber);
+
+        assertNull(subscriber.error);
+        assertEquals(3, subscriber.ids.size());
+        assertEquals(Long.valueOf(1), subscriber.ids.get(0));
+        assertEquals(Long.valueOf(2), subscriber.ids.get(1));
+        assertEquals(Long.valueOf(3), subscriber.ids.get(2));
+
+        StreamingMetrics streamingMetrics = streamingCall.getStreamingMetrics();
+        assertEquals(2, streamingMetrics.getConnectionCount());
+        assertEquals(1, streamingMetrics.getReconnectCount());
+        assertEquals(1, streamingMetrics.getDuplicateCount());
+        assertTrue(streamingMetrics.getLastReconnectLatencyInMillis() >= 250);
+    }
+
+    @Test(timeout = 10000)
+    public void testSupervisedStreamingStopsOnFatalError() throws TwitterAuthenticationException {
+        AtomicInteger connections = new AtomicInteger();
+
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> {
+            connections.incrementAndGet();
+            return MockTwitterAuthenticator.jsonResponse(401, "{}");
+        });
+
+        CollectingSubscriber subscriber = new CollectingSubscriber(1);
+        new TestStreamingCall(twitterAuthenticator).executeSupervisedStreamingRequest(subscriber);
+
+        assertNotNull(subscriber.error);
+        assertEquals(1, connections.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testParseWorkersKeepTheOrder() throws TwitterAuthenticationException {
+        StringBuilder content = new StringBuilder();
+        for (long id = 1; id <= 1000; id++) {
+            content.append(streamedStatus(id));
+            if (id % 100 == 0) {
+                content.append("\r\nnot a JSON message\r\n");
+            }
+        }
+
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(200, content.toString()));
+
+        TestStreamingCall streamingCall = new TestStreamingCall(twitterAuthenticator).setParseWorkerCount(4);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Integer.MAX_VALUE);
+
+        streamingCall.executeStreamingRequest(subscriber);
+
+        assertNull(subscriber.error);
+        assertEquals(1000, subscriber.ids.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Long.valueOf(i + 1), subscriber.ids.get(i));
+        }
+        assertTrue(streamingCall.getStreamingMetrics().getMaxParseQueueDepth() > 0);
+        assertEquals(0, streamingCall.getParseQueueDepth());
+    }
+
+    @Test(timeout = 10000)
+    public void testMessageFilter() throws TwitterAuthenticationException {
+        StringBuilder content = new StringBuilder();
+        for (long id = 1; id <= 100; id++) {
+            content.append(streamedStatus(id));
+        }
+
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(200, content.toString()));
+
+        for (int parseWorkerCount : new int[]{0, 4}) {
+            TestStreamingCall streamingCall = new TestStreamingCall(twitterAuthenticator)
+                    .setParseWorkerCount(parseWorkerCount)
+                    .setMessageFilter((buffer, offset, length) -> new String(buffer, offset, length, StandardCharsets.UTF_8).contains("0\","));
+            CollectingSubscriber subscriber = new CollectingSubscriber(Integer.MAX_VALUE);
+
+            streamingCall.executeStreamingRequest(subscriber);
+
+            assertEquals(10, subscriber.ids.size());
+            assertEquals(Long.valueOf(100), subscriber.ids.get(9));
+            assertEquals(10, streamingCall.getStreamingMetrics().getAcceptedMessageCount());
+            assertEquals(90, streamingCall.getStreamingMetrics().getRejectedMessageCount());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testBeanInterceptor() throws TwitterAuthenticationException, TwitterRequestException {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(200, streamedStatus(1) + streamedStatus(2)));
+        TwitterAuthorRegistry authorRegistry = new TwitterAuthorRegistry(10, false);
+
+        List<TwitterStatus> statuses = new TestStreamingCall(twitterAuthenticator).setBeanInterceptor(authorRegistry).executeListRequest();
+
+        assertEquals(2, statuses.size());
+        assertSame(statuses.get(0).getAuthor(), statuses.get(1).getAuthor());
+        assertEquals(1, authorRegistry.getHitCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testSpilledListRequest() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (long id = 1; id <= 100; id++) {
+            content.append(streamedStatus(id));
+        }
+
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(200, content.toString()));
+
+        try (StreamingSpillList<TwitterStatus> spillList = new TestStreamingCall(twitterAuthenticator).executeSpilledListRequest(10)) {
+            assertEquals(100, spillList.size());
+            assertEquals(10, spillList.getHeapCount());
+            assertEquals(90, spillList.getSpilledCount());
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals(Long.valueOf(i + 1), spillList.get(i).getId());
+            }
+            assertEquals("alex", spillList.get(99).getAuthor().getScreenName());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testStreamingRequestAsync() throws Exception {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(200, streamedStatus(1) + streamedStatus(2)));
+
+        CollectingSubscriber subscriber = new CollectingSubscriber(Integer.MAX_VALUE);
+        new TestStreamingCall(twitterAuthenticator).executeStreamingRequestAsync(subscriber).get();
+
+        assertEquals(2, subscriber.ids.size());
+
+        List<TwitterStatus> statuses = new TestStreamingCall(twitterAuthenticator).executeListRequestAsync().get();
+        assertEquals(2, statuses.size());
+    }
+
+    @Test(timeout = 10000)
+    public void testStreamingRequestAsyncError() throws Exception {
+        TwitterAuthenticator twitterAuthenticator = MockTwitterAuthenticator.create(url -> MockTwitterAuthenticator.jsonResponse(503, "{}"));
+
+        CollectingSubscriber subscriber = new CollectingSubscriber(Integer.MAX_VALUE);
+        try {
+            new TestStreamingCall(twitterAuthenticator).executeStreamingRequestAsync(subscriber).get();
+            fail("The stream should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TwitterRequestException);
+            assertSame(e.getCause(), subscriber.error);
+        }
+    }
+}
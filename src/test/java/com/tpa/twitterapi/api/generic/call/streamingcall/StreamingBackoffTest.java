@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.call.streamingcall.StreamingBackoff.ErrorType;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class StreamingBackoffTest {
+
+    public StreamingBackoffTest() {
+    }
+
+    private static void assertDelay(long expected, long delay) {
+        assertTrue("Delay " + delay + " should be in [" + expected + ", " + expected * 1.2 + "]", delay >= expected && delay <= expected * 1.2);
+    }
+
+    @Test
+    public void testNetworkBackoff() {
+        StreamingBackoff streamingBackoff = new StreamingBackoff(new Random(42));
+
+        assertDelay(250, streamingBackoff.nextDelayInMillis(ErrorType.NETWORK));
+        assertDelay(500, streamingBackoff.nextDelayInMillis(ErrorType.NETWORK));
+        assertDelay(750, streamingBackoff.nextDelayInMillis(ErrorType.NETWORK));
+
+        for (int i = 0; i < 100; i++) {
+            streamingBackoff.nextDelayInMillis(ErrorType.NETWORK);
+        }
+        assertDelay(16000, streamingBackoff.nextDelayInMillis(ErrorType.NETWORK));
+    }
+
+    @Test
+    public void testHttpAndRateLimitBackoff() {
+        StreamingBackoff streamingBackoff = new StreamingBackoff(new Random(42));
+
+        assertDelay(5000, streamingBackoff.nextDelayInMillis(ErrorType.HTTP));
+        assertDelay(10000, streamingBackoff.nextDelayInMillis(ErrorType.HTTP));
+        assertDelay(20000, streamingBackoff.nextDelayInMillis(ErrorType.HTTP));
+
+        for (int i = 0; i < 10; i++) {
+            streamingBackoff.nextDelayInMillis(ErrorType.HTTP);
+        }
+        assertDelay(320000, streamingBackoff.nextDelayInMillis(ErrorType.HTTP));
+
+        // Another error type starts from its own first delay
+        assertDelay(60000, streamingBackoff.nextDelayInMillis(ErrorType.RATE_LIMIT));
+        assertDelay(120000, streamingBackoff.nextDelayInMillis(ErrorType.RATE_LIMIT));
+
+        streamingBackoff.reset();
+        assertDelay(60000, streamingBackoff.nextDelayInMillis(ErrorType.RATE_LIMIT));
+    }
+
+    @Test
+    public void testStatusCodes() {
+        assertTrue(StreamingBackoff.isRateLimited(420));
+        assertTrue(StreamingBackoff.isRateLimited(429));
+        assertFalse(StreamingBackoff.isRateLimited(503));
+
+        assertTrue(StreamingBackoff.isFatal(401));
+        assertFalse(StreamingBackoff.isFatal(503));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.TwitterFixtures;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class StreamingMessageFilterTest {
+
+    public StreamingMessageFilterTest() {
+    }
+
+    private static String status(long authorId, String lang, String text) {
+        return "{\"created_at\":\"" + TwitterFixtures.STATUS_CREATED_AT + "\",\"id\":1,"
+                + "\"retweeted_status\":{\"lang\":\"xx\",\"text\":\"nested\",\"user\":{\"id\":999}},"
+                + "\"text\":\"" + text + "\",\"entities\":{\"hashtags\":[{\"text\":\"tag\"}]},"
+                + "\"user\":{\"name\":\"Alex\",\"entities\":{\"id\":998},\"id\":" + authorId + "},\"lang\":\"" + lang + "\"}";
+    }
+
+    private static boolean accept(InterfaceMessageFilter filter, String message) {
+        byte[] buffer = ("  " + message + "  ").getBytes(StandardCharsets.UTF_8);
+        return filter.accept(buffer, 2, buffer.length - 4);
+    }
+
+    @Test
+    public void testConditions() {
+        StreamingMessageFilter filter = new StreamingMessageFilter()
+                .acceptLanguages("en", "fr")
+                .acceptAuthorIds(2, 3)
+                .acceptKeywords("Bieber");
+
+        assertTrue(accept(filter, status(2, "en", "I like bieber")));
+        assertTrue(accept(filter, status(3, "fr", "BIEBER!")));
+
+        assertFalse(accept(filter, status(4, "en", "I like bieber")));
+        assertFalse(accept(filter, status(2, "de", "I like bieber")));
+        assertFalse(accept(filter, status(2, "en", "I like gaga")));
+
+        // Nested properties are not used
+        assertFalse(accept(filter, status(999, "xx", "nested")));
+        assertFalse(accept(filter, status(998, "en", "bieber")));
+    }
+
+    @Test
+    public void testMissingProperties() {
+        StreamingMessageFilter filter = new StreamingMessageFilter().acceptLanguages("en");
+
+        assertFalse(accept(filter, "{\"delete\":{\"status\":{\"id\":1}}}"));
+        assertFalse(accept(filter, "{\"id\":1,\"lang\":null}"));
+
+        // Invalid messages are accepted, to be logged by the parsing
+        assertTrue(accept(filter, "not a JSON message"));
+
+        // No condition: everything is accepted
+        assertTrue(accept(new StreamingMessageFilter(), "{\"delete\":{}}"));
+    }
+}
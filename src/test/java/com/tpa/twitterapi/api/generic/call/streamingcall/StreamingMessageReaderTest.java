@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.TwitterFixtures;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class StreamingMessageReaderTest {
+
+    private static final String STATUS = TwitterFixtures.status(1);
+
+    public StreamingMessageReaderTest() {
+    }
+
+    private static StreamingMessageReader newReader(String content, int bufferSize) {
+        return new StreamingMessageReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), bufferSize);
+    }
+
+    private static String currentMessage(StreamingMessageReader reader) {
+        return new String(reader.getBuffer(), reader.getOffset(), reader.getLength(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testNextMessage() throws IOException {
+        StreamingMessageReader reader = newReader("first\r\n\r\nsecond\r\nlast", 1024);
+
+        assertTrue(reader.nextMessage());
+        assertEquals("first", currentMessage(reader));
+
+        assertTrue(reader.nextMessage());
+        assertTrue(reader.isKeepAlive());
+
+        assertTrue(reader.nextMessage());
+        assertEquals("second", currentMessage(reader));
+
+        assertTrue(reader.nextMessage());
+        assertEquals("last", currentMessage(reader));
+
+        assertFalse(reader.nextMessage());
+    }
+
+    @Test
+    public void testMessageLargerThanBuffer() throws IOException {
+        StreamingMessageReader reader = newReader(STATUS + "\r\n" + STATUS + "\r\n", 7);
+
+        assertTrue(reader.nextMessage());
+        assertEquals(STATUS, currentMessage(reader));
+        assertArrayEquals(STATUS.getBytes(StandardCharsets.UTF_8), reader.copyMessage());
+
+        assertTrue(reader.nextMessage());
+        assertEquals(STATUS, currentMessage(reader));
+
+        assertFalse(reader.nextMessage());
+    }
+
+    @Test
+    public void testParse() throws IOException {
+        StreamingMessageReader reader = newReader("\r\n" + STATUS + "\r\n", 1024);
+        StreamingMessageParser<TwitterStatus> parser = new StreamingMessageParser<>(TwitterStatus.class);
+
+        assertTrue(reader.nextMessage());
+        assertTrue(reader.nextMessage());
+
+        TwitterStatus status = parser.parse(reader);
+
+        assertEquals(Long.valueOf(1), status.getId());
+        assertEquals("Status 1", status.getText());
+        assertEquals("alex", status.getAuthor().getScreenName());
+        assertTrue(status.isValid());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import com.tpa.twitterapi.api.generic.bean.LazyTwitterStatus;
+import com.tpa.twitterapi.api.generic.bean.TwitterStatus;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Test;
+import static com.tpa.twitterapi.api.generic.bean.TwitterFixtures.status;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class StreamingSpillListTest {
+
+    public StreamingSpillListTest() {
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testSpill() throws IOException {
+        StreamingMessageParser<TwitterStatus> parser = new StreamingMessageParser<>(TwitterStatus.class);
+        Path directory = Files.createTempDirectory("twitter-spill-test");
+
+        // Small segments, so the messages are spread over several files
+        StreamingSpillList<TwitterStatus> spillList = new StreamingSpillList<>(parser, 5, 1024, directory);
+
+        for (long id = 1; id <= 50; id++) {
+            byte[] message = status(id).getBytes(StandardCharsets.UTF_8);
+            spillList.append(parser.parse(message, 0, message.length), message, 0, message.length);
+        }
+
+        assertEquals(50, spillList.size());
+        assertEquals(5, spillList.getHeapCount());
+        assertEquals(45, spillList.getSpilledCount());
+        assertTrue(spillList.getSegmentCount() > 1);
+
+        long id = 1;
+        for (TwitterStatus status : spillList) {
+            assertEquals(Long.valueOf(id), status.getId());
+            assertEquals("Status " + id, status.getText());
+            id++;
+        }
+
+        spillList.close();
+
+        assertEquals(0, countFiles(directory));
+        assertEquals(Long.valueOf(1), spillList.get(0).getId());
+        try {
+            spillList.get(10);
+            fail("The spilled elements should not be readable after close()");
+        } catch (IllegalStateException e) {
+        }
+
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testLazySpill() throws IOException {
+        StreamingMessageParser<TwitterStatus> parser = new StreamingMessageParser<>(TwitterStatus.class, true);
+        Path directory = Files.createTempDirectory("twitter-spill-test");
+
+        try (StreamingSpillList<TwitterStatus> spillList = new StreamingSpillList<>(parser, 0, 1024 * 1024, directory)) {
+            // The message is copied: the buffer can be reused
+            byte[] buffer = new byte[512];
+            byte[] message = status(42).getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(message, 0, buffer, 10, message.length);
+
+            spillList.append(null, buffer, 10, message.length);
+            buffer[20] = 'x';
+
+            TwitterStatus status = spillList.get(0);
+            assertTrue(status instanceof LazyTwitterStatus);
+            assertEquals(Long.valueOf(42), status.getId());
+            assertEquals("alex", status.getAuthor().getScreenName());
+        }
+
+        Files.delete(directory);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        new StreamingSpillList<>(new StreamingMessageParser<>(TwitterStatus.class), 1, 1024, null).add(new TwitterStatus());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.api.generic.call.streamingcall;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class StreamingSubscriptionTest {
+
+    public StreamingSubscriptionTest() {
+    }
+
+    @Test
+    public void testRequestAndConsume() {
+        StreamingSubscription subscription = new StreamingSubscription();
+        subscription.request(2);
+
+        assertTrue(subscription.awaitDemand());
+        subscription.consume();
+        assertEquals(1, subscription.getDemand());
+
+        subscription.consume();
+        assertEquals(0, subscription.getDemand());
+    }
+
+    @Test
+    public void testUnboundedRequest() {
+        StreamingSubscription subscription = new StreamingSubscription();
+        subscription.request(Long.MAX_VALUE);
+        subscription.request(10);
+        subscription.consume();
+
+        assertEquals(Long.MAX_VALUE, subscription.getDemand());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongRequest() {
+        new StreamingSubscription().request(0);
+    }
+
+    @Test(timeout = 5000)
+    public void testAwaitDemandFromAnotherThread() throws InterruptedException {
+        StreamingSubscription subscription = new StreamingSubscription();
+
+        Thread requester = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+            }
+            subscription.request(1);
+        });
+        requester.start();
+
+        assertTrue(subscription.awaitDemand());
+        requester.join();
+    }
+
+    @Test(timeout = 5000)
+    public void testCancel() {
+        StreamingSubscription subscription = new StreamingSubscription();
+        AtomicBoolean onCancelCalled = new AtomicBoolean(false);
+        subscription.setOnCancel(() -> onCancelCalled.set(true));
+
+        subscription.cancel();
+
+        assertTrue(subscription.isCancelled());
+        assertTrue(onCancelCalled.get());
+        assertFalse(subscription.awaitDemand());
+    }
+}
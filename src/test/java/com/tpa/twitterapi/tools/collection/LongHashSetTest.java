@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class LongHashSetTest {
+
+    public LongHashSetTest() {
+    }
+
+    @Test
+    public void testAddAndContains() {
+        LongHashSet longHashSet = new LongHashSet();
+
+        assertTrue(longHashSet.add(861000000000000000L));
+        assertTrue(longHashSet.add(0L));
+        assertTrue(longHashSet.add(-1L));
+        assertFalse(longHashSet.add(861000000000000000L));
+        assertFalse(longHashSet.add(0L));
+
+        assertTrue(longHashSet.contains(861000000000000000L));
+        assertTrue(longHashSet.contains(0L));
+        assertFalse(longHashSet.contains(1L));
+        assertEquals(3, longHashSet.size());
+
+        longHashSet.clear();
+
+        assertFalse(longHashSet.contains(0L));
+        assertFalse(longHashSet.contains(861000000000000000L));
+        assertEquals(0, longHashSet.size());
+    }
+
+    @Test
+    public void testGrowth() {
+        LongHashSet longHashSet = new LongHashSet(1);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            long id = random.nextInt(50000) * 4096L;
+            assertEquals(expected.add(id), longHashSet.add(id));
+        }
+
+        assertEquals(expected.size(), longHashSet.size());
+        for (Long id : expected) {
+            assertTrue(longHashSet.contains(id));
+        }
+    }
+
+    @Test
+    public void testRecentWindowIdSet() {
+        RecentWindowIdSet recentWindowIdSet = new RecentWindowIdSet(10);
+
+        for (long id = 1; id <= 100; id++) {
+            assertTrue(recentWindowIdSet.add(id));
+        }
+
+        // The last window is always remembered
+        for (long id = 91; id <= 100; id++) {
+            assertFalse(recentWindowIdSet.add(id));
+        }
+
+        // The oldest IDs are forgotten
+        assertFalse(recentWindowIdSet.contains(1L));
+        assertTrue(recentWindowIdSet.size() <= 20);
+    }
+}
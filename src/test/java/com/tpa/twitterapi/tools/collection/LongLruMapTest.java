@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class LongLruMapTest {
+
+    public LongLruMapTest() {
+    }
+
+    @Test
+    public void testEviction() {
+        LongLruMap<String> map = new LongLruMap<>(2);
+
+        map.put(1, "a");
+        map.put(2, "b");
+        assertEquals("a", map.get(1));
+
+        // 2 is the least recently used
+        map.put(3, "c");
+
+        assertEquals(2, map.size());
+        assertEquals(1, map.getEvictionCount());
+        assertNull(map.get(2));
+        assertEquals("a", map.get(1));
+        assertEquals("c", map.get(3));
+    }
+
+    @Test
+    public void testSameAsLinkedHashMap() {
+        final int maxSize = 100;
+        Map<Long, Long> expected = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+        LongLruMap<Long> map = new LongLruMap<>(maxSize);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            // Snowflake-like keys, with some collisions on the low bits
+            long key = 850000000000000000L + (random.nextInt(300) << 22);
+
+            if (random.nextBoolean()) {
+                assertEquals(expected.get(key), map.get(key));
+            }
+            else {
+                expected.put(key, (long) i);
+                map.put(key, (long) i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertTrue(map.containsKey(entry.getKey()));
+        }
+    }
+}
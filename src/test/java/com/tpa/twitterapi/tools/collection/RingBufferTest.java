@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class RingBufferTest {
+
+    public RingBufferTest() {
+    }
+
+    @Test
+    public void testOfferAndPoll() {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(3);
+
+        assertEquals(4, ringBuffer.getCapacity());
+        assertNull(ringBuffer.poll());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.offer(i));
+        }
+        assertFalse(ringBuffer.offer(4));
+        assertEquals(4, ringBuffer.size());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), ringBuffer.poll());
+        }
+        assertNull(ringBuffer.poll());
+        assertTrue(ringBuffer.isEmpty());
+
+        // Second round on the same slots
+        assertTrue(ringBuffer.offer(5));
+        assertEquals(Integer.valueOf(5), ringBuffer.poll());
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentProducers() throws InterruptedException {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(64);
+        Set<Integer> polled = ConcurrentHashMap.newKeySet();
+
+        int producerCount = 4;
+        int elementsPerProducer = 10000;
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < elementsPerProducer; i++) {
+                    while (!ringBuffer.offer(producer * elementsPerProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+
+        while (polled.size() < producerCount * elementsPerProducer) {
+            Integer element = ringBuffer.poll();
+            if (element != null) {
+                assertTrue("Element polled twice: " + element, polled.add(element));
+            }
+        }
+
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        assertNull(ringBuffer.poll());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class TwitterLoggerTest {
+
+    public TwitterLoggerTest() {
+    }
+
+    /**
+     * A logger keeping its records in memory
+     */
+    private static Logger newLogger(List<LogRecord> records, Level level) {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.setLevel(level);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return logger;
+    }
+
+    @Test
+    public void testGetTwitterLogger() {
+        TwitterLogger twitterLogger = LoggerSingleton.getInstance().getTwitterLogger(TwitterLoggerTest.class);
+
+        assertNotNull(twitterLogger);
+        assertEquals(LoggerSingleton.getInstance().getLogger(TwitterLoggerTest.class), twitterLogger.getLogger());
+    }
+
+    @Test
+    public void testLog() {
+        List<LogRecord> records = new ArrayList<>();
+        TwitterLogger twitterLogger = new TwitterLogger(newLogger(records, Level.INFO));
+
+        twitterLogger.log(Level.FINE, "Not logged: {0} {1}", 1, 2);
+        twitterLogger.log(Level.INFO, "Logged: {0} {1}", 1, 2);
+
+        assertEquals(1, records.size());
+        assertArrayEquals(new Object[]{1, 2}, records.get(0).getParameters());
+    }
+
+    @Test
+    public void testLogSampled() {
+        List<LogRecord> records = new ArrayList<>();
+        TwitterLogger twitterLogger = new TwitterLogger(newLogger(records, Level.INFO));
+        LogSampler sampler = new LogSampler(10);
+
+        for (int i = 0; i < 100; i++) {
+            twitterLogger.logSampled(Level.INFO, sampler, "Event {0}", i);
+        }
+
+        assertEquals(10, records.size());
+        assertEquals(100, sampler.getEventCount());
+
+        // Disabled levels are not counted
+        twitterLogger.logSampled(Level.FINEST, sampler, "Event {0}", 100);
+        assertEquals(100, sampler.getEventCount());
+    }
+}
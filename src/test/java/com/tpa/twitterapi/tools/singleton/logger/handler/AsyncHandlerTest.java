@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.logger.handler;
+
+import com.tpa.twitterapi.tools.singleton.logger.formatter.TwitterFormatter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.StreamHandler;
+import org.hamcrest.CoreMatchers;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class AsyncHandlerTest {
+
+    public AsyncHandlerTest() {
+    }
+
+    @Test(timeout = 10000)
+    public void testPublishAndFlush() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncHandler asyncHandler = new AsyncHandler(new StreamHandler(output, new TwitterFormatter()), 16, AsyncHandler.OverflowPolicy.BLOCK, 4);
+
+        for (int i = 0; i < 100; i++) {
+            asyncHandler.publish(new LogRecord(Level.INFO, "Message " + i));
+        }
+        asyncHandler.flush();
+
+        String content = new String(output.toByteArray(), StandardCharsets.UTF_8);
+
+        assertThat(content, CoreMatchers.containsString("Message 0\n"));
+        assertThat(content, CoreMatchers.containsString("Message 99\n"));
+        assertEquals(0, asyncHandler.getDroppedCount());
+
+        asyncHandler.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testParametersAreRenderedWhenPublished() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncHandler asyncHandler = new AsyncHandler(new StreamHandler(output, new TwitterFormatter()), 16, AsyncHandler.OverflowPolicy.BLOCK, 4);
+
+        StringBuilder mutableParameter = new StringBuilder("before");
+        LogRecord record = new LogRecord(Level.INFO, "Value: {0}");
+        record.setParameters(new Object[]{mutableParameter});
+
+        asyncHandler.publish(record);
+        mutableParameter.setLength(0);
+        mutableParameter.append("after");
+        asyncHandler.flush();
+
+        String content = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(content, CoreMatchers.containsString("Value: before\n"));
+
+        asyncHandler.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testClose() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncHandler asyncHandler = new AsyncHandler(new StreamHandler(output, new TwitterFormatter()), 1024, AsyncHandler.OverflowPolicy.DROP, 256);
+
+        for (int i = 0; i < 100; i++) {
+            asyncHandler.publish(new LogRecord(Level.INFO, "Message " + i));
+        }
+        asyncHandler.close();
+
+        String content = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(content, CoreMatchers.containsString("Message 99\n"));
+
+        // Records published after the close are ignored
+        asyncHandler.publish(new LogRecord(Level.INFO, "Too late"));
+        assertEquals(0, asyncHandler.getPendingCount());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tpa.twitterapi.tools.singleton.logger.handler;
+
+import com.tpa.twitterapi.tools.singleton.logger.formatter.TwitterFormatter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.StreamHandler;
+import org.hamcrest.CoreMatchers;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Alexandre Veremme @ The POC Agency | alex [at] the-poc-agency.com
+ */
+public class RoutingHandlerTest {
+
+    public RoutingHandlerTest() {
+    }
+
+    private static LogRecord record(String loggerName, String message) {
+        LogRecord record = new LogRecord(Level.INFO, message);
+        record.setLoggerName(loggerName);
+        return record;
+    }
+
+    @Test(timeout = 10000)
+    public void testOneWriterForSeveralFiles() {
+        ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream secondOutput = new ByteArrayOutputStream();
+
+        RoutingHandler routingHandler = new RoutingHandler();
+        routingHandler.addHandler("first", new StreamHandler(firstOutput, new TwitterFormatter()));
+        routingHandler.addHandler("second", new StreamHandler(secondOutput, new TwitterFormatter()));
+
+        AsyncHandler asyncHandler = new AsyncHandler(routingHandler, 16, AsyncHandler.OverflowPolicy.BLOCK, 4);
+        asyncHandler.publish(record("first", "First message"));
+        asyncHandler.publish(record("second", "Second message"));
+        asyncHandler.publish(record("unknown", "Ignored message"));
+        asyncHandler.close();
+
+        String firstContent = new String(firstOutput.toByteArray(), StandardCharsets.UTF_8);
+        String secondContent = new String(secondOutput.toByteArray(), StandardCharsets.UTF_8);
+
+        assertThat(firstContent, CoreMatchers.containsString("First message\n"));
+        assertFalse(firstContent.contains("Second message"));
+        assertThat(secondContent, CoreMatchers.containsString("Second message\n"));
+        assertFalse(secondContent.contains("Ignored message"));
+    }
+}
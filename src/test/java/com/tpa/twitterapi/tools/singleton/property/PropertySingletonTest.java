@@ -15,7 +15,10 @@
  */
 package com.tpa.twitterapi.tools.singleton.property;
 
+import com.tpa.twitterapi.api.authentificator.credential.InterfaceCredentialStore;
+import com.tpa.twitterapi.api.authentificator.transport.InterfaceHttpTransportFactory;
 import com.tpa.twitterapi.tools.singleton.logger.LoggerSingleton;
+import com.tpa.twitterapi.tools.singleton.logger.handler.AsyncHandler;
 import java.util.logging.Logger;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
@@ -96,6 +99,23 @@ public class PropertySingletonTest {
         assertNotNull(PropertySingleton.getInstance().getProperty("java.util.logging.level"));
     }
     
+    @Test
+    public void testProperty_sampleRate() {
+        assertThat(PropertySingleton.getInstance().getInteger("java.util.logging.sampleRate"), CoreMatchers.instanceOf(Integer.class));
+        assertTrue(PropertySingleton.getInstance().getInteger("java.util.logging.sampleRate") > 0);
+    }
+    
+    @Test
+    public void testProperty_async() {
+        String stringValue = PropertySingleton.getInstance().getProperty("java.util.logging.async");
+        
+        assertNotNull(stringValue);
+        assertEquals(PropertySingleton.getInstance().getBoolean("java.util.logging.async"), Boolean.parseBoolean(stringValue));
+        assertTrue(PropertySingleton.getInstance().getInteger("java.util.logging.async.capacity") > 0);
+        assertTrue(PropertySingleton.getInstance().getInteger("java.util.logging.async.batchSize") > 0);
+        assertNotNull(AsyncHandler.OverflowPolicy.valueOf(PropertySingleton.getInstance().getProperty("java.util.logging.async.overflowPolicy")));
+    }
+    
     @Test
     public void testProperty_consumerKey() {
         assertNotNull(PropertySingleton.getInstance().getProperty("twitter.consumerKey"));
@@ -122,4 +142,41 @@ public class PropertySingletonTest {
     public void testProperty_searchText() {
         assertNotNull(PropertySingleton.getInstance().getProperty("twitter.default.searchText"));
     }
+    
+    @Test
+    public void testProperty_deduplicationWindow() {
+        assertThat(PropertySingleton.getInstance().getInteger("twitter.statuses.deduplicationWindow"), CoreMatchers.instanceOf(Integer.class));
+        assertTrue(PropertySingleton.getInstance().getInteger("twitter.statuses.deduplicationWindow") >= 0);
+    }
+    
+    @Test
+    public void testProperty_parallelSortThreshold() {
+        assertThat(PropertySingleton.getInstance().getInteger("twitter.statuses.parallelSortThreshold"), CoreMatchers.instanceOf(Integer.class));
+        assertTrue(PropertySingleton.getInstance().getInteger("twitter.statuses.parallelSortThreshold") > 0);
+    }
+    
+    @Test
+    public void testProperty_transportFactory() {
+        InterfaceHttpTransportFactory transportFactory = PropertySingleton.getInstance().getObject("twitter.http.transportFactory", InterfaceHttpTransportFactory.class);
+        assertNotNull(transportFactory);
+        assertNotNull(transportFactory.createHttpTransport());
+    }
+    
+    @Test
+    public void testProperty_maxConnections() {
+        assertThat(PropertySingleton.getInstance().getInteger("twitter.http.maxConnections"), CoreMatchers.instanceOf(Integer.class));
+        assertTrue(PropertySingleton.getInstance().getInteger("twitter.http.maxConnections") > 0);
+    }
+    
+    @Test
+    public void testProperty_credentialStore() {
+        assertThat(PropertySingleton.getInstance().getObject("twitter.credentials.store", InterfaceCredentialStore.class), CoreMatchers.instanceOf(InterfaceCredentialStore.class));
+        assertNotNull(PropertySingleton.getInstance().getProperty("twitter.credentials.fileName"));
+    }
+    
+    @Test
+    public void testProperty_rateLimit() {
+        assertThat(PropertySingleton.getInstance().getBoolean("twitter.rateLimit.enabled"), CoreMatchers.instanceOf(Boolean.class));
+        assertTrue(PropertySingleton.getInstance().getInteger("twitter.rateLimit.maxWaitInSeconds") >= 0);
+    }
 }